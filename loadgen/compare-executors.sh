@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Compares Tomcat's pool of 200 platform threads with a virtual thread per request over HTTP. For each executor and
+# each rate it starts the application with spring.threads.virtual.enabled off or on, drives it with the load generator
+# and keeps the report. The table at the end lists bid throughput and latency percentiles per run.
+#
+# Needs the local stack (docker compose up -d) and a free port 8080. Settings, all optional:
+#   RATES             bid and read requests per second, one run per rate (default "2000 5000 10000 20000")
+#   DURATION_SECONDS  recorded seconds per run (default 60)
+#   AUCTIONS          auctions created per run (default 10000)
+#   OUT_DIR           reports, .hgrm distributions and application logs (default build/executor-comparison)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RATES=${RATES:-"2000 5000 10000 20000"}
+DURATION_SECONDS=${DURATION_SECONDS:-60}
+AUCTIONS=${AUCTIONS:-10000}
+OUT_DIR=${OUT_DIR:-build/executor-comparison}
+BASE_URL=http://localhost:8080
+
+./gradlew -q bootJar :loadgen:installDist
+APP_JAR=$(ls build/libs/*.jar | grep -v -- '-plain\.jar$' | head -n 1)
+
+app=
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null || true' EXIT
+
+for executor in platform virtual; do
+  virtual=false
+  [ "$executor" = virtual ] && virtual=true
+  for rate in $RATES; do
+    run_dir="$OUT_DIR/$executor-$rate"
+    mkdir -p "$run_dir"
+    # A fresh application per run, so one run's backlog cannot slow the next.
+    java -jar "$APP_JAR" --spring.threads.virtual.enabled="$virtual" > "$run_dir/app.log" 2>&1 &
+    app=$!
+    until curl -fs "$BASE_URL/actuator/health" > /dev/null; do
+      if ! kill -0 "$app" 2>/dev/null; then
+        echo "The application did not start; see $run_dir/app.log" >&2
+        exit 1
+      fi
+      sleep 1
+    done
+    echo "Running $executor threads at $rate req/s"
+    loadgen/build/install/loadgen/bin/loadgen --base-url="$BASE_URL" --rate="$rate" --auctions="$AUCTIONS" \
+        --duration-seconds="$DURATION_SECONDS" --out-dir="$run_dir" > "$run_dir/loadgen.txt"
+    kill "$app"
+    wait "$app" || true
+    app=
+  done
+done
+
+echo
+echo "Bids per executor and offered rate; latency in ms, corrected for coordinated omission"
+for executor in platform virtual; do
+  for rate in $RATES; do
+    report="$OUT_DIR/$executor-$rate/loadgen.txt"
+    printf '%-8s %6s/s  %s\n' "$executor" "$rate" \
+        "$(grep -A1 '^bid ' "$report" | tr -s ' ' | sed 's/^bid //' | paste -sd ' ' -)"
+  done
+done
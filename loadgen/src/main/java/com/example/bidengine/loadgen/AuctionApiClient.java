@@ -0,0 +1,75 @@
+package com.example.bidengine.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blocking calls to the bid engine REST API; meant to be called from virtual threads. Returns the HTTP status and
+ * leaves the body unread unless the caller needs it.
+ */
+final class AuctionApiClient {
+    private static final Pattern AUCTION_ID = Pattern.compile("\"auctionId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI baseUrl;
+
+    AuctionApiClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * @return the new auction's ID
+     */
+    String createAuction(String sellerId, String title, long startingPrice, long startTimeEpochMs,
+                         long endTimeEpochMs) throws IOException, InterruptedException {
+        String body = "{\"sellerId\":\"%s\",\"title\":\"%s\",\"startingPrice\":%d,\"startTimeEpochMs\":%d,"
+                .formatted(sellerId, title, startingPrice, startTimeEpochMs)
+                + "\"endTimeEpochMs\":%d}".formatted(endTimeEpochMs);
+        HttpResponse<String> response = client.send(post("/auctions", body), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = AUCTION_ID.matcher(response.body());
+        if (response.statusCode() != 201 && response.statusCode() != 200 || !matcher.find()) {
+            throw new IOException("Create auction failed with " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    int placeBid(String auctionId, String bidderId, long amount) throws IOException, InterruptedException {
+        String body = "{\"bidderId\":\"%s\",\"amount\":%d}".formatted(bidderId, amount);
+        return client.send(post("/auctions/" + auctionId + "/bids", body), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    int getAuction(String auctionId) throws IOException, InterruptedException {
+        return client.send(get("/auctions/" + auctionId), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    int listTopBids(String auctionId) throws IOException, InterruptedException {
+        return client.send(get("/auctions/" + auctionId + "/bids?limit=10"), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.bidengine.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one operation, in microseconds. {@code corrected} runs from the time the request was scheduled to be
+ * sent, so time spent queued behind slow responses counts (coordinated omission correction); {@code uncorrected}
+ * runs from the time it was actually sent, which is what a closed-loop client would report.
+ */
+final class LatencyStats {
+    static final int ERROR = -1;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final String operation;
+    private final Histogram corrected = new ConcurrentHistogram(3);
+    private final Histogram uncorrected = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    LatencyStats(String operation) {
+        this.operation = operation;
+    }
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+        corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos));
+        uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos));
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    long count() {
+        return corrected.getTotalCount();
+    }
+
+    long statusCount(int status) {
+        LongAdder count = statuses.get(status);
+        return count == null ? 0 : count.sum();
+    }
+
+    Histogram corrected() {
+        return corrected;
+    }
+
+    void report(PrintStream out, double seconds) {
+        if (count() == 0) {
+            return;
+        }
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+        out.printf("%-12s %,d requests, %,.0f/s, statuses %s%n", operation, count(), count() / seconds,
+                byStatus.toString().replace(ERROR + "=", "error="));
+        line(out, "corrected", corrected);
+        line(out, "uncorrected", uncorrected);
+    }
+
+    void writeDistribution(Path dir) throws IOException {
+        if (count() == 0) {
+            return;
+        }
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Histogram> entry : Map.of("corrected", corrected, "uncorrected", uncorrected)
+                .entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    dir.resolve(operation + "-" + entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static void line(PrintStream out, String label, Histogram histogram) {
+        StringBuilder line = new StringBuilder("  %-12s".formatted(label));
+        for (double percentile : PERCENTILES) {
+            line.append(" p%s=%.2f".formatted(percentile == (long) percentile ? Long.toString((long) percentile)
+                    : Double.toString(percentile), histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        line.append(" max=%.2f ms".formatted(histogram.getMaxValue() / 1000.0));
+        out.println(line);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.bidengine.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the bid engine REST API. After a setup phase that creates the auctions, requests are
+ * sent at a fixed rate, each on its own virtual thread, whether or not earlier requests have been answered. Every
+ * request's latency is measured from the time it was scheduled, so a stalled server shows up in the percentiles
+ * instead of silently lowering the request rate.
+ *
+ * <p>Auction end times are spread over the recorded window, so auctions keep closing while load runs; a share of
+ * the bids goes to auctions about to end, the rest follows a Zipf distribution over the auctions, hottest first.
+ */
+public final class LoadGenerator {
+    private static final long STARTING_PRICE = 100;
+    private static final int MAX_INCREMENT = 25;
+    private static final long PROGRESS_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final LoadProfile profile;
+    private final AuctionApiClient client;
+    private final PrintStream out;
+    private final LatencyStats creates = new LatencyStats("create");
+    private final LatencyStats bids = new LatencyStats("bid");
+    private final LatencyStats auctionReads = new LatencyStats("get-auction");
+    private final LatencyStats bidReads = new LatencyStats("top-bids");
+
+    private String[] auctionIds;
+    private long[] endTimes;
+    // Auctions in end time order, for the spike window, and their last bid amount.
+    private int[] byEndTime;
+    private AtomicLongArray prices;
+    private long setupMillis;
+
+    LoadGenerator(LoadProfile profile, PrintStream out) {
+        this.profile = profile;
+        this.client = new AuctionApiClient(profile.baseUrl());
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile;
+        try {
+            profile = LoadProfile.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(profile, System.out).run();
+    }
+
+    void run() throws InterruptedException, IOException {
+        out.printf("Target %s: %,d auctions, %,d req/s for %ds after %ds warmup, read ratio %.2f, zipf %.2f, "
+                        + "spike share %.2f%n", profile.baseUrl(), profile.auctions(), profile.rate(),
+                profile.durationSeconds(), profile.warmupSeconds(), profile.readRatio(), profile.zipfExponent(),
+                profile.spikeShare());
+        long loadStartMs = createAuctions();
+        long sleepMs = loadStartMs - System.currentTimeMillis();
+        if (sleepMs > 0) {
+            Thread.sleep(sleepMs);
+        } else {
+            out.printf("Setup overran by %d ms; raise --setup-seconds so auctions do not end before their load%n",
+                    -sleepMs);
+        }
+        runLoad();
+        report();
+    }
+
+    /**
+     * Creates the auctions with bounded parallelism and returns the wall-clock time the load phase is due to start.
+     * End times are shuffled across auctions, so the Zipf rank of an auction says nothing about when it ends.
+     */
+    long createAuctions() throws InterruptedException {
+        int count = profile.auctions();
+        long startMs = System.currentTimeMillis();
+        long loadStartMs = startMs + TimeUnit.SECONDS.toMillis(profile.setupSeconds());
+        long recordedStartMs = loadStartMs + TimeUnit.SECONDS.toMillis(profile.warmupSeconds());
+        long windowMs = TimeUnit.SECONDS.toMillis(profile.durationSeconds());
+        List<Long> ends = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            ends.add(recordedStartMs + windowMs * (k + 1) / count);
+        }
+        Collections.shuffle(ends, new Random(profile.seed()));
+
+        auctionIds = new String[count];
+        endTimes = ends.stream().mapToLong(Long::longValue).toArray();
+        prices = new AtomicLongArray(count);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Semaphore slots = new Semaphore(profile.createParallelism());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count && failure.get() == null; i++) {
+                slots.acquire();
+                int index = i;
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        auctionIds[index] = client.createAuction("loadgen-seller-" + index % 100,
+                                "Load test auction " + index, STARTING_PRICE, startMs - 1000, endTimes[index]);
+                        creates.record(sent, sent, System.nanoTime(), 201);
+                    } catch (IOException | InterruptedException ex) {
+                        creates.record(sent, sent, System.nanoTime(), LatencyStats.ERROR);
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Auction setup failed", failure.get());
+        }
+        for (int i = 0; i < count; i++) {
+            prices.set(i, STARTING_PRICE);
+        }
+        byEndTime = sortedByEndTime(endTimes);
+        setupMillis = Math.max(1, System.currentTimeMillis() - startMs);
+        out.printf("Created %,d auctions in %d ms%n", count, setupMillis);
+        return loadStartMs;
+    }
+
+    private void runLoad() throws InterruptedException {
+        ZipfDistribution zipf = new ZipfDistribution(profile.auctions(), profile.zipfExponent());
+        SplittableRandom root = new SplittableRandom(profile.seed());
+        Semaphore inFlight = new Semaphore(profile.maxInFlight());
+        long total = (long) profile.rate() * (profile.warmupSeconds() + profile.durationSeconds());
+        long warmup = (long) profile.rate() * profile.warmupSeconds();
+        AtomicLong completed = new AtomicLong();
+
+        long start = System.nanoTime();
+        long nextProgress = start + PROGRESS_NANOS;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * TimeUnit.SECONDS.toNanos(1) / profile.rate();
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Blocking here delays the send but not the intended time, so the wait shows up as latency.
+                inFlight.acquire();
+                boolean recorded = i >= warmup;
+                SplittableRandom random = root.split();
+                executor.execute(() -> {
+                    try {
+                        send(random, zipf, intended, recorded);
+                    } finally {
+                        inFlight.release();
+                        completed.incrementAndGet();
+                    }
+                });
+                if (System.nanoTime() >= nextProgress) {
+                    nextProgress += PROGRESS_NANOS;
+                    out.printf("%4ds sent %,d, completed %,d, in flight %,d%n",
+                            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), i + 1, completed.get(),
+                            profile.maxInFlight() - inFlight.availablePermits());
+                }
+            }
+        }
+    }
+
+    private void send(SplittableRandom random, ZipfDistribution zipf, long intended, boolean recorded) {
+        LatencyStats stats;
+        int auction;
+        Request request;
+        if (random.nextDouble() < profile.readRatio()) {
+            auction = zipf.sample(random);
+            boolean top = random.nextBoolean();
+            stats = top ? bidReads : auctionReads;
+            request = top ? () -> client.listTopBids(auctionIds[auction])
+                    : () -> client.getAuction(auctionIds[auction]);
+        } else {
+            int spiking = random.nextDouble() < profile.spikeShare() ? endingSoon(random) : -1;
+            auction = spiking >= 0 ? spiking : zipf.sample(random);
+            String bidderId = "loadgen-bidder-" + random.nextInt(profile.bidders());
+            long amount = prices.addAndGet(auction, 1 + random.nextInt(MAX_INCREMENT));
+            stats = bids;
+            request = () -> client.placeBid(auctionIds[auction], bidderId, amount);
+        }
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = request.send();
+        } catch (IOException ex) {
+            status = LatencyStats.ERROR;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recorded) {
+            stats.record(intended, sent, System.nanoTime(), status);
+        }
+    }
+
+    /**
+     * Picks an auction uniformly among those ending within the spike window, or -1 if none is open and that close.
+     */
+    private int endingSoon(SplittableRandom random) {
+        long now = System.currentTimeMillis();
+        int from = firstEndingAfter(now);
+        int to = firstEndingAfter(now + TimeUnit.SECONDS.toMillis(profile.spikeWindowSeconds()));
+        return from == to ? -1 : byEndTime[random.nextInt(from, to)];
+    }
+
+    private int firstEndingAfter(long epochMs) {
+        int low = 0;
+        int high = byEndTime.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (endTimes[byEndTime[mid]] <= epochMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void report() throws IOException {
+        double seconds = profile.durationSeconds();
+        out.println();
+        out.println("Latency in ms; corrected is measured from the scheduled send time");
+        creates.report(out, setupMillis / 1000.0);
+        for (LatencyStats stats : List.of(bids, auctionReads, bidReads)) {
+            stats.report(out, seconds);
+        }
+        long throttled = bids.statusCount(429) + auctionReads.statusCount(429) + bidReads.statusCount(429);
+        if (throttled > 0) {
+            out.printf("%,d requests were rate limited (429); turn off bidengine.rate-limit%n", throttled);
+        }
+        if (profile.outDir() != null) {
+            for (LatencyStats stats : List.of(creates, bids, auctionReads, bidReads)) {
+                stats.writeDistribution(profile.outDir());
+            }
+            out.println("Percentile distributions written to " + profile.outDir().toAbsolutePath());
+        }
+    }
+
+    static int[] sortedByEndTime(long[] endTimes) {
+        Integer[] order = new Integer[endTimes.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Long.compare(endTimes[a], endTimes[b]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        int send() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.bidengine.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Traffic profile, from {@code --name=value} arguments.
+ *
+ * @param auctions        auctions created in the setup phase
+ * @param createParallelism concurrent create requests in the setup phase
+ * @param setupSeconds    time reserved for the setup phase; the load phase starts when it is over
+ * @param rate            requests per second of the load phase, sent on schedule whatever the response times
+ * @param warmupSeconds   first seconds of the load phase, sent but not recorded
+ * @param durationSeconds recorded seconds of the load phase; auction end times are spread over them
+ * @param readRatio       share of requests that read an auction or its top bids instead of bidding
+ * @param zipfExponent    skew of bids and reads across auctions; 0 is uniform
+ * @param spikeShare      share of bids aimed at auctions within {@code spikeWindowSeconds} of their end
+ * @param bidders         distinct bidder IDs
+ * @param maxInFlight     cap on outstanding requests; time spent waiting for a slot counts as latency
+ * @param outDir          if set, the percentile distribution of every operation is written there
+ */
+record LoadProfile(URI baseUrl, int auctions, int createParallelism, int setupSeconds, int rate,
+                   int warmupSeconds, int durationSeconds, double readRatio, double zipfExponent,
+                   double spikeShare, int spikeWindowSeconds, int bidders, int maxInFlight, long seed,
+                   Path outDir) {
+
+    private static final Set<String> NAMES = Set.of("base-url", "auctions", "create-parallelism", "setup-seconds",
+            "rate", "warmup-seconds", "duration-seconds", "read-ratio", "zipf-exponent", "spike-share",
+            "spike-window-seconds", "bidders", "max-in-flight", "seed", "out-dir");
+
+    LoadProfile {
+        if (auctions < 1 || rate < 1 || durationSeconds < 1 || createParallelism < 1 || maxInFlight < 1
+                || bidders < 1) {
+            throw new IllegalArgumentException("auctions, rate, duration-seconds, create-parallelism, bidders and "
+                    + "max-in-flight must be positive");
+        }
+        if (readRatio < 0 || readRatio > 1 || spikeShare < 0 || spikeShare > 1) {
+            throw new IllegalArgumentException("read-ratio and spike-share must be between 0 and 1");
+        }
+    }
+
+    static LoadProfile parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0 || !NAMES.contains(arg.substring(2, eq))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + "; expected --name=value with name in "
+                        + NAMES);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String outDir = values.get("out-dir");
+        return new LoadProfile(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                intArg(values, "auctions", 1000),
+                intArg(values, "create-parallelism", 64),
+                intArg(values, "setup-seconds", 30),
+                intArg(values, "rate", 2000),
+                intArg(values, "warmup-seconds", 10),
+                intArg(values, "duration-seconds", 60),
+                doubleArg(values, "read-ratio", 0.2),
+                doubleArg(values, "zipf-exponent", 1.1),
+                doubleArg(values, "spike-share", 0.3),
+                intArg(values, "spike-window-seconds", 10),
+                intArg(values, "bidders", 100_000),
+                intArg(values, "max-in-flight", 10_000),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                outDir == null ? null : Path.of(outDir));
+    }
+
+    private static int intArg(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static double doubleArg(Map<String, String> values, String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bidengine.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyStatsTest {
+
+    @Test
+    void correctedLatencyIncludesTimeQueuedBeforeTheSend() {
+        LatencyStats stats = new LatencyStats("bid");
+        long intended = 0;
+        long sent = TimeUnit.MILLISECONDS.toNanos(90);
+        long done = TimeUnit.MILLISECONDS.toNanos(100);
+
+        stats.record(intended, sent, done, 201);
+        stats.record(intended, sent, done, LatencyStats.ERROR);
+
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.corrected().getMaxValue()).isCloseTo(100_000L, within(100L));
+        assertThat(stats.statusCount(201)).isEqualTo(1);
+        assertThat(stats.statusCount(LatencyStats.ERROR)).isEqualTo(1);
+        assertThat(stats.statusCount(429)).isZero();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bidengine.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadProfileTest {
+
+    @Test
+    void parsesArgumentsOverDefaults() {
+        LoadProfile profile = LoadProfile.parse("--rate=5000", "--read-ratio=0.5", "--base-url=http://app:8080");
+
+        assertThat(profile.rate()).isEqualTo(5000);
+        assertThat(profile.readRatio()).isEqualTo(0.5);
+        assertThat(profile.baseUrl()).isEqualTo(URI.create("http://app:8080"));
+        assertThat(profile.auctions()).isEqualTo(1000);
+        assertThat(profile.outDir()).isNull();
+    }
+
+    @Test
+    void rejectsUnknownOrOutOfRangeArguments() {
+        assertThatThrownBy(() -> LoadProfile.parse("--rps=10"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--rps=10");
+        assertThatThrownBy(() -> LoadProfile.parse("--spike-share=1.5"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
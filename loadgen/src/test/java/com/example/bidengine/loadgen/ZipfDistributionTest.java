@@ -0,0 +1,47 @@
+package com.example.bidengine.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfDistributionTest {
+
+    @Test
+    void probabilitiesFallWithRankAndSumToOne() {
+        ZipfDistribution zipf = new ZipfDistribution(100, 1.1);
+
+        double sum = 0;
+        for (int rank = 0; rank < 100; rank++) {
+            sum += zipf.probability(rank);
+        }
+        assertThat(sum).isCloseTo(1.0, within(1e-9));
+        assertThat(zipf.probability(0)).isGreaterThan(zipf.probability(1));
+        assertThat(zipf.probability(0) / zipf.probability(1)).isCloseTo(Math.pow(2, 1.1), within(1e-9));
+    }
+
+    @Test
+    void samplesFollowTheDistribution() {
+        ZipfDistribution zipf = new ZipfDistribution(50, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[50];
+        int samples = 200_000;
+
+        for (int i = 0; i < samples; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        assertThat((double) counts[0] / samples).isCloseTo(zipf.probability(0), within(0.01));
+        assertThat((double) counts[9] / samples).isCloseTo(zipf.probability(9), within(0.005));
+    }
+
+    @Test
+    void exponentZeroIsUniform() {
+        ZipfDistribution zipf = new ZipfDistribution(4, 0);
+
+        assertThat(zipf.probability(0)).isCloseTo(0.25, within(1e-12));
+        assertThat(zipf.probability(3)).isCloseTo(0.25, within(1e-12));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.service.AuctionEventPublisher;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event publishing throughput against a real broker: bursts of {@code BID_PLACED} events spread over many auctions
+ * (so over all partitions), sent through {@link AuctionEventPublisher}. Its in-flight limit applies backpressure, so
+ * the sustained rate is what the producer gets acknowledged. Compares unbatched sends ({@code linger.ms=0}) with the
+ * batched, compressed settings of {@code application.yml}. Uses the broker at
+ * {@code BENCH_KAFKA_BOOTSTRAP} when set, otherwise starts a throwaway Kafka container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuctionEventPublisherBenchmark {
+    private static final String TOPIC = "bench-auction-events";
+    private static final int BURST = 1000;
+
+    @Param({"0", "5"})
+    public int lingerMs;
+
+    @Param({"none", "zstd"})
+    public String compression;
+
+    private KafkaContainer container;
+    private DefaultKafkaProducerFactory<String, AuctionEvent> producerFactory;
+    private KafkaTemplate<String, AuctionEvent> kafkaTemplate;
+    private AuctionEventPublisher publisher;
+    private AuctionEvent[] events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String bootstrap = System.getenv("BENCH_KAFKA_BOOTSTRAP");
+        if (bootstrap == null || bootstrap.isBlank()) {
+            container = new KafkaContainer("apache/kafka:3.9.0");
+            container.start();
+            bootstrap = container.getBootstrapServers();
+        }
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, lingerMs == 0 ? 16384 : 131072);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        producerFactory = new DefaultKafkaProducerFactory<>(config);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        publisher = new AuctionEventPublisher(kafkaTemplate, TOPIC, 50000, 5000);
+
+        events = new AuctionEvent[BURST];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < BURST; i++) {
+            String auctionId = "bench-auction-" + (i % 200);
+            events[i] = new AuctionEvent("bench-event-" + i, "BID_PLACED", auctionId, now,
+                    null, null, null, null, null, null, null,
+                    "bench-bid-" + i, "bidder-" + (i % 50), 1000L + i, "OPEN", (long) i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producerFactory.destroy();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void publishBurst(Outcomes outcomes) {
+        for (AuctionEvent event : events) {
+            if (publisher.publish(event).isCompletedExceptionally()) {
+                outcomes.refused++;
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Reported next to the throughput: events that were rejected or failed before {@code publish} returned.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long refused;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            refused = 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.events.AuctionEventBinarySerializer;
+import com.example.bidengine.events.AuctionEventDeserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize and deserialize cost of a {@code BID_PLACED} event in JSON and in the binary codec. The encoded sizes
+ * are checked by {@code AuctionEventCodecTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuctionEventSerializationBenchmark {
+    private static final String TOPIC = "auction-events";
+
+    @Param({"JSON", "BINARY"})
+    public String format;
+
+    private Serializer<AuctionEvent> serializer;
+    private AuctionEventDeserializer deserializer;
+    private AuctionEvent event;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = "JSON".equals(format) ? new JsonSerializer<>() : new AuctionEventBinarySerializer();
+        deserializer = new AuctionEventDeserializer();
+        deserializer.configure(Map.of(
+                "spring.json.trusted.packages", "com.example.bidengine.events",
+                "spring.json.value.default.type", AuctionEvent.class.getName()), false);
+        event = new AuctionEvent("01JXT21Q00E008HMAEB1AT8ZPH", "BID_PLACED", "01JXT21PZZ8Q3V6N2C4W9R7K1M",
+                System.currentTimeMillis(), null, null, null, null, null, null, null,
+                "01JXT21Q00E018HMAEB1AT8ZPJ", "bidder-42", 125_000L, "OPEN", 42L);
+        encoded = serializer.serialize(TOPIC, event);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public AuctionEvent deserialize() {
+        return deserializer.deserialize(TOPIC, encoded);
+    }
+}
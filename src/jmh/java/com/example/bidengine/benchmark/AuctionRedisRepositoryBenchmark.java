@@ -0,0 +1,116 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.BidStorageMode;
+import com.example.bidengine.store.AuctionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path Redis calls. {@code auctionCount=1} puts every thread on the same auction (single-key contention),
+ * larger values spread the load across many auctions. {@code outbox=true} adds the outbox XADD to every bid; nothing
+ * drains the stream during the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class AuctionRedisRepositoryBenchmark {
+    private static final int BULK_SIZE = 100;
+
+    @Param({"1", "10000"})
+    public int auctionCount;
+
+    @Param({"20"})
+    public int seededBidsPerAuction;
+
+    @Param({"HASH", "COMPACT"})
+    public BidStorageMode bidStorage;
+
+    @Param({"false", "true"})
+    public boolean outbox;
+
+    private DragonflyFixture fixture;
+    private AuctionRedisRepository repository;
+    private AuctionWorkload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new DragonflyFixture();
+        fixture.reset();
+        repository = new AuctionRedisRepository(fixture.redisTemplate(), bidStorage, 0L, 1, outbox);
+        workload = new AuctionWorkload(auctionCount);
+        workload.createAuctions(repository);
+        workload.seedBids(repository, seededBidsPerAuction);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.reset();
+        fixture.close();
+    }
+
+    @Benchmark
+    public AuctionStore.PlaceBidResult placeBid() {
+        int index = workload.pick();
+        return repository.placeBid(workload.auctionId(index), UUID.randomUUID().toString(), "bench-bidder",
+                workload.nextAmount(index), Instant.now().toEpochMilli(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * {@value #BULK_SIZE} bids in one pipelined call; the score is per bid, so it compares directly with
+     * {@link #placeBid()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<AuctionStore.PlaceBidResult> placeBids() {
+        List<AuctionStore.BidCommand> bids = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            int index = workload.pick();
+            bids.add(new AuctionStore.BidCommand(workload.auctionId(index), UUID.randomUUID().toString(),
+                    "bench-bidder", workload.nextAmount(index), UUID.randomUUID().toString()));
+        }
+        return repository.placeBids(bids, Instant.now().toEpochMilli());
+    }
+
+    /**
+     * Two proxy bidders raising their maximum in turn on each auction: every call that changes the leader records the
+     * old leader's exhausted maximum and the new leader's bid one increment above it.
+     */
+    @Benchmark
+    public AuctionStore.PlaceBidResult proxyBid() {
+        int index = workload.pick();
+        String bidderId = ThreadLocalRandom.current().nextBoolean() ? "proxy-a" : "proxy-b";
+        return repository.proxyBid(workload.auctionId(index), UUID.randomUUID().toString(), bidderId,
+                workload.nextMaximum(index, 1000), Instant.now().toEpochMilli(), UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public AuctionResponse getAuction() {
+        return repository.getAuction(workload.auctionId(workload.pick()));
+    }
+
+    @Benchmark
+    public List<BidResponse> listTopBids() {
+        return repository.listTopBids(workload.auctionId(workload.pick()), seededBidsPerAuction);
+    }
+}
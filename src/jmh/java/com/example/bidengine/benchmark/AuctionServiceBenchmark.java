@@ -0,0 +1,110 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.api.PlaceBidRequest;
+import com.example.bidengine.api.PlaceBidResponse;
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.id.UuidV7IdGenerator;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.redis.AuctionBidGroupCommitter;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.AuctionSnapshotCache;
+import com.example.bidengine.service.AuctionCloseTimer;
+import com.example.bidengine.service.AuctionEventPublisher;
+import com.example.bidengine.service.AuctionService;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.BidRateLimits;
+import com.example.bidengine.store.EmbeddedAuctionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuctionService#placeBid} end to end against Dragonfly, with Kafka replaced by a template that
+ * completes every send immediately so the numbers isolate the service and Redis cost. With one auction all 16 threads
+ * bid on the same key, which is where {@code groupCommit} matters. {@code store=embedded} runs the same service on
+ * {@link EmbeddedAuctionStore}: the gap to {@code redis} is the cost of the network and Dragonfly, the rest is the
+ * service and bidding logic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class AuctionServiceBenchmark {
+    @Param({"1", "10000"})
+    public int auctionCount;
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    @Param({"redis", "embedded"})
+    public String store;
+
+    private DragonflyFixture fixture;
+    private AuctionService auctionService;
+    private AuctionWorkload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AuctionStore repository;
+        if ("embedded".equals(store)) {
+            repository = new EmbeddedAuctionStore(16, 1024, 100, BidRateLimits.NONE, AuctionMetrics.NONE, List.of());
+        } else {
+            fixture = new DragonflyFixture();
+            fixture.reset();
+            repository = new AuctionRedisRepository(fixture.redisTemplate());
+        }
+        workload = new AuctionWorkload(auctionCount);
+        workload.createAuctions(repository);
+        auctionService = new AuctionService(repository, new AuctionBidGroupCommitter(repository, groupCommit, 128, 0),
+                new AuctionEventPublisher(new NoopKafkaTemplate(), "auction-events", 50000, 100),
+                new AuctionCloseTimer(false, 10, 512, 60000, 10000), new AuctionSnapshotCache(false, 0, 1000),
+                new AuctionBidFloorCache(true, 100_000),
+                new UuidV7IdGenerator());
+        for (int i = 0; i < auctionCount; i++) {
+            auctionService.getAuction(workload.auctionId(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (fixture != null) {
+            fixture.reset();
+            fixture.close();
+        }
+    }
+
+    @Benchmark
+    public PlaceBidResponse placeBid() {
+        int index = workload.pick();
+        return auctionService.placeBid(workload.auctionId(index),
+                new PlaceBidRequest("bench-bidder", workload.nextAmount(index)));
+    }
+
+    static class NoopKafkaTemplate extends KafkaTemplate<String, AuctionEvent> {
+        NoopKafkaTemplate() {
+            super(new DefaultKafkaProducerFactory<>(Map.of()));
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, AuctionEvent>> send(String topic, String key, AuctionEvent data) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
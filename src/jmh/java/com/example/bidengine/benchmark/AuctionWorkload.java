@@ -0,0 +1,70 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.store.AuctionStore;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+final class AuctionWorkload {
+    private static final long STARTING_PRICE = 100L;
+
+    private final String[] auctionIds;
+    private final AtomicLong[] amounts;
+
+    AuctionWorkload(int auctionCount) {
+        this.auctionIds = new String[auctionCount];
+        this.amounts = new AtomicLong[auctionCount];
+        for (int i = 0; i < auctionCount; i++) {
+            auctionIds[i] = "bench-" + i;
+            amounts[i] = new AtomicLong(STARTING_PRICE);
+        }
+    }
+
+    void createAuctions(AuctionStore repository) {
+        long now = Instant.now().toEpochMilli();
+        IntStream.range(0, auctionIds.length).parallel().forEach(i -> repository.createAuction(new AuctionResponse(
+                auctionIds[i],
+                "bench-seller",
+                "Benchmark auction " + i,
+                null,
+                "OPEN",
+                STARTING_PRICE,
+                null,
+                now - 60_000,
+                now + 86_400_000,
+                null,
+                null,
+                now,
+                now,
+                0
+        ), "created-" + i));
+    }
+
+    void seedBids(AuctionStore repository, int bidsPerAuction) {
+        IntStream.range(0, auctionIds.length).parallel().forEach(i -> {
+            for (int b = 0; b < bidsPerAuction; b++) {
+                repository.placeBid(auctionIds[i], "seed-" + i + "-" + b, "bidder-" + b, nextAmount(i),
+                        Instant.now().toEpochMilli(), "seed-event-" + i + "-" + b);
+            }
+        });
+    }
+
+    int pick() {
+        return auctionIds.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(auctionIds.length);
+    }
+
+    String auctionId(int index) {
+        return auctionIds[index];
+    }
+
+    long nextAmount(int index) {
+        return amounts[index].incrementAndGet();
+    }
+
+    long nextMaximum(int index, long step) {
+        return amounts[index].addAndGet(step);
+    }
+}
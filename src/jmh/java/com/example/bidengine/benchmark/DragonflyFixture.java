@@ -0,0 +1,77 @@
+package com.example.bidengine.benchmark;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Redis-protocol server for benchmarks. Uses the server at {@code BENCH_REDIS_HOST}/{@code BENCH_REDIS_PORT}
+ * when set (e.g. the docker compose Dragonfly), otherwise starts a throwaway Dragonfly container. On a server of its
+ * own the benchmark writes to database {@code BENCH_REDIS_DB} (default 15), never to the application's database 0,
+ * and {@link #reset()} empties only that database.
+ */
+final class DragonflyFixture implements AutoCloseable {
+    private final GenericContainer<?> container;
+    private final LettuceConnectionFactory connectionFactory;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    DragonflyFixture() {
+        String host = System.getenv("BENCH_REDIS_HOST");
+        int port;
+        int database = 0;
+        if (host == null || host.isBlank()) {
+            container = new GenericContainer<>("dragonflydb/dragonfly:v1.27.1").withExposedPorts(6379);
+            container.start();
+            host = container.getHost();
+            port = container.getMappedPort(6379);
+        } else {
+            container = null;
+            String envPort = System.getenv("BENCH_REDIS_PORT");
+            port = envPort == null || envPort.isBlank() ? 6379 : Integer.parseInt(envPort);
+            String envDatabase = System.getenv("BENCH_REDIS_DB");
+            database = envDatabase == null || envDatabase.isBlank() ? 15 : Integer.parseInt(envDatabase);
+            if (database == 0) {
+                throw new IllegalStateException("BENCH_REDIS_DB must not be 0, the application's database: "
+                        + "benchmarks empty the database they run in");
+            }
+        }
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        configuration.setDatabase(database);
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        redisTemplate.setKeySerializer(serializer);
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.setHashKeySerializer(serializer);
+        redisTemplate.setHashValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    RedisTemplate<String, String> redisTemplate() {
+        return redisTemplate;
+    }
+
+    /**
+     * Empties the benchmark's database.
+     */
+    void reset() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        connectionFactory.destroy();
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bidengine.benchmark;
+
+import com.example.bidengine.id.IdGenerator;
+import com.example.bidengine.id.IdGeneratorType;
+import com.example.bidengine.id.RandomUuidIdGenerator;
+import com.example.bidengine.id.SnowflakeIdGenerator;
+import com.example.bidengine.id.UuidV7IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID generation cost under contention: one shared generator called from 16 threads, as on the bid path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class IdGeneratorBenchmark {
+    @Param({"SNOWFLAKE", "UUID_V7", "RANDOM_UUID"})
+    public IdGeneratorType generator;
+
+    private IdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        idGenerator = switch (generator) {
+            case SNOWFLAKE -> new SnowflakeIdGenerator(1);
+            case UUID_V7 -> new UuidV7IdGenerator();
+            case RANDOM_UUID -> new RandomUuidIdGenerator();
+        };
+    }
+
+    @Benchmark
+    public String nextId() {
+        return idGenerator.nextId();
+    }
+}
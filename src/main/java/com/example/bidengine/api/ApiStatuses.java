@@ -0,0 +1,45 @@
+package com.example.bidengine.api;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.function.Consumer;
+
+/**
+ * HTTP status for each service result, shared by the MVC controller and the WebFlux handler.
+ */
+final class ApiStatuses {
+    private ApiStatuses() {
+    }
+
+    static HttpStatus placeBid(String status) {
+        return switch (status) {
+            case "OK", "OUTBID" -> HttpStatus.OK;
+            case "NOT_FOUND" -> HttpStatus.NOT_FOUND;
+            case "NOT_OPEN", "NOT_STARTED", "ENDED", "BELOW_START", "BELOW_HIGHEST", "BELOW_MAX" -> HttpStatus.CONFLICT;
+            case "RATE_LIMITED" -> HttpStatus.TOO_MANY_REQUESTS;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+
+    /**
+     * Sets {@code Retry-After} in whole seconds, rounded up, on a rate-limited bid response.
+     */
+    static Consumer<HttpHeaders> placeBidHeaders(PlaceBidResponse response) {
+        return headers -> {
+            if (response.retryAfterMs() != null) {
+                headers.set(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, Math.ceilDiv(response.retryAfterMs(), 1000L))));
+            }
+        };
+    }
+
+    static HttpStatus closeAuction(String status) {
+        return switch (status) {
+            case "CLOSED", "CLOSED_NO_SALE" -> HttpStatus.OK;
+            case "NOT_FOUND" -> HttpStatus.NOT_FOUND;
+            case "NOT_OPEN" -> HttpStatus.CONFLICT;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.example.bidengine.api;
 
 import com.example.bidengine.service.AuctionService;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/auctions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuctionController {
     private final AuctionService auctionService;
 
@@ -35,24 +37,29 @@ public class AuctionController {
     public ResponseEntity<PlaceBidResponse> placeBid(@PathVariable String auctionId,
                                                      @Valid @RequestBody PlaceBidRequest request) {
         PlaceBidResponse response = auctionService.placeBid(auctionId, request);
-        return switch (response.status()) {
-            case "OK" -> ResponseEntity.ok(response);
-            case "NOT_FOUND" -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            case "NOT_OPEN", "NOT_STARTED", "ENDED", "BELOW_START", "BELOW_HIGHEST" ->
-                    ResponseEntity.status(HttpStatus.CONFLICT).body(response);
-            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        };
+        return ResponseEntity.status(ApiStatuses.placeBid(response.status()))
+                .headers(ApiStatuses.placeBidHeaders(response))
+                .body(response);
+    }
+
+    @PostMapping("/{auctionId}/proxy-bids")
+    public ResponseEntity<PlaceBidResponse> proxyBid(@PathVariable String auctionId,
+                                                     @Valid @RequestBody ProxyBidRequest request) {
+        PlaceBidResponse response = auctionService.proxyBid(auctionId, request);
+        return ResponseEntity.status(ApiStatuses.placeBid(response.status()))
+                .headers(ApiStatuses.placeBidHeaders(response))
+                .body(response);
+    }
+
+    @PostMapping("/bids")
+    public ResponseEntity<BulkBidResponse> placeBids(@Valid @RequestBody BulkBidRequest request) {
+        return ResponseEntity.ok(new BulkBidResponse(auctionService.placeBids(request.bids())));
     }
 
     @PostMapping("/{auctionId}/close")
     public ResponseEntity<CloseAuctionResponse> closeAuction(@PathVariable String auctionId) {
         CloseAuctionResponse response = auctionService.closeAuction(auctionId);
-        return switch (response.status()) {
-            case "CLOSED", "CLOSED_NO_SALE" -> ResponseEntity.ok(response);
-            case "NOT_FOUND" -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            case "NOT_OPEN" -> ResponseEntity.status(HttpStatus.CONFLICT).body(response);
-            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        };
+        return ResponseEntity.status(ApiStatuses.closeAuction(response.status())).body(response);
     }
 
     @GetMapping("/{auctionId}/bids")
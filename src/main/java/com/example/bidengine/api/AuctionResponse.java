@@ -13,6 +13,7 @@ public record AuctionResponse(
         Long highestBid,
         String highestBidderId,
         long createdAtEpochMs,
-        long updatedAtEpochMs
+        long updatedAtEpochMs,
+        long seq
 ) {
 }
@@ -0,0 +1,69 @@
+package com.example.bidengine.api;
+
+import com.example.bidengine.service.AuctionService;
+import com.example.bidengine.service.AuctionUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Server-Sent Events stream of highest-bid changes and the close of one auction. The first event is the current
+ * state; the stream completes after the {@code closed} event.
+ */
+@RestController
+@RequestMapping("/auctions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AuctionStreamController {
+    private final AuctionService auctionService;
+    private final AuctionUpdateBroadcaster broadcaster;
+    private final long timeoutMs;
+
+    public AuctionStreamController(AuctionService auctionService,
+                                   AuctionUpdateBroadcaster broadcaster,
+                                   @Value("${bidengine.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.auctionService = auctionService;
+        this.broadcaster = broadcaster;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping(value = "/{auctionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable String auctionId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AuctionUpdateBroadcaster.Subscription subscription =
+                broadcaster.subscribe(auctionId, update -> send(emitter, update));
+        // Read after subscribing, so no change falls between the initial state and the first update.
+        AuctionResponse auction = auctionService.readAuction(auctionId);
+        if (auction == null) {
+            subscription.cancel();
+            return ResponseEntity.notFound().build();
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        subscription.offer(AuctionUpdate.of(auction));
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static void send(SseEmitter emitter, AuctionUpdate update) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(AuctionStreamEvents.name(update))
+                    .id(String.valueOf(update.seq()))
+                    .data(update, MediaType.APPLICATION_JSON));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (update.closed()) {
+            emitter.complete();
+        }
+    }
+}
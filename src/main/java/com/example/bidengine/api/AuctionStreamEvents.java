@@ -0,0 +1,16 @@
+package com.example.bidengine.api;
+
+/**
+ * SSE event names shared by the MVC and WebFlux streams.
+ */
+final class AuctionStreamEvents {
+    static final String BID = "bid";
+    static final String CLOSED = "closed";
+
+    private AuctionStreamEvents() {
+    }
+
+    static String name(AuctionUpdate update) {
+        return update.closed() ? CLOSED : BID;
+    }
+}
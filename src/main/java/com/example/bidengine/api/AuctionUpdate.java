@@ -0,0 +1,18 @@
+package com.example.bidengine.api;
+
+public record AuctionUpdate(
+        String auctionId,
+        long seq,
+        String status,
+        Long highestBid,
+        String highestBidderId
+) {
+    public static AuctionUpdate of(AuctionResponse auction) {
+        return new AuctionUpdate(auction.auctionId(), auction.seq(), auction.status(), auction.highestBid(),
+                auction.highestBidderId());
+    }
+
+    public boolean closed() {
+        return !"OPEN".equals(status);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bidengine.api;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkBidRequest(
+        @NotEmpty @Size(max = 1000) List<@NotNull @Valid Bid> bids
+) {
+    public record Bid(
+            @NotBlank String auctionId,
+            @NotBlank String bidderId,
+            @NotNull @Positive Long amount
+    ) {
+    }
+}
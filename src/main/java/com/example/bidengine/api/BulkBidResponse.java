@@ -0,0 +1,11 @@
+package com.example.bidengine.api;
+
+import java.util.List;
+
+/**
+ * One result per submitted bid, in submission order; each carries the status the single-bid endpoint would return.
+ */
+public record BulkBidResponse(
+        List<PlaceBidResponse> results
+) {
+}
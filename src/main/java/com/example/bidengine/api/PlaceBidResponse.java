@@ -1,10 +1,19 @@
 package com.example.bidengine.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @param retryAfterMs only for {@code RATE_LIMITED}: how long until the bid would be accepted by the rate limit
+ */
 public record PlaceBidResponse(
         String bidId,
         String auctionId,
         String status,
         Long highestBid,
-        String highestBidderId
+        String highestBidderId,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long retryAfterMs
 ) {
+    public PlaceBidResponse(String bidId, String auctionId, String status, Long highestBid, String highestBidderId) {
+        this(bidId, auctionId, status, highestBid, highestBidderId, null);
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.bidengine.api;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ProxyBidRequest(
+        @NotBlank String bidderId,
+        @NotNull @Positive Long maxAmount
+) {
+}
@@ -0,0 +1,155 @@
+package com.example.bidengine.api;
+
+import com.example.bidengine.service.AuctionUpdateBroadcaster;
+import com.example.bidengine.service.EventBackpressureException;
+import com.example.bidengine.service.ReactiveAuctionService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * WebFlux handlers for the routes in {@link ReactiveAuctionRoutes}. Status codes and error bodies match
+ * {@link AuctionController} and {@link ApiExceptionHandler}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuctionHandler {
+    private final ReactiveAuctionService auctionService;
+    private final AuctionUpdateBroadcaster broadcaster;
+    private final Validator validator;
+
+    public ReactiveAuctionHandler(ReactiveAuctionService auctionService, AuctionUpdateBroadcaster broadcaster,
+                                  Validator validator) {
+        this.auctionService = auctionService;
+        this.broadcaster = broadcaster;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> createAuction(ServerRequest request) {
+        return request.bodyToMono(CreateAuctionRequest.class)
+                .flatMap(body -> validated(body, () -> auctionService.createAuction(body)
+                        .flatMap(auction -> ServerResponse.status(HttpStatus.CREATED).bodyValue(auction))
+                        .onErrorResume(IllegalArgumentException.class, ex -> ServerResponse.badRequest()
+                                .bodyValue(new ErrorResponse("INVALID_AUCTION_TIME", ex.getMessage())))
+                        .onErrorResume(EventBackpressureException.class, ReactiveAuctionHandler::backlogged)));
+    }
+
+    public Mono<ServerResponse> getAuction(ServerRequest request) {
+        return auctionService.getAuction(request.pathVariable("auctionId"))
+                .flatMap(auction -> ServerResponse.ok().bodyValue(auction))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> placeBid(ServerRequest request) {
+        String auctionId = request.pathVariable("auctionId");
+        return request.bodyToMono(PlaceBidRequest.class)
+                .flatMap(body -> validated(body, () -> auctionService.placeBid(auctionId, body)
+                        .flatMap(response -> ServerResponse.status(ApiStatuses.placeBid(response.status()))
+                                .headers(ApiStatuses.placeBidHeaders(response))
+                                .bodyValue(response))
+                        .onErrorResume(EventBackpressureException.class, ReactiveAuctionHandler::backlogged)));
+    }
+
+    public Mono<ServerResponse> proxyBid(ServerRequest request) {
+        String auctionId = request.pathVariable("auctionId");
+        return request.bodyToMono(ProxyBidRequest.class)
+                .flatMap(body -> validated(body, () -> auctionService.proxyBid(auctionId, body)
+                        .flatMap(response -> ServerResponse.status(ApiStatuses.placeBid(response.status()))
+                                .headers(ApiStatuses.placeBidHeaders(response))
+                                .bodyValue(response))
+                        .onErrorResume(EventBackpressureException.class, ReactiveAuctionHandler::backlogged)));
+    }
+
+    public Mono<ServerResponse> placeBids(ServerRequest request) {
+        return request.bodyToMono(BulkBidRequest.class)
+                .flatMap(body -> validated(body, () -> auctionService.placeBids(body.bids())
+                        .collectList()
+                        .flatMap(results -> ServerResponse.ok().bodyValue(new BulkBidResponse(results)))
+                        .onErrorResume(EventBackpressureException.class, ReactiveAuctionHandler::backlogged)));
+    }
+
+    public Mono<ServerResponse> closeAuction(ServerRequest request) {
+        return auctionService.closeAuction(request.pathVariable("auctionId"))
+                .flatMap(response -> ServerResponse.status(ApiStatuses.closeAuction(response.status()))
+                        .bodyValue(response))
+                .onErrorResume(EventBackpressureException.class, ReactiveAuctionHandler::backlogged);
+    }
+
+    public Mono<ServerResponse> listBids(ServerRequest request) {
+        int limit = request.queryParam("limit").map(Integer::parseInt).orElse(50);
+        return auctionService.listTopBids(request.pathVariable("auctionId"), limit)
+                .collectList()
+                .flatMap(bids -> ServerResponse.ok().bodyValue(bids));
+    }
+
+    /**
+     * Same stream as {@link AuctionStreamController}. A client that reads slower than updates arrive only gets the
+     * latest one.
+     */
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        String auctionId = request.pathVariable("auctionId");
+        return auctionService.getAuction(auctionId)
+                .flatMap(cached -> {
+                    Flux<ServerSentEvent<AuctionUpdate>> events = Flux.<AuctionUpdate>create(sink -> {
+                                AuctionUpdateBroadcaster.Subscription subscription = broadcaster.subscribe(auctionId,
+                                        update -> {
+                                            sink.next(update);
+                                            if (update.closed()) {
+                                                sink.complete();
+                                            }
+                                        });
+                                // Read after subscribing, so no change falls between the initial state and the
+                                // first update.
+                                Disposable initial = auctionService.readAuction(auctionId)
+                                        .subscribe(current -> subscription.offer(AuctionUpdate.of(current)),
+                                                sink::error);
+                                sink.onDispose(() -> {
+                                    subscription.cancel();
+                                    initial.dispose();
+                                });
+                            }, FluxSink.OverflowStrategy.LATEST)
+                            .map(update -> ServerSentEvent.builder(update)
+                                    .event(AuctionStreamEvents.name(update))
+                                    .id(String.valueOf(update.seq()))
+                                    .build());
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromServerSentEvents(events));
+                })
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private <T> Mono<ServerResponse> validated(T body, Supplier<Mono<ServerResponse>> handler) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (violations.isEmpty()) {
+            return handler.get();
+        }
+        String details = violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return ServerResponse.badRequest().bodyValue(new ErrorResponse("VALIDATION_ERROR", details));
+    }
+
+    private static Mono<ServerResponse> backlogged(EventBackpressureException ex) {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .bodyValue(new ErrorResponse("EVENTS_BACKLOGGED", ex.getMessage()));
+    }
+}
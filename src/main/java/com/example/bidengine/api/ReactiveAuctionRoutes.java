@@ -0,0 +1,32 @@
+package com.example.bidengine.api;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The {@link AuctionController} API as WebFlux functional routes, active when the application runs as a reactive
+ * web application (the {@code reactive} profile).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuctionRoutes {
+    @Bean
+    public RouterFunction<ServerResponse> auctionRoutes(ReactiveAuctionHandler handler) {
+        return route()
+                .path("/auctions", builder -> builder
+                        .POST(handler::createAuction)
+                        .GET("/{auctionId}", handler::getAuction)
+                        .POST("/bids", handler::placeBids)
+                        .POST("/{auctionId}/bids", handler::placeBid)
+                        .POST("/{auctionId}/proxy-bids", handler::proxyBid)
+                        .POST("/{auctionId}/close", handler::closeAuction)
+                        .GET("/{auctionId}/bids", handler::listBids)
+                        .GET("/{auctionId}/stream", handler::stream))
+                .build();
+    }
+}
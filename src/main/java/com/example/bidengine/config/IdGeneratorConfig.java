@@ -0,0 +1,29 @@
+package com.example.bidengine.config;
+
+import com.example.bidengine.id.IdGenerator;
+import com.example.bidengine.id.IdGeneratorType;
+import com.example.bidengine.id.RandomUuidIdGenerator;
+import com.example.bidengine.id.SnowflakeIdGenerator;
+import com.example.bidengine.id.UuidV7IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+    @Bean
+    public IdGenerator idGenerator(@Value("${bidengine.ids.generator:UUID_V7}") IdGeneratorType type,
+                                   @Value("${bidengine.ids.worker-id:-1}") long workerId) {
+        return switch (type) {
+            case SNOWFLAKE -> {
+                if (workerId < 0) {
+                    throw new IllegalStateException(
+                            "bidengine.ids.worker-id must be set to a value unique per node when using SNOWFLAKE IDs");
+                }
+                yield new SnowflakeIdGenerator(workerId);
+            }
+            case UUID_V7 -> new UuidV7IdGenerator();
+            case RANDOM_UUID -> new RandomUuidIdGenerator();
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bidengine.config;
+
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.service.AuctionEventPublisher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the counts components already keep as meters; timers and outcome counters are recorded through
+ * {@link com.example.bidengine.metrics.AuctionMetrics}.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MeterBinder auctionEventPublisherMetrics(AuctionEventPublisher publisher) {
+        return registry -> {
+            FunctionCounter.builder("bidengine.kafka.events", publisher, AuctionEventPublisher::acknowledgedCount)
+                    .description("Events by send outcome")
+                    .tag("outcome", "acknowledged")
+                    .register(registry);
+            FunctionCounter.builder("bidengine.kafka.events", publisher, AuctionEventPublisher::failedCount)
+                    .tag("outcome", "failed")
+                    .register(registry);
+            FunctionCounter.builder("bidengine.kafka.events", publisher, AuctionEventPublisher::rejectedCount)
+                    .tag("outcome", "rejected")
+                    .register(registry);
+            Gauge.builder("bidengine.kafka.events.in.flight", publisher, AuctionEventPublisher::inFlightCount)
+                    .description("Events sent but not yet acknowledged")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder auctionBidFloorMetrics(AuctionBidFloorCache bidFloorCache) {
+        return registry -> FunctionCounter.builder("bidengine.bid.floor.rejections", bidFloorCache,
+                        AuctionBidFloorCache::rejectedCount)
+                .description("Bids rejected by the local bid floor without a Dragonfly call")
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bidengine.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Name of this application instance, used as the owner of Dragonfly leases. Defaults to host name and PID.
+ */
+@Component
+public class NodeIdentity {
+    private final String id;
+
+    public NodeIdentity(@Value("${bidengine.node-id:}") String configuredId) {
+        this.id = configuredId == null || configuredId.isBlank() ? defaultId() : configuredId;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    private static String defaultId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "unknown-host";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.bidengine.config;
 
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.redis.AuctionOutboxRepository;
+import com.example.bidengine.redis.AuctionSnapshotCache;
+import com.example.bidengine.redis.AuctionUpdateMessages;
+import com.example.bidengine.service.AuctionOutboxRelay;
+import com.example.bidengine.service.AuctionUpdateBroadcaster;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -19,4 +28,29 @@ public class RedisConfig {
         template.setHashValueSerializer(serializer);
         return template;
     }
+
+    /**
+     * The node's single subscription to auction updates, shared by the snapshot cache, the bid floor cache, the
+     * live bid streams and, when enabled, the outbox relay, which also listens for the create script's outbox hints.
+     * The embedded store hands its updates to the same listeners itself, so it needs no subscription.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bidengine.store", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer auctionUpdatesListener(RedisConnectionFactory factory,
+                                                                AuctionSnapshotCache snapshotCache,
+                                                                AuctionBidFloorCache bidFloorCache,
+                                                                AuctionUpdateBroadcaster broadcaster,
+                                                                ObjectProvider<AuctionOutboxRelay> outboxRelay) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        if (snapshotCache.enabled()) {
+            container.addMessageListener(snapshotCache, AuctionUpdateMessages.TOPIC);
+        }
+        if (bidFloorCache.enabled()) {
+            container.addMessageListener(bidFloorCache, AuctionUpdateMessages.TOPIC);
+        }
+        container.addMessageListener(broadcaster, AuctionUpdateMessages.TOPIC);
+        outboxRelay.ifAvailable(relay -> container.addMessageListener(relay, AuctionOutboxRepository.HINT_TOPICS));
+        return container;
+    }
 }
@@ -15,6 +15,7 @@ public record AuctionEvent(
         String bidId,
         String bidderId,
         Long amount,
-        String status
+        String status,
+        Long seq
 ) {
 }
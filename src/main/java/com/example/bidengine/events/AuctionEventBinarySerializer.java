@@ -0,0 +1,13 @@
+package com.example.bidengine.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes {@link AuctionEvent}s in the {@link AuctionEventCodec} binary format.
+ */
+public class AuctionEventBinarySerializer implements Serializer<AuctionEvent> {
+    @Override
+    public byte[] serialize(String topic, AuctionEvent event) {
+        return event == null ? null : AuctionEventCodec.encode(event);
+    }
+}
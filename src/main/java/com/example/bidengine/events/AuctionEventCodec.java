@@ -0,0 +1,226 @@
+package com.example.bidengine.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of {@link AuctionEvent}. Each event type has its own field layout, so only the fields the
+ * type carries are written, without names:
+ *
+ * <pre>
+ * header           magic 0xB1, version 1, type (1 created, 2 bid placed, 3 closed)
+ * all types        eventId, auctionId, occurredAtEpochMs, seq
+ * AUCTION_CREATED  sellerId, title, description?, startingPrice, reservePrice?, startTimeEpochMs, endTimeEpochMs,
+ *                  status
+ * BID_PLACED       bidId, bidderId, amount
+ * AUCTION_CLOSED   status, bidderId?, amount?
+ * </pre>
+ *
+ * Numbers are unsigned LEB128 varints (zig-zag for seq, which may be absent and is then written as -1). Strings are a
+ * varint of {@code length + 1} followed by UTF-8, with 0 meaning null; {@code ?} marks fields that may be null, and a
+ * nullable number is preceded by a presence byte. The magic byte can never start a JSON document, which is how
+ * {@link AuctionEventDeserializer} tells the formats apart.
+ */
+public final class AuctionEventCodec {
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+    private static final byte CREATED = 1;
+    private static final byte BID_PLACED = 2;
+    private static final byte CLOSED = 3;
+
+    private AuctionEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(AuctionEvent event) {
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        byte type = switch (event.eventType()) {
+            case "AUCTION_CREATED" -> CREATED;
+            case "BID_PLACED" -> BID_PLACED;
+            case "AUCTION_CLOSED" -> CLOSED;
+            default -> throw new IllegalArgumentException("Unknown event type " + event.eventType());
+        };
+        out.writeByte(type);
+        out.writeString(event.eventId());
+        out.writeString(event.auctionId());
+        out.writeVarLong(event.occurredAtEpochMs());
+        out.writeVarLong(zigZag(event.seq() == null ? -1L : event.seq()));
+        switch (type) {
+            case CREATED -> {
+                out.writeString(event.sellerId());
+                out.writeString(event.title());
+                out.writeString(event.description());
+                out.writeVarLong(event.startingPrice());
+                out.writeNullableLong(event.reservePrice());
+                out.writeVarLong(event.startTimeEpochMs());
+                out.writeVarLong(event.endTimeEpochMs());
+                out.writeString(event.status());
+            }
+            case BID_PLACED -> {
+                out.writeString(event.bidId());
+                out.writeString(event.bidderId());
+                out.writeVarLong(event.amount());
+            }
+            default -> {
+                out.writeString(event.status());
+                out.writeString(event.bidderId());
+                out.writeNullableLong(event.amount());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static AuctionEvent decode(byte[] data) {
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary auction event");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported auction event version " + version);
+        }
+        byte type = in.readByte();
+        String eventId = in.readString();
+        String auctionId = in.readString();
+        long occurredAt = in.readVarLong();
+        long seq = unZigZag(in.readVarLong());
+        Long seqOrNull = seq < 0 ? null : seq;
+        return switch (type) {
+            case CREATED -> {
+                String sellerId = in.readString();
+                String title = in.readString();
+                String description = in.readString();
+                long startingPrice = in.readVarLong();
+                Long reservePrice = in.readNullableLong();
+                long startTime = in.readVarLong();
+                long endTime = in.readVarLong();
+                String status = in.readString();
+                yield new AuctionEvent(eventId, "AUCTION_CREATED", auctionId, occurredAt, sellerId, title,
+                        description, startingPrice, reservePrice, startTime, endTime, null, null, null, status,
+                        seqOrNull);
+            }
+            case BID_PLACED -> {
+                String bidId = in.readString();
+                String bidderId = in.readString();
+                long amount = in.readVarLong();
+                yield new AuctionEvent(eventId, "BID_PLACED", auctionId, occurredAt, null, null, null, null, null,
+                        null, null, bidId, bidderId, amount, "OPEN", seqOrNull);
+            }
+            case CLOSED -> {
+                String status = in.readString();
+                String bidderId = in.readString();
+                Long amount = in.readNullableLong();
+                yield new AuctionEvent(eventId, "AUCTION_CLOSED", auctionId, occurredAt, null, null, null, null, null,
+                        null, null, null, bidderId, amount, status, seqOrNull);
+            }
+            default -> throw new IllegalArgumentException("Unknown auction event type " + type);
+        };
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeNullableLong(Long value) {
+            writeByte(value == null ? 0 : 1);
+            if (value != null) {
+                writeVarLong(value);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated auction event");
+            }
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in auction event");
+        }
+
+        Long readNullableLong() {
+            return readByte() == 0 ? null : readVarLong();
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            int bytes = Math.toIntExact(length - 1);
+            if (position + bytes > data.length) {
+                throw new IllegalArgumentException("Truncated auction event");
+            }
+            String value = new String(data, position, bytes, StandardCharsets.UTF_8);
+            position += bytes;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bidengine.events;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads both event formats, so producers can switch from JSON to {@link AuctionEventBinarySerializer} one at a
+ * time: records starting with the codec's magic byte are decoded as binary, everything else goes to the
+ * {@link JsonDeserializer}, configured from the usual {@code spring.json.*} consumer properties.
+ */
+public class AuctionEventDeserializer implements Deserializer<AuctionEvent> {
+    private final JsonDeserializer<AuctionEvent> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public AuctionEvent deserialize(String topic, byte[] data) {
+        if (AuctionEventCodec.isBinary(data)) {
+            return AuctionEventCodec.decode(data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
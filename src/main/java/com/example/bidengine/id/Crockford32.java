@@ -0,0 +1,40 @@
+package com.example.bidengine.id;
+
+/**
+ * Fixed-width Crockford base32 encoding. The alphabet is in ASCII order, so encoded values sort like the numbers.
+ */
+final class Crockford32 {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private Crockford32() {
+    }
+
+    /**
+     * Writes the low {@code 5 * length} bits of {@code value} into {@code chars[offset, offset + length)}.
+     */
+    static void encode(long value, char[] chars, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+
+    static long decode(CharSequence chars, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = Character.toUpperCase(chars.charAt(i));
+            int digit = -1;
+            for (int d = 0; d < ALPHABET.length; d++) {
+                if (ALPHABET[d] == c) {
+                    digit = d;
+                    break;
+                }
+            }
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a Crockford base32 character: " + c);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+}
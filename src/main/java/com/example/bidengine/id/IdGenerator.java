@@ -0,0 +1,9 @@
+package com.example.bidengine.id;
+
+/**
+ * Source of auction, bid and event IDs. Implementations are thread-safe and return IDs that sort (as strings) in the
+ * order they were generated on this node.
+ */
+public interface IdGenerator {
+    String nextId();
+}
@@ -0,0 +1,16 @@
+package com.example.bidengine.id;
+
+public enum IdGeneratorType {
+    /**
+     * 64-bit Snowflake IDs, 13 characters; needs a unique {@code bidengine.ids.worker-id} per node.
+     */
+    SNOWFLAKE,
+    /**
+     * UUIDv7 in 26 Crockford base32 characters; no coordination between nodes.
+     */
+    UUID_V7,
+    /**
+     * {@code UUID.randomUUID()}, the original 36-character random IDs.
+     */
+    RANDOM_UUID
+}
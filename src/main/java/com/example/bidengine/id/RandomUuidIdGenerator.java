@@ -0,0 +1,13 @@
+package com.example.bidengine.id;
+
+import java.util.UUID;
+
+/**
+ * The original {@code UUID.randomUUID()} IDs. Not time-ordered; kept for deployments that rely on the UUID format.
+ */
+public final class RandomUuidIdGenerator implements IdGenerator {
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
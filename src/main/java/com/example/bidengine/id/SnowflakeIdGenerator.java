@@ -0,0 +1,53 @@
+package com.example.bidengine.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake IDs: 41 bits of milliseconds since 2025-01-01T00:00Z, 10 bits of worker ID and a 12-bit per-millisecond
+ * sequence, encoded as 13 Crockford base32 characters. Allocation is a CAS on one packed {@code (millis, sequence)}
+ * word. If the clock steps back, or more than 4096 IDs are taken in one millisecond, the generator keeps counting
+ * from its last logical millisecond instead of waiting, so IDs stay unique and increasing.
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+    static final long EPOCH_MS = 1_735_689_600_000L;
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long workerBits;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Snowflake worker ID must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        char[] chars = new char[ENCODED_LENGTH];
+        Crockford32.encode(nextLong(), chars, 0, ENCODED_LENGTH);
+        return new String(chars);
+    }
+
+    long nextLong() {
+        long now = (clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS;
+        long next = state.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (WORKER_BITS + SEQUENCE_BITS)) | workerBits | (next & SEQUENCE_MASK);
+    }
+
+    static long timestampMillis(String id) {
+        return (Crockford32.decode(id, 0, ENCODED_LENGTH) >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+}
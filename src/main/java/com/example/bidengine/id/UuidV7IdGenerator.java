@@ -0,0 +1,47 @@
+package com.example.bidengine.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * UUIDv7 (RFC 9562): 48-bit Unix milliseconds, the 12 {@code rand_a} bits used as a per-millisecond counter for
+ * monotonic ordering (method 1 of section 6.2), and 62 random bits from {@link ThreadLocalRandom} rather than
+ * {@code SecureRandom}. Encoded as 26 Crockford base32 characters, which sort in generation order.
+ */
+public final class UuidV7IdGenerator implements IdGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7L << COUNTER_BITS;
+    private static final long VARIANT = 0x2L << 62;
+    private static final long RANDOM_MASK = (1L << 62) - 1;
+    private static final int ENCODED_LENGTH = 26;
+
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public UuidV7IdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7IdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long next = state.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = next >>> COUNTER_BITS;
+        long mostSignificant = (millis << 16) | VERSION | (next & COUNTER_MASK);
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+
+        // 26 characters hold 130 bits; like ULID the first character carries only the top 3 bits.
+        char[] chars = new char[ENCODED_LENGTH];
+        Crockford32.encode(mostSignificant >>> 61, chars, 0, 1);
+        Crockford32.encode(mostSignificant >>> 1, chars, 1, 12);
+        Crockford32.encode(((mostSignificant & 1) << 4) | (leastSignificant >>> 60), chars, 13, 1);
+        Crockford32.encode(leastSignificant, chars, 14, 12);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bidengine.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the bid hot path. Meters are cached per tag value, so recording costs a map lookup and no allocation.
+ * Histogram buckets for every {@code bidengine.*} timer are switched on in {@code management.metrics.distribution}.
+ */
+@Component
+public class AuctionMetrics {
+    /** Records nothing; for callers built outside Spring. */
+    public static final AuctionMetrics NONE = new AuctionMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> scriptTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bidOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> projectionLags = new ConcurrentHashMap<>();
+    private final Map<String, Timer> consumerTimers = new ConcurrentHashMap<>();
+    private final Timer sendAcknowledged;
+    private final Timer sendFailed;
+    private final Timer autoCloseTick;
+    private final Timer closeLag;
+
+    public AuctionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.sendAcknowledged = sendTimer("acknowledged");
+        this.sendFailed = sendTimer("failed");
+        this.autoCloseTick = Timer.builder("bidengine.autoclose.tick")
+                .description("One pass of the auto-close poll over the owned shards")
+                .register(registry);
+        this.closeLag = Timer.builder("bidengine.auction.close.lag")
+                .description("Actual close time minus end time, for closes by the timer or the poll")
+                .register(registry);
+    }
+
+    /**
+     * Times one Dragonfly script call ({@code bidengine.redis.script}, tagged with the script name).
+     */
+    public <T> T timeScript(String script, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            scriptTimer(script).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public <T> Mono<T> timeScript(String script, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal ->
+                    scriptTimer(script).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Counts a bid by its result code: {@code OK}, {@code OUTBID} or an error such as {@code BELOW_HIGHEST}.
+     */
+    public void bidOutcome(String outcome) {
+        bidOutcomes.computeIfAbsent(outcome, value -> Counter.builder("bidengine.bid.outcomes")
+                .description("Bids by result code")
+                .tag("outcome", value)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Records the time from handing an event to the producer until Kafka acknowledged or failed it.
+     */
+    public void kafkaSend(long startNanos, boolean acknowledged) {
+        (acknowledged ? sendAcknowledged : sendFailed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void closeLag(long endTimeEpochMs, long closedAtEpochMs) {
+        closeLag.record(Math.max(0, closedAtEpochMs - endTimeEpochMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void autoCloseTick(long startNanos) {
+        autoCloseTick.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records one pass of a Kafka listener ({@code single} or {@code batch}) over the projection.
+     */
+    public void consumerHandled(String listener, long startNanos) {
+        consumerTimers.computeIfAbsent(listener, value -> Timer.builder("bidengine.consumer.handle")
+                        .description("Projection write of one Kafka poll or record")
+                        .tag("listener", value)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time from an event's occurrence until the projection wrote it.
+     */
+    public void projectionLag(String eventType, long occurredAtEpochMs, long writtenAtEpochMs) {
+        projectionLags.computeIfAbsent(eventType, value -> Timer.builder("bidengine.projection.lag")
+                        .description("Projection write time minus event time")
+                        .tag("event", value)
+                        .register(registry))
+                .record(Math.max(0, writtenAtEpochMs - occurredAtEpochMs), TimeUnit.MILLISECONDS);
+    }
+
+    private Timer scriptTimer(String script) {
+        return scriptTimers.computeIfAbsent(script, value -> Timer.builder("bidengine.redis.script")
+                .description("Dragonfly script call, including the round trip")
+                .tag("script", value)
+                .register(registry));
+    }
+
+    private Timer sendTimer(String outcome) {
+        return Timer.builder("bidengine.kafka.send")
+                .description("Kafka send until acknowledgement")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -21,6 +21,7 @@ public class AuctionEntity {
     private String highestBidderId;
     private Long createdAtEpochMs;
     private Long updatedAtEpochMs;
+    private Long seq;
 
     protected AuctionEntity() {
     }
@@ -132,4 +133,12 @@ public class AuctionEntity {
     public void setUpdatedAtEpochMs(Long updatedAtEpochMs) {
         this.updatedAtEpochMs = updatedAtEpochMs;
     }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
 }
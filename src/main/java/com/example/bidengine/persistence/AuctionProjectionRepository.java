@@ -0,0 +1,149 @@
+package com.example.bidengine.persistence;
+
+import com.example.bidengine.events.AuctionEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC batch writes for the Kafka to Postgres projection. Each method sends its rows as one JDBC batch.
+ * Auction state changes are upserts guarded by the per-auction {@code seq} assigned in Dragonfly, so replayed or
+ * reordered events never move an auction backwards and no row has to be read first.
+ */
+@Repository
+public class AuctionProjectionRepository {
+    private static final String UPSERT_AUCTION_SQL = """
+            insert into auctions (id, seller_id, title, description, status, starting_price, reserve_price,
+                                  start_time_epoch_ms, end_time_epoch_ms, created_at_epoch_ms, updated_at_epoch_ms, seq)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (id) do update set
+              seller_id = excluded.seller_id,
+              title = excluded.title,
+              description = excluded.description,
+              status = coalesce(auctions.status, excluded.status),
+              starting_price = excluded.starting_price,
+              reserve_price = excluded.reserve_price,
+              start_time_epoch_ms = excluded.start_time_epoch_ms,
+              end_time_epoch_ms = excluded.end_time_epoch_ms,
+              created_at_epoch_ms = excluded.created_at_epoch_ms,
+              updated_at_epoch_ms = coalesce(auctions.updated_at_epoch_ms, excluded.updated_at_epoch_ms),
+              seq = coalesce(auctions.seq, excluded.seq)
+            """;
+
+    private static final String INSERT_BID_SQL = """
+            insert into bids (id, auction_id, bidder_id, amount, placed_at_epoch_ms)
+            values (?, ?, ?, ?, ?)
+            on conflict (id) do nothing
+            """;
+
+    private static final String UPSERT_HIGHEST_BID_SQL = """
+            insert into auctions (id, highest_bid, highest_bidder_id, updated_at_epoch_ms, seq)
+            values (?, ?, ?, ?, ?)
+            on conflict (id) do update set
+              highest_bid = excluded.highest_bid,
+              highest_bidder_id = excluded.highest_bidder_id,
+              updated_at_epoch_ms = excluded.updated_at_epoch_ms,
+              seq = excluded.seq
+            where auctions.seq is null or auctions.seq < excluded.seq
+            """;
+
+    private static final String UPSERT_CLOSED_AUCTION_SQL = """
+            insert into auctions (id, status, highest_bid, highest_bidder_id, updated_at_epoch_ms, seq)
+            values (?, ?, ?, ?, ?, ?)
+            on conflict (id) do update set
+              status = excluded.status,
+              highest_bid = excluded.highest_bid,
+              highest_bidder_id = excluded.highest_bidder_id,
+              updated_at_epoch_ms = excluded.updated_at_epoch_ms,
+              seq = excluded.seq
+            where auctions.seq is null or auctions.seq < excluded.seq
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuctionProjectionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsertAuctions(Collection<AuctionEvent> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(created.size());
+        for (AuctionEvent event : created) {
+            rows.add(new Object[]{
+                    event.auctionId(),
+                    event.sellerId(),
+                    event.title(),
+                    event.description(),
+                    event.status(),
+                    event.startingPrice(),
+                    event.reservePrice(),
+                    event.startTimeEpochMs(),
+                    event.endTimeEpochMs(),
+                    event.occurredAtEpochMs(),
+                    event.occurredAtEpochMs(),
+                    event.seq() == null ? 0L : event.seq()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_AUCTION_SQL, rows);
+    }
+
+    public void insertBids(Collection<AuctionEvent> bids) {
+        List<Object[]> rows = new ArrayList<>(bids.size());
+        for (AuctionEvent event : bids) {
+            if (event.bidId() == null) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    event.bidId(),
+                    event.auctionId(),
+                    event.bidderId(),
+                    event.amount(),
+                    event.occurredAtEpochMs()
+            });
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BID_SQL, rows);
+        }
+    }
+
+    public void upsertHighestBids(Collection<AuctionEvent> highestBids) {
+        if (highestBids.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(highestBids.size());
+        for (AuctionEvent event : highestBids) {
+            rows.add(new Object[]{
+                    event.auctionId(),
+                    event.amount(),
+                    event.bidderId(),
+                    event.occurredAtEpochMs(),
+                    event.seq()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_HIGHEST_BID_SQL, rows);
+    }
+
+    public void upsertClosedAuctions(Collection<AuctionEvent> closed) {
+        if (closed.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(closed.size());
+        for (AuctionEvent event : closed) {
+            boolean sold = event.amount() != null;
+            rows.add(new Object[]{
+                    event.auctionId(),
+                    event.status() == null ? "CLOSED" : event.status(),
+                    sold ? event.amount() : null,
+                    sold ? event.bidderId() : null,
+                    event.occurredAtEpochMs(),
+                    event.seq()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_CLOSED_AUCTION_SQL, rows);
+    }
+}
@@ -1,6 +0,0 @@
-package com.example.bidengine.persistence;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-
-public interface AuctionRepository extends JpaRepository<AuctionEntity, String> {
-}
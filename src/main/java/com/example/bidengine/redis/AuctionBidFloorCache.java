@@ -0,0 +1,99 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.AuctionUpdate;
+import com.example.bidengine.store.AuctionUpdateListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local lower bound of each open auction's highest bid, raised by script replies and by the
+ * {@link AuctionUpdateMessages#TOPIC} channel. The highest bid of an open auction never goes down, so a bid at or
+ * below the floor is rejected with {@code BELOW_HIGHEST} before any Dragonfly call, however stale the floor is.
+ * The floor only applies while the auction's end time, learned from its creation or a read on this instance, is
+ * still ahead: once it passes, or while it is unknown, bids go to Dragonfly, which answers {@code ENDED} for an
+ * auction that has ended but is not closed yet. A close message drops the floor.
+ */
+@Component
+public class AuctionBidFloorCache implements MessageListener, AuctionUpdateListener {
+    private final boolean enabled;
+    private final Cache<String, Floor> floors;
+    private final LongAdder rejected = new LongAdder();
+
+    public AuctionBidFloorCache(@Value("${bidengine.redis.bid-floor.enabled:true}") boolean enabled,
+                                @Value("${bidengine.redis.bid-floor.max-size:100000}") long maxSize) {
+        this.enabled = enabled;
+        this.floors = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public boolean rejects(String auctionId, long amount, long nowEpochMs) {
+        if (!enabled) {
+            return false;
+        }
+        Floor floor = floors.getIfPresent(auctionId);
+        if (floor == null || nowEpochMs >= floor.endTimeEpochMs() || amount > floor.highestBid()) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public void raise(String auctionId, Long highestBid) {
+        if (enabled && highestBid != null) {
+            floors.asMap().merge(auctionId, new Floor(highestBid, Floor.UNKNOWN_END), Floor::max);
+        }
+    }
+
+    /**
+     * Records the end time and highest bid of an open auction, so that bids on it can be checked against the floor.
+     */
+    public void track(AuctionResponse auction) {
+        if (enabled && auction != null && "OPEN".equals(auction.status())) {
+            long highestBid = auction.highestBid() == null ? Floor.NO_BID : auction.highestBid();
+            floors.asMap().merge(auction.auctionId(), new Floor(highestBid, auction.endTimeEpochMs()), Floor::max);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        AuctionUpdate update = AuctionUpdateMessages.parse(message);
+        if (update != null) {
+            onAuctionUpdate(update);
+        }
+    }
+
+    @Override
+    public void onAuctionUpdate(AuctionUpdate update) {
+        if (update.closed()) {
+            floors.invalidate(update.auctionId());
+        } else {
+            raise(update.auctionId(), update.highestBid());
+        }
+    }
+
+    private record Floor(long highestBid, long endTimeEpochMs) {
+        static final long NO_BID = Long.MIN_VALUE;
+        static final long UNKNOWN_END = Long.MIN_VALUE;
+
+        Floor max(Floor other) {
+            return new Floor(Math.max(highestBid, other.highestBid),
+                    Math.max(endTimeEpochMs, other.endTimeEpochMs));
+        }
+    }
+}
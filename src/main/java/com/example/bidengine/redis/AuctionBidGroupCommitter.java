@@ -0,0 +1,152 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.store.AuctionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit in front of {@link AuctionStore#placeBid}. While a store call for an auction is in flight, further
+ * bids on that auction queue up; the next call evaluates up to {@code max-batch} of them in arrival order with
+ * {@link AuctionStore#placeAuctionBids} (the multi-bid script on Dragonfly). The caller whose bid heads the queue
+ * makes the call and then hands over to the next waiter, so nobody commits for others after its own bid is done.
+ * With {@code max-wait-us} above 0 a caller taking over from a previous call first waits that long for more bids. A
+ * bid on an idle auction is sent at once with the plain place-bid call, as without group commit.
+ */
+@Component
+public class AuctionBidGroupCommitter {
+    private final AuctionStore store;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final ConcurrentHashMap<String, ArrayDeque<Pending>> queues = new ConcurrentHashMap<>();
+
+    public AuctionBidGroupCommitter(AuctionStore store,
+                                    @Value("${bidengine.redis.group-commit.enabled:true}") boolean enabled,
+                                    @Value("${bidengine.redis.group-commit.max-batch:128}") int maxBatch,
+                                    @Value("${bidengine.redis.group-commit.max-wait-us:0}") long maxWaitMicros) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("bidengine.redis.group-commit.max-batch must be at least 1");
+        }
+        this.store = store;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+    }
+
+    public AuctionStore.PlaceBidResult placeBid(AuctionStore.BidCommand command, long nowEpochMs) {
+        if (!enabled) {
+            return store.placeBid(command.auctionId(), command.bidId(), command.bidderId(), command.amount(),
+                    nowEpochMs, command.eventId());
+        }
+        Pending pending = new Pending(new AuctionStore.TimedBid(command, nowEpochMs));
+        boolean idle = enqueue(pending);
+        if (!idle) {
+            pending.turn.join();
+        }
+        if (!pending.result.isDone()) {
+            commit(command.auctionId(), !idle);
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    /**
+     * @return the number of bids on the auction that are queued or being committed
+     */
+    int queued(String auctionId) {
+        ArrayDeque<Pending> queue = queues.get(auctionId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Queues the bid; returns {@code true} if the auction had no queue, so the caller commits right away.
+     */
+    private boolean enqueue(Pending pending) {
+        boolean[] first = new boolean[1];
+        queues.compute(pending.bid.command().auctionId(), (auctionId, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                first[0] = true;
+            }
+            queue.addLast(pending);
+            return queue;
+        });
+        return first[0];
+    }
+
+    // Bids stay queued until their result is set, so later arrivals never find the queue empty and start a
+    // concurrent call; handOff removes them and wakes the next committer.
+    private void commit(String auctionId, boolean linger) {
+        if (linger && maxWaitNanos > 0) {
+            LockSupport.parkNanos(maxWaitNanos);
+        }
+        List<Pending> batch = new ArrayList<>();
+        queues.computeIfPresent(auctionId, (id, queue) -> {
+            for (Pending pending : queue) {
+                if (batch.size() == maxBatch) {
+                    break;
+                }
+                batch.add(pending);
+            }
+            return queue;
+        });
+        try {
+            List<AuctionStore.PlaceBidResult> results = execute(auctionId, batch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.result.completeExceptionally(ex));
+        } finally {
+            handOff(auctionId, batch.size());
+            batch.forEach(pending -> pending.turn.complete(null));
+        }
+    }
+
+    private List<AuctionStore.PlaceBidResult> execute(String auctionId, List<Pending> batch) {
+        if (batch.size() == 1) {
+            AuctionStore.TimedBid bid = batch.getFirst().bid;
+            AuctionStore.BidCommand command = bid.command();
+            return List.of(store.placeBid(auctionId, command.bidId(), command.bidderId(), command.amount(),
+                    bid.nowEpochMs(), command.eventId()));
+        }
+        return store.placeAuctionBids(auctionId, batch.stream().map(pending -> pending.bid).toList());
+    }
+
+    private void handOff(String auctionId, int committed) {
+        Pending[] next = new Pending[1];
+        queues.computeIfPresent(auctionId, (id, queue) -> {
+            for (int i = 0; i < committed; i++) {
+                queue.pollFirst();
+            }
+            next[0] = queue.peekFirst();
+            return queue.isEmpty() ? null : queue;
+        });
+        if (next[0] != null) {
+            next[0].turn.complete(null);
+        }
+    }
+
+    // turn completes once the bid's result is set or its caller is next to commit.
+    private static final class Pending {
+        private final AuctionStore.TimedBid bid;
+        private final CompletableFuture<AuctionStore.PlaceBidResult> result = new CompletableFuture<>();
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+
+        private Pending(AuctionStore.TimedBid bid) {
+            this.bid = bid;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bidengine.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites keys from the untagged layout ({@code auction:<id>}, {@code auction:<id>:bids}, {@code bid:<bidId>})
+ * into the hash-tagged layout of {@link AuctionKeys} and spreads the single {@code auctions:byEndTime} index over the
+ * end-time shards. Legacy keys are deleted only after their copies are written, so an interrupted run can simply be
+ * restarted. Run it with bid traffic stopped.
+ */
+@Component
+@ConditionalOnProperty(name = "bidengine.redis.migrate-legacy-keys", havingValue = "true")
+public class AuctionKeyMigrator implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(AuctionKeyMigrator.class);
+    private static final long SCAN_COUNT = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int scheduleShards;
+
+    public AuctionKeyMigrator(RedisTemplate<String, String> redisTemplate,
+                              @Value("${bidengine.scheduler.shards:16}") int scheduleShards) {
+        this.redisTemplate = redisTemplate;
+        this.scheduleShards = scheduleShards;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = migrate();
+        int scheduled = migrateEndTimeIndex();
+        log.info("Migrated {} auctions and {} scheduled closes to the hash-tagged key layout", migrated, scheduled);
+    }
+
+    public int migrateEndTimeIndex() {
+        Set<ZSetOperations.TypedTuple<String>> entries =
+                redisTemplate.opsForZSet().rangeWithScores(AuctionKeys.AUCTIONS_BY_END_TIME, 0, -1);
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            String shardKey = AuctionKeys.endTimeShard(AuctionKeys.shardOf(entry.getValue(), scheduleShards));
+            redisTemplate.opsForZSet().add(shardKey, entry.getValue(), entry.getScore());
+        }
+        redisTemplate.delete(AuctionKeys.AUCTIONS_BY_END_TIME);
+        return entries.size();
+    }
+
+    public int migrate() {
+        List<String> auctionIds = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(AuctionKeys.legacyAuctionPattern())
+                .count(SCAN_COUNT)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String auctionId = AuctionKeys.legacyAuctionId(cursor.next());
+                if (auctionId != null) {
+                    auctionIds.add(auctionId);
+                }
+            }
+        }
+        for (String auctionId : auctionIds) {
+            migrateAuction(auctionId);
+        }
+        return auctionIds.size();
+    }
+
+    private void migrateAuction(String auctionId) {
+        String legacyAuctionKey = AuctionKeys.legacyAuction(auctionId);
+        String legacyBidsKey = AuctionKeys.legacyBids(auctionId);
+
+        Set<ZSetOperations.TypedTuple<String>> bids =
+                redisTemplate.opsForZSet().rangeWithScores(legacyBidsKey, 0, -1);
+        List<String> legacyBidKeys = new ArrayList<>();
+        if (bids != null && !bids.isEmpty()) {
+            for (ZSetOperations.TypedTuple<String> bid : bids) {
+                String legacyBidKey = AuctionKeys.legacyBid(bid.getValue());
+                copyHash(legacyBidKey, AuctionKeys.bid(auctionId, bid.getValue()));
+                legacyBidKeys.add(legacyBidKey);
+            }
+            redisTemplate.opsForZSet().add(AuctionKeys.bids(auctionId), bids);
+        }
+        copyHash(legacyAuctionKey, AuctionKeys.auction(auctionId));
+
+        if (!legacyBidKeys.isEmpty()) {
+            redisTemplate.delete(legacyBidKeys);
+        }
+        redisTemplate.delete(legacyBidsKey);
+        redisTemplate.delete(legacyAuctionKey);
+    }
+
+    private void copyHash(String from, String to) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(from);
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForHash().putAll(to, new HashMap<>(entries));
+    }
+}
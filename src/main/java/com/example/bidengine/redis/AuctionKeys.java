@@ -0,0 +1,105 @@
+package com.example.bidengine.redis;
+
+import io.lettuce.core.cluster.SlotHash;
+
+/**
+ * Key layout. Every key belonging to one auction carries the auction ID as a hash tag, so the keys touched by
+ * a single script call hash to the same cluster slot.
+ */
+final class AuctionKeys {
+    static final String AUCTIONS_BY_END_TIME = "auctions:byEndTime";
+    private static final String AUCTIONS_CLOSING = "auctions:closing";
+    private static final String OUTBOX_KEY_PREFIX = "outbox:";
+    private static final String OUTBOX_AUCTIONS = "outbox:auctions";
+    private static final String LEASE_KEY_PREFIX = "lease:";
+    private static final String MEMBERS_KEY_PREFIX = "members:";
+    private static final String RATE_KEY_PREFIX = "rate:";
+    // Pub/sub channel the place-bid and close scripts publish to (literal in the Lua source); see AuctionUpdateMessages.
+    static final String UPDATES_CHANNEL = "auction:updates";
+    // Pub/sub channel the create script publishes the auction ID to after appending to its outbox (literal in Lua).
+    static final String OUTBOX_CHANNEL = "auction:outbox";
+
+    private static final String AUCTION_KEY_PREFIX = "auction:";
+    private static final String BIDS_KEY_SUFFIX = ":bids";
+    private static final String BID_KEY_PREFIX = "bid:";
+
+    private AuctionKeys() {
+    }
+
+    static String auction(String auctionId) {
+        return AUCTION_KEY_PREFIX + "{" + auctionId + "}";
+    }
+
+    static String bids(String auctionId) {
+        return auction(auctionId) + BIDS_KEY_SUFFIX;
+    }
+
+    static String bid(String auctionId, String bidId) {
+        return BID_KEY_PREFIX + "{" + auctionId + "}:" + bidId;
+    }
+
+    static String auctionRate(String auctionId) {
+        return RATE_KEY_PREFIX + "{" + auctionId + "}";
+    }
+
+    static String bidderRate(String auctionId, String bidderId) {
+        return auctionRate(auctionId) + ":bidder:" + bidderId;
+    }
+
+    static String endTimeShard(int shard) {
+        return AUCTIONS_BY_END_TIME + ":{" + shard + "}";
+    }
+
+    // Auctions claimed from the end-time shard whose close is not confirmed yet; shares the shard's hash tag.
+    static String closingShard(int shard) {
+        return AUCTIONS_CLOSING + ":{" + shard + "}";
+    }
+
+    static String outbox(String auctionId) {
+        return OUTBOX_KEY_PREFIX + "{" + auctionId + "}";
+    }
+
+    // Auctions of a shard whose outbox the relay sweeps; shares the end-time shard's hash tag.
+    static String outboxAuctions(int shard) {
+        return OUTBOX_AUCTIONS + ":{" + shard + "}";
+    }
+
+    static int slot(String auctionId) {
+        return SlotHash.getSlot(auction(auctionId));
+    }
+
+    static int shardOf(String auctionId, int shardCount) {
+        return Math.floorMod(auctionId.hashCode(), shardCount);
+    }
+
+    static String lease(String name) {
+        return LEASE_KEY_PREFIX + name;
+    }
+
+    static String members(String group) {
+        return MEMBERS_KEY_PREFIX + group;
+    }
+
+    static String legacyAuction(String auctionId) {
+        return AUCTION_KEY_PREFIX + auctionId;
+    }
+
+    static String legacyBids(String auctionId) {
+        return AUCTION_KEY_PREFIX + auctionId + BIDS_KEY_SUFFIX;
+    }
+
+    static String legacyBid(String bidId) {
+        return BID_KEY_PREFIX + bidId;
+    }
+
+    static String legacyAuctionPattern() {
+        return AUCTION_KEY_PREFIX + "*";
+    }
+
+    static String legacyAuctionId(String key) {
+        if (!key.startsWith(AUCTION_KEY_PREFIX) || key.indexOf('{') >= 0 || key.endsWith(BIDS_KEY_SUFFIX)) {
+            return null;
+        }
+        return key.substring(AUCTION_KEY_PREFIX.length());
+    }
+}
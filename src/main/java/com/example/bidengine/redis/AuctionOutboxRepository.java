@@ -0,0 +1,249 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.events.AuctionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outbox streams that the auction scripts append their events to in the same atomic step as the state change. Each
+ * auction has its own stream, {@code outbox:{<auctionId>}}, in the cluster slot of its other keys, so every script
+ * stays within one slot. The relay finds the streams with entries through the auction IDs published on
+ * {@link #HINT_TOPICS} and by sweeping {@code outbox:auctions:{<shard>}}, where each auction is registered together
+ * with its end-time index entry. An entry stays in its stream until it is acknowledged, so it survives a relay crash;
+ * acknowledged entries are deleted, and so is a stream once it is empty.
+ */
+@Repository
+public class AuctionOutboxRepository {
+    /**
+     * Channels carrying the ID of an auction whose stream just got an entry: the bid and close scripts publish the
+     * auction update, the create script publishes on {@code auction:outbox}.
+     */
+    public static final List<ChannelTopic> HINT_TOPICS =
+            List.of(AuctionUpdateMessages.TOPIC, new ChannelTopic(AuctionKeys.OUTBOX_CHANNEL));
+
+    // KEYS: outbox stream. ARGV: entry IDs. Deletes the entries, and the stream once it is empty; returns its length.
+    private static final String ACKNOWLEDGE_SCRIPT = """
+            redis.call('XDEL', KEYS[1], unpack(ARGV))
+            local remaining = redis.call('XLEN', KEYS[1])
+            if remaining == 0 then
+              redis.call('DEL', KEYS[1])
+            end
+            return remaining
+            """;
+    private static final byte[] STATUS_FIELD = "status".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int shards;
+    private final DefaultRedisScript<Long> acknowledgeScript;
+
+    public AuctionOutboxRepository(RedisTemplate<String, String> redisTemplate,
+                                   @Value("${bidengine.scheduler.shards:16}") int shards) {
+        this.redisTemplate = redisTemplate;
+        this.shards = shards;
+        this.acknowledgeScript = new DefaultRedisScript<>(ACKNOWLEDGE_SCRIPT, Long.class);
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int shardOf(String auctionId) {
+        return AuctionKeys.shardOf(auctionId, shards);
+    }
+
+    /**
+     * Checks one page of the auctions registered in {@code shard}, in registration order, and returns those whose
+     * stream has entries. Unregisters auctions with an empty stream that are closed, or that do not exist although they
+     * were registered before {@code abandonedBeforeEpochMs} (their create script never ran). Only the relay owning the
+     * shard removes entries and the removed ones are accounted for, so a page never skips an auction; one registered
+     * while a pass is under way may be checked twice.
+     *
+     * @param offset where the page starts: 0, or the {@link SweepPage#nextOffset()} of the previous page
+     */
+    public SweepPage sweep(int shard, long offset, int limit, long abandonedBeforeEpochMs) {
+        String registryKey = AuctionKeys.outboxAuctions(shard);
+        Set<ZSetOperations.TypedTuple<String>> registered =
+                redisTemplate.opsForZSet().rangeWithScores(registryKey, offset, offset + limit - 1);
+        if (registered == null || registered.isEmpty()) {
+            return new SweepPage(List.of(), 0, true);
+        }
+        List<ZSetOperations.TypedTuple<String>> auctions = new ArrayList<>(registered);
+        // The status is read first: a close appends its event in the same step as the status change, so a closed
+        // auction whose stream is empty afterwards has been drained.
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (ZSetOperations.TypedTuple<String> auction : auctions) {
+                connection.hashCommands().hGet(rawKey(AuctionKeys.auction(auction.getValue())), STATUS_FIELD);
+                connection.streamCommands().xLen(rawKey(AuctionKeys.outbox(auction.getValue())));
+            }
+            return null;
+        });
+        List<String> pending = new ArrayList<>();
+        List<Object> drained = new ArrayList<>();
+        for (int i = 0; i < auctions.size() && i * 2 + 1 < replies.size(); i++) {
+            String auctionId = auctions.get(i).getValue();
+            Double registeredAt = auctions.get(i).getScore();
+            Object status = replies.get(i * 2);
+            boolean closed = status != null && !"OPEN".equals(status.toString());
+            boolean abandoned = status == null && registeredAt != null && registeredAt < abandonedBeforeEpochMs;
+            if (replies.get(i * 2 + 1) instanceof Long length && length > 0) {
+                pending.add(auctionId);
+            } else if (closed || abandoned) {
+                drained.add(auctionId);
+            }
+        }
+        if (!drained.isEmpty()) {
+            redisTemplate.opsForZSet().remove(registryKey, drained.toArray());
+        }
+        boolean last = auctions.size() < limit;
+        return new SweepPage(pending, last ? 0 : offset + auctions.size() - drained.size(), last);
+    }
+
+    /**
+     * Reads up to {@code count} of the oldest entries of each auction's stream, all in one pipelined round trip.
+     *
+     * @return the entries of each auction that has any, in stream order
+     */
+    public Map<String, List<OutboxEntry>> read(List<String> auctionIds, int count) {
+        if (auctionIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String auctionId : auctionIds) {
+                connection.streamCommands().xRange(rawKey(AuctionKeys.outbox(auctionId)), Range.unbounded(),
+                        Limit.limit().count(count));
+            }
+            return null;
+        });
+        Map<String, List<OutboxEntry>> entries = new LinkedHashMap<>();
+        for (int i = 0; i < auctionIds.size() && i < replies.size(); i++) {
+            if (!(replies.get(i) instanceof List<?> records) || records.isEmpty()) {
+                continue;
+            }
+            String auctionId = auctionIds.get(i);
+            List<OutboxEntry> auctionEntries = new ArrayList<>(records.size());
+            for (Object element : records) {
+                if (element instanceof MapRecord<?, ?, ?> record) {
+                    auctionEntries.add(new OutboxEntry(auctionId, record.getId().getValue(),
+                            toEvent(stringFields(record.getValue()))));
+                }
+            }
+            entries.put(auctionId, auctionEntries);
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes sent entries from the auctions' streams, all in one pipelined round trip.
+     *
+     * @param sent the IDs of the sent entries of each auction
+     * @return the auctions whose stream still has entries, or could not be acknowledged, in the order of {@code sent}
+     */
+    public List<String> acknowledge(Map<String, List<String>> sent) {
+        List<String> auctionIds = new ArrayList<>(sent.size());
+        List<byte[][]> calls = new ArrayList<>(sent.size());
+        sent.forEach((auctionId, entryIds) -> {
+            if (!entryIds.isEmpty()) {
+                byte[][] keysAndArgs = new byte[1 + entryIds.size()][];
+                keysAndArgs[0] = rawKey(AuctionKeys.outbox(auctionId));
+                for (int i = 0; i < entryIds.size(); i++) {
+                    keysAndArgs[1 + i] = rawKey(entryIds.get(i));
+                }
+                auctionIds.add(auctionId);
+                calls.add(keysAndArgs);
+            }
+        });
+        if (calls.isEmpty()) {
+            return List.of();
+        }
+        List<Object> remaining = PipelinedScripts.evalSha(redisTemplate, acknowledgeScript, ReturnType.INTEGER, 1,
+                calls);
+        List<String> left = new ArrayList<>();
+        for (int i = 0; i < auctionIds.size(); i++) {
+            if (!(remaining.get(i) instanceof Long length) || length > 0) {
+                left.add(auctionIds.get(i));
+            }
+        }
+        return left;
+    }
+
+    /**
+     * @return the event stored in an outbox entry, or {@code null} for an entry without fields
+     */
+    static AuctionEvent toEvent(Map<?, ?> fields) {
+        if (fields == null || fields.get("eventType") == null) {
+            return null;
+        }
+        return new AuctionEvent(
+                stringVal(fields.get("eventId")),
+                stringVal(fields.get("eventType")),
+                stringVal(fields.get("auctionId")),
+                Long.parseLong(stringVal(fields.get("occurredAtEpochMs"))),
+                stringVal(fields.get("sellerId")),
+                stringVal(fields.get("title")),
+                // The auction hash stores a missing description as ""; events carry null like the direct path.
+                emptyToNull(stringVal(fields.get("description"))),
+                nullableLong(fields.get("startingPrice")),
+                nullableLong(fields.get("reservePrice")),
+                nullableLong(fields.get("startTimeEpochMs")),
+                nullableLong(fields.get("endTimeEpochMs")),
+                stringVal(fields.get("bidId")),
+                stringVal(fields.get("bidderId")),
+                nullableLong(fields.get("amount")),
+                stringVal(fields.get("status")),
+                nullableLong(fields.get("seq"))
+        );
+    }
+
+    private static Map<String, String> stringFields(Map<?, ?> fields) {
+        Map<String, String> strings = new HashMap<>();
+        fields.forEach((field, value) -> strings.put(stringVal(field), stringVal(value)));
+        return strings;
+    }
+
+    private static String stringVal(Object obj) {
+        if (obj instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return obj == null ? null : obj.toString();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Long nullableLong(Object obj) {
+        return obj == null ? null : Long.parseLong(stringVal(obj));
+    }
+
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record OutboxEntry(String auctionId, String id, AuctionEvent event) {
+    }
+
+    /**
+     * @param pending    auctions of the page whose stream has entries
+     * @param nextOffset where the next page starts
+     * @param last       whether the page reached the end of the registry, so the next pass starts over at 0
+     */
+    public record SweepPage(List<String> pending, long nextOffset, boolean last) {
+    }
+}
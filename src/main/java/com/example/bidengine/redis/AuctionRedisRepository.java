@@ -2,103 +2,510 @@ package com.example.bidengine.redis;
 
 import com.example.bidengine.api.BidResponse;
 import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.BidRateLimits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Repository;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @Repository
-public class AuctionRedisRepository {
-    private static final String AUCTION_KEY_PREFIX = "auction:";
-    private static final String BIDS_KEY_SUFFIX = ":bids";
-    private static final String BID_KEY_PREFIX = "bid:";
-    private static final String AUCTIONS_BY_END_TIME = "auctions:byEndTime";
-
-    private static final String PLACE_BID_SCRIPT = """
-            if redis.call('EXISTS', KEYS[1]) == 0 then
-              return { 'NOT_FOUND' }
+public class AuctionRedisRepository implements AuctionStore {
+    static final List<String> BID_FIELD_NAMES = List.of("bidderId", "amount", "placedAtEpochMs");
+    private static final byte[][] BID_FIELDS = BID_FIELD_NAMES.stream()
+            .map(field -> field.getBytes(StandardCharsets.UTF_8))
+            .toArray(byte[][]::new);
+
+    // KEYS: end-time shard, outbox auctions of the shard. ARGV: auction ID, end time, registration time ('' = no
+    // outbox). Runs before the create script, which is in the auction's slot: a failure in between leaves an index
+    // entry without an auction, which auto-close and the relay's sweep drop, rather than an auction that never closes.
+    static final String SCHEDULE_AUCTION_SCRIPT = """
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            if ARGV[3] ~= '' then
+              redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+            end
+            return 1
+            """;
+
+    // KEYS: auction, outbox. ARGV: auction ID, event ID ('' = no outbox entry), occurredAt, then the auction hash as
+    // field/value pairs.
+    static final String CREATE_AUCTION_SCRIPT = """
+            local fields = {}
+            for i = 4, #ARGV do
+              fields[#fields + 1] = ARGV[i]
             end
-            local status = redis.call('HGET', KEYS[1], 'status')
-            if status ~= 'OPEN' then
-              return { 'NOT_OPEN' }
+            redis.call('HSET', KEYS[1], unpack(fields))
+            if ARGV[2] ~= '' then
+              local entry = { 'eventId', ARGV[2], 'eventType', 'AUCTION_CREATED', 'occurredAtEpochMs', ARGV[3] }
+              for i = 4, #ARGV do
+                entry[#entry + 1] = ARGV[i]
+              end
+              redis.call('XADD', KEYS[2], '*', unpack(entry))
+              redis.call('PUBLISH', 'auction:outbox', ARGV[1])
             end
-            local startTime = tonumber(redis.call('HGET', KEYS[1], 'startTimeEpochMs'))
-            local endTime = tonumber(redis.call('HGET', KEYS[1], 'endTimeEpochMs'))
+            return 1
+            """;
+
+    // Shared by the place-bid and proxy-bid scripts, which use the same layout (see placeBidKeys/placeBidArgs).
+    // KEYS: auction, bids, bid, answering bid, outbox, bidder rate bucket, auction rate bucket. ARGV: now,
+    // bid ID, bidder ID, amount (the maximum for a proxy bid), auction ID, bid storage mode, event ID ('' = no outbox
+    // entry), answering bid ID, answering event ID, then capacity and refill per second of the bidder and auction
+    // buckets (see BidRateLimits). The answering bid is the one a standing proxy places in response to the caller.
+    // Every recorded bid is appended to the reply as (bid ID, bidder ID, amount, seq).
+    private static final int PLACE_BID_KEY_COUNT = 7;
+    static final String BID_FUNCTIONS = """
+            -- The bid being evaluated: its keys, arguments and recorded bids (rebound per bid by the multi-bid script).
+            local K, A, placed = KEYS, ARGV, {}
+
+            local function increment(price)
+              if price < 100 then return 5
+              elseif price < 500 then return 25
+              elseif price < 2500 then return 50
+              elseif price < 10000 then return 100
+              elseif price < 25000 then return 250
+              elseif price < 50000 then return 500
+              elseif price < 100000 then return 1000
+              elseif price < 250000 then return 2500
+              elseif price < 500000 then return 5000
+              end
+              return 10000
+            end
+
+            local function biddingError(now)
+              if redis.call('EXISTS', K[1]) == 0 then
+                return 'NOT_FOUND'
+              end
+              if redis.call('HGET', K[1], 'status') ~= 'OPEN' then
+                return 'NOT_OPEN'
+              end
+              if now < tonumber(redis.call('HGET', K[1], 'startTimeEpochMs')) then
+                return 'NOT_STARTED'
+              end
+              if now > tonumber(redis.call('HGET', K[1], 'endTimeEpochMs')) then
+                return 'ENDED'
+              end
+              return false
+            end
+
+            local function bucketTokens(key, capacity, rate, now)
+              local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+              local tokens = tonumber(bucket[1])
+              if not tokens then
+                return capacity
+              end
+              return math.min(capacity, tokens + math.max(0, now - tonumber(bucket[2])) * rate / 1000)
+            end
+
+            -- Takes a token from both rate buckets and returns 0, or takes none and returns the ms until both have one.
+            local function rateLimitWait(now)
+              local wait = 0
+              local buckets = {}
+              for i, key in ipairs({ K[6], K[7] }) do
+                local capacity = tonumber(A[8 + i * 2])
+                local rate = tonumber(A[9 + i * 2])
+                if capacity > 0 then
+                  local tokens = bucketTokens(key, capacity, rate, now)
+                  if tokens < 1 then
+                    wait = math.max(wait, math.ceil((1 - tokens) * 1000 / rate))
+                  end
+                  buckets[#buckets + 1] = { key, tokens, capacity, rate }
+                end
+              end
+              if wait > 0 then
+                return wait
+              end
+              for _, bucket in ipairs(buckets) do
+                redis.call('HSET', bucket[1], 'tokens', bucket[2] - 1, 'ts', now)
+                redis.call('PEXPIRE', bucket[1], math.ceil(bucket[3] * 1000 / bucket[4]))
+              end
+              return 0
+            end
+
+            -- The price a proxy bids to beat base: the reserve if its maximum covers it, never more than the maximum.
+            local function proxyPrice(base, max)
+              local reserve = tonumber(redis.call('HGET', K[1], 'reservePrice'))
+              if reserve and max >= reserve and base < reserve then
+                base = reserve
+              end
+              return math.min(base, max)
+            end
+
+            local function recordBid(bidKey, bidId, bidderId, amount, eventId)
+              amount = string.format('%d', amount)
+              if A[6] == 'COMPACT' then
+                redis.call('ZADD', K[2], amount, bidId .. '|' .. A[1] .. '|' .. bidderId)
+              else
+                redis.call('HSET', bidKey,
+                  'bidId', bidId,
+                  'auctionId', A[5],
+                  'bidderId', bidderId,
+                  'amount', amount,
+                  'placedAtEpochMs', A[1]
+                )
+                redis.call('ZADD', K[2], amount, bidId)
+              end
+              redis.call('HSET', K[1],
+                'highestBid', amount,
+                'highestBidderId', bidderId,
+                'updatedAtEpochMs', A[1]
+              )
+              local seq = redis.call('HINCRBY', K[1], 'seq', 1)
+              if eventId ~= '' then
+                redis.call('XADD', K[5], '*',
+                  'eventId', eventId,
+                  'eventType', 'BID_PLACED',
+                  'auctionId', A[5],
+                  'occurredAtEpochMs', A[1],
+                  'bidId', bidId,
+                  'bidderId', bidderId,
+                  'amount', amount,
+                  'status', 'OPEN',
+                  'seq', seq
+                )
+              end
+              redis.call('PUBLISH', 'auction:updates', A[5] .. '|' .. seq .. '|OPEN|' .. amount .. '|' .. bidderId)
+              for _, value in ipairs({ bidId, bidderId, amount, seq }) do
+                placed[#placed + 1] = value
+              end
+            end
+
+            local function reply(status)
+              local result = { status,
+                redis.call('HGET', K[1], 'highestBid'),
+                redis.call('HGET', K[1], 'highestBidderId'),
+                redis.call('HGET', K[1], 'seq') }
+              for _, value in ipairs(placed) do
+                result[#result + 1] = value
+              end
+              return result
+            end
+
+            local function answerBid(bidderId, amount)
+              recordBid(K[4], A[8], bidderId, amount, A[9])
+            end
+            """;
+
+    // A standing proxy of another bidder answers a bid up to its maximum (a tie goes to the proxy, which was there
+    // first); a bid above the maximum exhausts it: the proxy bids its maximum, then the caller's bid is recorded.
+    static final String PLACE_BID_FUNCTION = """
+            local function placeBid()
+              local now = tonumber(A[1])
+              local err = biddingError(now)
+              if err then
+                return { err }
+              end
+              local wait = rateLimitWait(now)
+              if wait > 0 then
+                return { 'RATE_LIMITED', wait }
+              end
+              local amount = tonumber(A[4])
+              local highestBid = tonumber(redis.call('HGET', K[1], 'highestBid'))
+              if amount < tonumber(redis.call('HGET', K[1], 'startingPrice')) then
+                return { 'BELOW_START' }
+              end
+              if highestBid and amount <= highestBid then
+                return { 'BELOW_HIGHEST' }
+              end
+              local proxyBidderId = redis.call('HGET', K[1], 'proxyBidderId')
+              if proxyBidderId then
+                local proxyMax = tonumber(redis.call('HGET', K[1], 'proxyMax'))
+                if proxyBidderId ~= A[3] and amount <= proxyMax then
+                  recordBid(K[3], A[2], A[3], amount, A[7])
+                  answerBid(proxyBidderId, proxyPrice(amount + increment(amount), proxyMax))
+                  return reply('OUTBID')
+                end
+                if proxyBidderId ~= A[3] or amount >= proxyMax then
+                  redis.call('HDEL', K[1], 'proxyBidderId', 'proxyMax')
+                end
+                if proxyBidderId ~= A[3] and proxyMax > highestBid then
+                  answerBid(proxyBidderId, proxyMax)
+                end
+              end
+              recordBid(K[3], A[2], A[3], amount, A[7])
+              return reply('OK')
+            end
+            """;
+
+    static final String PLACE_BID_SCRIPT = BID_FUNCTIONS + PLACE_BID_FUNCTION + "return placeBid()\n";
+
+    // Group commit of bids on one auction (see placeAuctionBids). KEYS: auction, bids, outbox, auction rate
+    // bucket, then per bid: bid, answering bid, bidder rate bucket. ARGV: auction ID, bid storage mode, the four rate
+    // limits, then per bid: now, bid ID, bidder ID, amount, event ID, answering bid ID, answering event ID. The bids
+    // are evaluated in order, each exactly as the place-bid script would; the reply holds one place-bid reply per bid.
+    static final String PLACE_AUCTION_BIDS_SCRIPT = BID_FUNCTIONS + PLACE_BID_FUNCTION + """
+            local replies = {}
+            local k = 4
+            for a = 6, #ARGV - 1, 7 do
+              K = { KEYS[1], KEYS[2], KEYS[k + 1], KEYS[k + 2], KEYS[3], KEYS[k + 3], KEYS[4] }
+              A = { ARGV[a + 1], ARGV[a + 2], ARGV[a + 3], ARGV[a + 4], ARGV[1], ARGV[2], ARGV[a + 5], ARGV[a + 6],
+                ARGV[a + 7], ARGV[3], ARGV[4], ARGV[5], ARGV[6] }
+              placed = {}
+              replies[#replies + 1] = placeBid()
+              k = k + 3
+            end
+            return replies
+            """;
+
+    // Registers ARGV[4] as the caller's maximum and resolves it against the leader's in one call. Only the leader's
+    // maximum is kept (proxyBidderId/proxyMax on the auction hash); the loser's maximum is spent as its last bid.
+    static final String PROXY_BID_SCRIPT = BID_FUNCTIONS + """
             local now = tonumber(ARGV[1])
-            if now < startTime then
-              return { 'NOT_STARTED' }
+            local err = biddingError(now)
+            if err then
+              return { err }
             end
-            if now > endTime then
-              return { 'ENDED' }
+            local wait = rateLimitWait(now)
+            if wait > 0 then
+              return { 'RATE_LIMITED', wait }
             end
+            local max = tonumber(ARGV[4])
             local startingPrice = tonumber(redis.call('HGET', KEYS[1], 'startingPrice'))
-            local highestBid = redis.call('HGET', KEYS[1], 'highestBid')
-            local amount = tonumber(ARGV[4])
-            if amount < startingPrice then
+            if max < startingPrice then
               return { 'BELOW_START' }
             end
-            if highestBid and amount <= tonumber(highestBid) then
+            local highestBid = tonumber(redis.call('HGET', KEYS[1], 'highestBid'))
+            if not highestBid then
+              redis.call('HSET', KEYS[1], 'proxyBidderId', ARGV[3], 'proxyMax', ARGV[4])
+              recordBid(KEYS[3], ARGV[2], ARGV[3], proxyPrice(startingPrice, max), ARGV[7])
+              return reply('OK')
+            end
+            local leader = redis.call('HGET', KEYS[1], 'highestBidderId')
+            local leaderMax = highestBid
+            if redis.call('HGET', KEYS[1], 'proxyBidderId') == leader then
+              leaderMax = tonumber(redis.call('HGET', KEYS[1], 'proxyMax'))
+            end
+            if leader == ARGV[3] then
+              if max <= leaderMax then
+                return { 'BELOW_MAX' }
+              end
+              redis.call('HSET', KEYS[1], 'proxyBidderId', ARGV[3], 'proxyMax', ARGV[4])
+              local price = proxyPrice(highestBid, max)
+              if price > highestBid then
+                recordBid(KEYS[3], ARGV[2], ARGV[3], price, ARGV[7])
+              end
+              return reply('OK')
+            end
+            if max <= highestBid then
               return { 'BELOW_HIGHEST' }
             end
-            redis.call('HSET', KEYS[3],
-              'bidId', ARGV[2],
-              'auctionId', ARGV[5],
-              'bidderId', ARGV[3],
-              'amount', ARGV[4],
-              'placedAtEpochMs', ARGV[1]
-            )
-            redis.call('ZADD', KEYS[2], amount, ARGV[2])
-            redis.call('HSET', KEYS[1],
-              'highestBid', ARGV[4],
-              'highestBidderId', ARGV[3],
-              'updatedAtEpochMs', ARGV[1]
-            )
-            return { 'OK', ARGV[4], ARGV[3] }
+            if max <= leaderMax then
+              recordBid(KEYS[3], ARGV[2], ARGV[3], max, ARGV[7])
+              answerBid(leader, proxyPrice(max + increment(max), leaderMax))
+              return reply('OUTBID')
+            end
+            if leaderMax > highestBid then
+              answerBid(leader, leaderMax)
+            end
+            redis.call('HSET', KEYS[1], 'proxyBidderId', ARGV[3], 'proxyMax', ARGV[4])
+            recordBid(KEYS[3], ARGV[2], ARGV[3], proxyPrice(leaderMax + increment(leaderMax), max), ARGV[7])
+            return reply('OK')
             """;
 
-    private static final String CLOSE_AUCTION_SCRIPT = """
-            if redis.call('EXISTS', KEYS[1]) == 0 then
-              return { 'NOT_FOUND' }
+    static final String CLOSE_AUCTION_FUNCTION = """
+            local function closeAuction(auctionId, auctionKey, bidsKey, now, bidsTtl, outboxKey, eventId)
+              if redis.call('EXISTS', auctionKey) == 0 then
+                return 'NOT_FOUND', 0, false, false
+              end
+              local status = redis.call('HGET', auctionKey, 'status')
+              if status ~= 'OPEN' then
+                return 'NOT_OPEN', 0, false, false
+              end
+              local reserve = redis.call('HGET', auctionKey, 'reservePrice')
+              local highestBid = redis.call('HGET', auctionKey, 'highestBid')
+              local highestBidderId = redis.call('HGET', auctionKey, 'highestBidderId')
+              local finalStatus = 'CLOSED'
+              if reserve then
+                if (not highestBid) or (tonumber(highestBid) < tonumber(reserve)) then
+                  finalStatus = 'CLOSED_NO_SALE'
+                end
+              end
+              redis.call('HSET', auctionKey,
+                'status', finalStatus,
+                'updatedAtEpochMs', now
+              )
+              local seq = redis.call('HINCRBY', auctionKey, 'seq', 1)
+              if bidsTtl and bidsTtl > 0 then
+                redis.call('PEXPIRE', bidsKey, bidsTtl)
+              end
+              if eventId ~= '' then
+                local entry = { 'eventId', eventId, 'eventType', 'AUCTION_CLOSED', 'auctionId', auctionId,
+                  'occurredAtEpochMs', now, 'status', finalStatus, 'seq', seq }
+                if finalStatus == 'CLOSED' and highestBid then
+                  entry[#entry + 1] = 'bidderId'
+                  entry[#entry + 1] = highestBidderId
+                  entry[#entry + 1] = 'amount'
+                  entry[#entry + 1] = highestBid
+                end
+                redis.call('XADD', outboxKey, '*', unpack(entry))
+              end
+              redis.call('PUBLISH', 'auction:updates', auctionId .. '|' .. seq .. '|' .. finalStatus .. '|'
+                .. (highestBid or '') .. '|' .. (highestBidderId or ''))
+              return finalStatus, seq, highestBid, highestBidderId
             end
-            local status = redis.call('HGET', KEYS[1], 'status')
-            if status ~= 'OPEN' then
-              return { 'NOT_OPEN' }
+            """;
+
+    private static final int CLOSE_AUCTION_KEY_COUNT = 3;
+
+    static final String CLOSE_AUCTION_SCRIPT = CLOSE_AUCTION_FUNCTION + """
+            local status, seq, highestBid, highestBidderId = closeAuction(ARGV[3], KEYS[1], KEYS[2], ARGV[1], tonumber(ARGV[2]), KEYS[3], ARGV[4])
+            if seq == 0 then
+              return { status }
             end
-            local reserve = redis.call('HGET', KEYS[1], 'reservePrice')
-            local highestBid = redis.call('HGET', KEYS[1], 'highestBid')
-            local highestBidderId = redis.call('HGET', KEYS[1], 'highestBidderId')
-            local finalStatus = 'CLOSED'
-            if reserve then
-              if (not highestBid) or (tonumber(highestBid) < tonumber(reserve)) then
-                finalStatus = 'CLOSED_NO_SALE'
+            return { status, seq, highestBid, highestBidderId }
+            """;
+
+    // KEYS: end-time shard, closing set of the same shard. ARGV: now, limit, candidate auction IDs. With a limit
+    // above 0 the candidates also include up to that many due auctions of the index and of the closing set. Moves each
+    // due candidate from the index to the closing set, so concurrent callers never claim it twice, and returns
+    // (auction ID, end time) pairs. A candidate still in the closing set was claimed but its close never confirmed; it
+    // is returned again, which is safe because the close script only closes an open auction.
+    private static final String CLAIM_EXPIRED_SCRIPT = """
+            local now = tonumber(ARGV[1])
+            local limit = tonumber(ARGV[2])
+            local candidates = {}
+            for i = 3, #ARGV do
+              candidates[#candidates + 1] = ARGV[i]
+            end
+            if limit > 0 then
+              for _, auctionId in ipairs(redis.call('ZRANGEBYSCORE', KEYS[1], 0, ARGV[1], 'LIMIT', 0, limit)) do
+                candidates[#candidates + 1] = auctionId
+              end
+              for _, auctionId in ipairs(redis.call('ZRANGE', KEYS[2], 0, limit - 1)) do
+                candidates[#candidates + 1] = auctionId
               end
             end
-            redis.call('HSET', KEYS[1],
-              'status', finalStatus,
-              'updatedAtEpochMs', ARGV[1]
-            )
-            return { finalStatus, highestBid, highestBidderId }
+            local claimed = {}
+            for _, auctionId in ipairs(candidates) do
+              local endTime = redis.call('ZSCORE', KEYS[1], auctionId)
+              if endTime and tonumber(endTime) <= now and redis.call('ZREM', KEYS[1], auctionId) == 1 then
+                redis.call('ZADD', KEYS[2], endTime, auctionId)
+              else
+                endTime = redis.call('ZSCORE', KEYS[2], auctionId)
+              end
+              if endTime then
+                table.insert(claimed, auctionId)
+                table.insert(claimed, endTime)
+              end
+            end
+            return claimed
             """;
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final BidStorageMode bidStorageMode;
+    private final long closedBidsTtlMs;
+    private final int scheduleShards;
+    private final boolean outboxEnabled;
+    private final BidRateLimits rateLimits;
+    private final AuctionMetrics metrics;
+    private final DefaultRedisScript<Long> scheduleAuctionScript;
+    private final DefaultRedisScript<Long> createAuctionScript;
     private final DefaultRedisScript<List> placeBidScript;
+    private final DefaultRedisScript<List> placeAuctionBidsScript;
+    private final DefaultRedisScript<List> proxyBidScript;
     private final DefaultRedisScript<List> closeAuctionScript;
+    private final DefaultRedisScript<List> claimExpiredScript;
 
     public AuctionRedisRepository(RedisTemplate<String, String> redisTemplate) {
+        this(redisTemplate, BidStorageMode.HASH, 0L, 1, false, BidRateLimits.NONE);
+    }
+
+    public AuctionRedisRepository(RedisTemplate<String, String> redisTemplate, BidStorageMode bidStorageMode,
+                                  long closedBidsTtlMs) {
+        this(redisTemplate, bidStorageMode, closedBidsTtlMs, 1, false, BidRateLimits.NONE);
+    }
+
+    public AuctionRedisRepository(RedisTemplate<String, String> redisTemplate, BidStorageMode bidStorageMode,
+                                  long closedBidsTtlMs, int scheduleShards, boolean outboxEnabled) {
+        this(redisTemplate, bidStorageMode, closedBidsTtlMs, scheduleShards, outboxEnabled, BidRateLimits.NONE);
+    }
+
+    public AuctionRedisRepository(RedisTemplate<String, String> redisTemplate, BidStorageMode bidStorageMode,
+                                  long closedBidsTtlMs, int scheduleShards, boolean outboxEnabled,
+                                  BidRateLimits rateLimits) {
+        this(redisTemplate, bidStorageMode, closedBidsTtlMs, scheduleShards, outboxEnabled, rateLimits,
+                AuctionMetrics.NONE);
+    }
+
+    @Autowired
+    public AuctionRedisRepository(RedisTemplate<String, String> redisTemplate,
+                                  @Value("${bidengine.redis.bid-storage:HASH}") BidStorageMode bidStorageMode,
+                                  @Value("${bidengine.redis.closed-bids-ttl-ms:86400000}") long closedBidsTtlMs,
+                                  @Value("${bidengine.scheduler.shards:16}") int scheduleShards,
+                                  @Value("${bidengine.outbox.enabled:false}") boolean outboxEnabled,
+                                  BidRateLimits rateLimits,
+                                  AuctionMetrics metrics) {
+        if (scheduleShards < 1) {
+            throw new IllegalArgumentException("bidengine.scheduler.shards must be at least 1");
+        }
         this.redisTemplate = redisTemplate;
+        this.bidStorageMode = bidStorageMode;
+        this.closedBidsTtlMs = closedBidsTtlMs;
+        this.scheduleShards = scheduleShards;
+        this.outboxEnabled = outboxEnabled;
+        this.rateLimits = rateLimits;
+        this.metrics = metrics;
+        this.scheduleAuctionScript = new DefaultRedisScript<>(SCHEDULE_AUCTION_SCRIPT, Long.class);
+        this.createAuctionScript = new DefaultRedisScript<>(CREATE_AUCTION_SCRIPT, Long.class);
         this.placeBidScript = new DefaultRedisScript<>(PLACE_BID_SCRIPT, List.class);
+        this.placeAuctionBidsScript = new DefaultRedisScript<>(PLACE_AUCTION_BIDS_SCRIPT, List.class);
+        this.proxyBidScript = new DefaultRedisScript<>(PROXY_BID_SCRIPT, List.class);
         this.closeAuctionScript = new DefaultRedisScript<>(CLOSE_AUCTION_SCRIPT, List.class);
+        this.claimExpiredScript = new DefaultRedisScript<>(CLAIM_EXPIRED_SCRIPT, List.class);
     }
 
-    public void createAuction(AuctionResponse auction) {
-        String key = auctionKey(auction.auctionId());
+    @Override
+    public void createAuction(AuctionResponse auction, String eventId) {
+        metrics.timeScript("schedule-auction", () -> redisTemplate.execute(scheduleAuctionScript,
+                scheduleAuctionKeys(auction.auctionId()), scheduleAuctionArgs(auction)));
+        metrics.timeScript("create-auction", () -> redisTemplate.execute(createAuctionScript,
+                createAuctionKeys(auction.auctionId()), createAuctionArgs(auction, eventId)));
+    }
+
+    List<String> scheduleAuctionKeys(String auctionId) {
+        int shard = shardOf(auctionId);
+        return List.of(AuctionKeys.endTimeShard(shard), AuctionKeys.outboxAuctions(shard));
+    }
+
+    Object[] scheduleAuctionArgs(AuctionResponse auction) {
+        return new Object[]{auction.auctionId(), String.valueOf(auction.endTimeEpochMs()),
+                outboxEnabled ? String.valueOf(auction.createdAtEpochMs()) : ""};
+    }
+
+    List<String> createAuctionKeys(String auctionId) {
+        return List.of(auctionKey(auctionId), outboxKey(auctionId));
+    }
+
+    Object[] createAuctionArgs(AuctionResponse auction, String eventId) {
+        Map<String, String> fields = auctionFields(auction);
+        Object[] args = new Object[3 + fields.size() * 2];
+        args[0] = auction.auctionId();
+        args[1] = outboxEventId(eventId);
+        args[2] = String.valueOf(auction.createdAtEpochMs());
+        int i = 3;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            args[i++] = field.getKey();
+            args[i++] = field.getValue();
+        }
+        return args;
+    }
+
+    static Map<String, String> auctionFields(AuctionResponse auction) {
         Map<String, String> fields = new HashMap<>();
         fields.put("auctionId", auction.auctionId());
         fields.put("sellerId", auction.sellerId());
@@ -119,16 +526,21 @@ public class AuctionRedisRepository {
         }
         fields.put("createdAtEpochMs", String.valueOf(auction.createdAtEpochMs()));
         fields.put("updatedAtEpochMs", String.valueOf(auction.updatedAtEpochMs()));
-        redisTemplate.opsForHash().putAll(key, fields);
-        redisTemplate.opsForZSet().add(AUCTIONS_BY_END_TIME, auction.auctionId(), auction.endTimeEpochMs());
+        fields.put("seq", "0");
+        return fields;
     }
 
+    @Override
     public AuctionResponse getAuction(String auctionId) {
         String key = auctionKey(auctionId);
         Map<Object, Object> map = redisTemplate.opsForHash().entries(key);
         if (map == null || map.isEmpty()) {
             return null;
         }
+        return toAuction(auctionId, map);
+    }
+
+    static AuctionResponse toAuction(String auctionId, Map<?, ?> map) {
         return new AuctionResponse(
                 auctionId,
                 stringVal(map.get("sellerId")),
@@ -142,40 +554,228 @@ public class AuctionRedisRepository {
                 nullableLong(map.get("highestBid")),
                 stringVal(map.get("highestBidderId")),
                 longVal(map.get("createdAtEpochMs")),
-                longVal(map.get("updatedAtEpochMs"))
+                longVal(map.get("updatedAtEpochMs")),
+                longVal(map.get("seq"))
         );
     }
 
-    public PlaceBidResult placeBid(String auctionId, String bidId, String bidderId, long amount, long nowEpochMs) {
-        String auctionKey = auctionKey(auctionId);
-        String bidsKey = bidsKey(auctionId);
-        String bidKey = bidKey(bidId);
-        List<String> keys = List.of(auctionKey, bidsKey, bidKey);
-        Object[] args = new Object[]{
+    @Override
+    public PlaceBidResult placeBid(String auctionId, String bidId, String bidderId, long amount, long nowEpochMs,
+                                   String eventId) {
+        List<?> response = metrics.timeScript("place-bid", () -> redisTemplate.execute(placeBidScript,
+                placeBidKeys(auctionId, bidId, bidderId),
+                placeBidArgs(auctionId, bidId, bidderId, amount, nowEpochMs, eventId)));
+        return countOutcome(toPlaceBidResult(response));
+    }
+
+    /**
+     * Registers {@code maxAmount} as the bidder's maximum. The script bids on the bidder's behalf, one increment above
+     * the competition, up to that maximum; a competing maximum is resolved in the same call.
+     */
+    @Override
+    public PlaceBidResult proxyBid(String auctionId, String bidId, String bidderId, long maxAmount, long nowEpochMs,
+                                   String eventId) {
+        List<?> response = metrics.timeScript("proxy-bid", () -> redisTemplate.execute(proxyBidScript,
+                placeBidKeys(auctionId, bidId, bidderId),
+                placeBidArgs(auctionId, bidId, bidderId, maxAmount, nowEpochMs, eventId)));
+        return countOutcome(toPlaceBidResult(response));
+    }
+
+    List<String> placeBidKeys(String auctionId, String bidId, String bidderId) {
+        return List.of(auctionKey(auctionId), bidsKey(auctionId), bidKey(auctionId, bidId),
+                bidKey(auctionId, AuctionStore.proxyAnswerId(bidId)), outboxKey(auctionId),
+                AuctionKeys.bidderRate(auctionId, bidderId), AuctionKeys.auctionRate(auctionId));
+    }
+
+    Object[] placeBidArgs(String auctionId, String bidId, String bidderId, long amount, long nowEpochMs,
+                          String eventId) {
+        String[] limits = rateLimitArgs();
+        return new Object[]{
                 String.valueOf(nowEpochMs),
                 bidId,
                 bidderId,
                 String.valueOf(amount),
-                auctionId
+                auctionId,
+                bidStorageMode.name(),
+                outboxEventId(eventId),
+                AuctionStore.proxyAnswerId(bidId),
+                outboxEventId(AuctionStore.proxyAnswerId(eventId)),
+                limits[0],
+                limits[1],
+                limits[2],
+                limits[3]
         };
-        List<?> response = redisTemplate.execute(placeBidScript, keys, args);
+    }
+
+    AuctionMetrics metrics() {
+        return metrics;
+    }
+
+    PlaceBidResult countOutcome(PlaceBidResult result) {
+        metrics.bidOutcome(result.ok() ? result.status() : result.errorCode());
+        return result;
+    }
+
+    static PlaceBidResult toPlaceBidResult(List<?> response) {
         if (response == null || response.isEmpty()) {
             return PlaceBidResult.error("UNKNOWN");
         }
         String status = response.get(0).toString();
-        if (!"OK".equals(status)) {
+        if ("RATE_LIMITED".equals(status)) {
+            return PlaceBidResult.rateLimited(response.size() > 1 ? longVal(response.get(1)) : 0L);
+        }
+        if (!"OK".equals(status) && !"OUTBID".equals(status)) {
             return PlaceBidResult.error(status);
         }
         Long highestBid = response.size() > 1 && response.get(1) != null ? Long.parseLong(response.get(1).toString()) : null;
         String highestBidderId = response.size() > 2 && response.get(2) != null ? response.get(2).toString() : null;
-        return PlaceBidResult.success(highestBid, highestBidderId);
+        long seq = response.size() > 3 ? longVal(response.get(3)) : 0L;
+        List<PlacedBid> placed = new ArrayList<>(Math.max(0, response.size() - 4) / 4);
+        for (int i = 4; i + 3 < response.size(); i += 4) {
+            placed.add(new PlacedBid(stringVal(response.get(i)), stringVal(response.get(i + 1)),
+                    longVal(response.get(i + 2)), longVal(response.get(i + 3))));
+        }
+        return PlaceBidResult.success(status, highestBid, highestBidderId, seq, placed);
     }
 
-    public CloseAuctionResult closeAuction(String auctionId, long nowEpochMs) {
-        String auctionKey = auctionKey(auctionId);
-        List<String> keys = List.of(auctionKey);
-        Object[] args = new Object[]{String.valueOf(nowEpochMs)};
-        List<?> response = redisTemplate.execute(closeAuctionScript, keys, args);
+    /**
+     * Places many bids with one pipelined round trip of {@code EVALSHA} calls, one per bid, ordered by cluster slot
+     * (see {@link PipelinedScripts}). Bids on the same auction keep their relative order. Results are in the order of
+     * {@code bids}.
+     */
+    @Override
+    public List<PlaceBidResult> placeBids(List<BidCommand> bids, long nowEpochMs) {
+        if (bids.isEmpty()) {
+            return List.of();
+        }
+        int[] slots = new int[bids.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = AuctionKeys.slot(bids.get(i).auctionId());
+        }
+        List<Integer> order = IntStream.range(0, bids.size()).boxed()
+                .sorted(Comparator.comparingInt(i -> slots[i]))
+                .toList();
+        List<byte[][]> calls = new ArrayList<>(order.size());
+        for (int index : order) {
+            calls.add(placeBidKeysAndArgs(bids.get(index), nowEpochMs));
+        }
+        List<Object> replies = metrics.timeScript("place-bids-pipelined", () -> PipelinedScripts.evalSha(
+                redisTemplate, placeBidScript, ReturnType.MULTI, PLACE_BID_KEY_COUNT, calls));
+        PlaceBidResult[] results = new PlaceBidResult[bids.size()];
+        for (int i = 0; i < order.size(); i++) {
+            Object reply = replies.get(i);
+            results[order.get(i)] = countOutcome(toPlaceBidResult(reply instanceof List<?> list ? list : null));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Places bids on one auction with a single script call. The bids are evaluated in list order, each as
+     * {@link #placeBid} would at its own {@code nowEpochMs}; results are in the same order.
+     */
+    @Override
+    public List<PlaceBidResult> placeAuctionBids(String auctionId, List<TimedBid> bids) {
+        if (bids.isEmpty()) {
+            return List.of();
+        }
+        List<?> response = metrics.timeScript("place-auction-bids", () -> redisTemplate.execute(
+                placeAuctionBidsScript, placeAuctionBidsKeys(auctionId, bids), placeAuctionBidsArgs(auctionId, bids)));
+        List<PlaceBidResult> results = new ArrayList<>(bids.size());
+        for (int i = 0; i < bids.size(); i++) {
+            Object reply = response != null && response.size() > i ? response.get(i) : null;
+            results.add(countOutcome(toPlaceBidResult(reply instanceof List<?> list ? list : null)));
+        }
+        return results;
+    }
+
+    List<String> placeAuctionBidsKeys(String auctionId, List<TimedBid> bids) {
+        List<String> keys = new ArrayList<>(4 + bids.size() * 3);
+        keys.add(auctionKey(auctionId));
+        keys.add(bidsKey(auctionId));
+        keys.add(outboxKey(auctionId));
+        keys.add(AuctionKeys.auctionRate(auctionId));
+        for (TimedBid timed : bids) {
+            BidCommand bid = timed.command();
+            keys.add(bidKey(auctionId, bid.bidId()));
+            keys.add(bidKey(auctionId, AuctionStore.proxyAnswerId(bid.bidId())));
+            keys.add(AuctionKeys.bidderRate(auctionId, bid.bidderId()));
+        }
+        return keys;
+    }
+
+    // Bidder capacity and refill, then auction capacity and refill, as the bid scripts read them.
+    private String[] rateLimitArgs() {
+        return new String[]{
+                String.valueOf(rateLimits.bidderCapacity()),
+                String.valueOf(rateLimits.bidderRefillPerSecond()),
+                String.valueOf(rateLimits.auctionCapacity()),
+                String.valueOf(rateLimits.auctionRefillPerSecond())
+        };
+    }
+
+    Object[] placeAuctionBidsArgs(String auctionId, List<TimedBid> bids) {
+        String[] limits = rateLimitArgs();
+        List<Object> args = new ArrayList<>(6 + bids.size() * 7);
+        args.add(auctionId);
+        args.add(bidStorageMode.name());
+        args.addAll(Arrays.asList(limits));
+        for (TimedBid timed : bids) {
+            BidCommand bid = timed.command();
+            args.add(String.valueOf(timed.nowEpochMs()));
+            args.add(bid.bidId());
+            args.add(bid.bidderId());
+            args.add(String.valueOf(bid.amount()));
+            args.add(outboxEventId(bid.eventId()));
+            args.add(AuctionStore.proxyAnswerId(bid.bidId()));
+            args.add(outboxEventId(AuctionStore.proxyAnswerId(bid.eventId())));
+        }
+        return args.toArray();
+    }
+
+    private byte[][] placeBidKeysAndArgs(BidCommand bid, long nowEpochMs) {
+        List<String> keys = placeBidKeys(bid.auctionId(), bid.bidId(), bid.bidderId());
+        Object[] args = placeBidArgs(bid.auctionId(), bid.bidId(), bid.bidderId(), bid.amount(), nowEpochMs,
+                bid.eventId());
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            keysAndArgs[i] = rawKey(keys.get(i));
+        }
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[keys.size() + i] = rawKey(args[i].toString());
+        }
+        return keysAndArgs;
+    }
+
+    @Override
+    public CloseAuctionResult closeAuction(String auctionId, long nowEpochMs, String eventId) {
+        List<?> response = metrics.timeScript("close-auction", () -> redisTemplate.execute(closeAuctionScript,
+                closeAuctionKeys(auctionId), closeAuctionArgs(auctionId, nowEpochMs, eventId)));
+        return toCloseAuctionResult(response);
+    }
+
+    List<String> closeAuctionKeys(String auctionId) {
+        return List.of(auctionKey(auctionId), bidsKey(auctionId), outboxKey(auctionId));
+    }
+
+    Object[] closeAuctionArgs(String auctionId, long nowEpochMs, String eventId) {
+        return new Object[]{String.valueOf(nowEpochMs), String.valueOf(closedBidsTtl()), auctionId,
+                outboxEventId(eventId)};
+    }
+
+    private byte[][] closeAuctionKeysAndArgs(String auctionId, long nowEpochMs, String eventId) {
+        List<String> keys = closeAuctionKeys(auctionId);
+        Object[] args = closeAuctionArgs(auctionId, nowEpochMs, eventId);
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            keysAndArgs[i] = rawKey(keys.get(i));
+        }
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[keys.size() + i] = rawKey(args[i].toString());
+        }
+        return keysAndArgs;
+    }
+
+    static CloseAuctionResult toCloseAuctionResult(List<?> response) {
         if (response == null || response.isEmpty()) {
             return CloseAuctionResult.error("UNKNOWN");
         }
@@ -183,37 +783,201 @@ public class AuctionRedisRepository {
         if (!"CLOSED".equals(status) && !"CLOSED_NO_SALE".equals(status)) {
             return CloseAuctionResult.error(status);
         }
-        Long highestBid = response.size() > 1 && response.get(1) != null ? Long.parseLong(response.get(1).toString()) : null;
-        String highestBidderId = response.size() > 2 && response.get(2) != null ? response.get(2).toString() : null;
-        return CloseAuctionResult.success(status, highestBid, highestBidderId);
+        long seq = response.size() > 1 ? longVal(response.get(1)) : 0L;
+        Long highestBid = response.size() > 2 && response.get(2) != null ? Long.parseLong(response.get(2).toString()) : null;
+        String highestBidderId = response.size() > 3 && response.get(3) != null ? response.get(3).toString() : null;
+        return CloseAuctionResult.success(status, highestBid, highestBidderId, seq);
+    }
+
+    /**
+     * Closes the expired auctions of a shard, and any whose claim was left unconfirmed by a failed earlier pass. The
+     * claim script finds them itself, so a batch costs the claim call and one pipelined round trip of closes.
+     */
+    @Override
+    public List<ClosedAuction> closeExpiredAuctions(int shard, long nowEpochMs, int limit,
+                                                    Supplier<String> eventIds) {
+        return claimAndClose(shard, nowEpochMs, limit, List.of(), eventIds);
+    }
+
+    /**
+     * Claims the due candidates with one script call on the shard's keys, then closes each claimed auction with the
+     * single-slot close script, all pipelined in one round trip, so no call spans more than one cluster slot. A claim
+     * is confirmed, by removing it from the shard's closing set, once its close returned.
+     *
+     * @param eventIds supplies one event ID per claimed candidate, used for its outbox entry if it gets closed
+     */
+    @Override
+    public List<ClosedAuction> claimAndCloseAuctions(int shard, long nowEpochMs, List<String> candidates,
+                                                     Supplier<String> eventIds) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        return claimAndClose(shard, nowEpochMs, 0, candidates, eventIds);
+    }
+
+    private List<ClosedAuction> claimAndClose(int shard, long nowEpochMs, int limit, List<String> candidates,
+                                              Supplier<String> eventIds) {
+        Object[] claimArgs = claimExpiredArgs(nowEpochMs, limit, candidates);
+        String closingKey = AuctionKeys.closingShard(shard);
+        List<?> claims = metrics.timeScript("claim-expired", () -> redisTemplate.execute(claimExpiredScript,
+                List.of(AuctionKeys.endTimeShard(shard), closingKey), claimArgs));
+        if (claims == null || claims.isEmpty()) {
+            return List.of();
+        }
+        List<String> claimed = new ArrayList<>(claims.size() / 2);
+        List<byte[][]> closes = new ArrayList<>(claims.size() / 2);
+        for (int i = 0; i + 1 < claims.size(); i += 2) {
+            String auctionId = stringVal(claims.get(i));
+            claimed.add(auctionId);
+            closes.add(closeAuctionKeysAndArgs(auctionId, nowEpochMs, eventIds.get()));
+        }
+        List<Object> replies = metrics.timeScript("close-auctions-pipelined", () -> PipelinedScripts.evalSha(
+                redisTemplate, closeAuctionScript, ReturnType.MULTI, CLOSE_AUCTION_KEY_COUNT, closes));
+        long closedAt = System.currentTimeMillis();
+        List<ClosedAuction> closed = new ArrayList<>(claimed.size());
+        List<String> confirmed = new ArrayList<>(claimed.size());
+        for (int i = 0; i < claimed.size(); i++) {
+            Object reply = replies.get(i);
+            if (!(reply instanceof List<?> list)) {
+                continue;
+            }
+            long endTime = scoreVal(claims.get(i * 2 + 1));
+            CloseAuctionResult result = toCloseAuctionResult(list);
+            closed.add(new ClosedAuction(claimed.get(i), endTime, result));
+            confirmed.add(claimed.get(i));
+            if (result.ok()) {
+                metrics.closeLag(endTime, closedAt);
+            }
+        }
+        if (!confirmed.isEmpty()) {
+            redisTemplate.opsForZSet().remove(closingKey, confirmed.toArray());
+        }
+        return closed;
+    }
+
+    static Object[] claimExpiredArgs(long nowEpochMs, int limit, List<String> candidates) {
+        Object[] args = new Object[2 + candidates.size()];
+        args[0] = String.valueOf(nowEpochMs);
+        args[1] = String.valueOf(limit);
+        for (int i = 0; i < candidates.size(); i++) {
+            args[2 + i] = candidates.get(i);
+        }
+        return args;
     }
 
+    @Override
     public List<BidResponse> listTopBids(String auctionId, int limit) {
+        if (bidStorageMode == BidStorageMode.COMPACT) {
+            return listTopCompactBids(auctionId, limit);
+        }
         String bidsKey = bidsKey(auctionId);
         var range = redisTemplate.opsForZSet().reverseRange(bidsKey, 0, limit - 1);
         if (range == null || range.isEmpty()) {
             return List.of();
         }
         List<String> bidIds = new ArrayList<>(range);
-        List<BidResponse> bids = new ArrayList<>();
-        for (String bidId : bidIds) {
-            Map<Object, Object> map = redisTemplate.opsForHash().entries(bidKey(bidId));
-            if (map == null || map.isEmpty()) {
-                continue;
+        List<Object> rows = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String bidId : bidIds) {
+                connection.hashCommands().hMGet(rawKey(bidKey(auctionId, bidId)), BID_FIELDS);
+            }
+            return null;
+        });
+        List<BidResponse> bids = new ArrayList<>(bidIds.size());
+        for (int i = 0; i < bidIds.size() && i < rows.size(); i++) {
+            BidResponse bid = rows.get(i) instanceof List<?> fields
+                    ? decodeBidFields(auctionId, bidIds.get(i), fields)
+                    : null;
+            if (bid != null) {
+                bids.add(bid);
+            }
+        }
+        return bids;
+    }
+
+    private List<BidResponse> listTopCompactBids(String auctionId, int limit) {
+        var range = redisTemplate.opsForZSet().reverseRangeWithScores(bidsKey(auctionId), 0, limit - 1);
+        if (range == null || range.isEmpty()) {
+            return List.of();
+        }
+        List<BidResponse> bids = new ArrayList<>(range.size());
+        for (ZSetOperations.TypedTuple<String> tuple : range) {
+            BidResponse bid = decodeCompactBid(auctionId, tuple);
+            if (bid != null) {
+                bids.add(bid);
             }
-            bids.add(new BidResponse(
-                    bidId,
-                    auctionId,
-                    stringVal(map.get("bidderId")),
-                    longVal(map.get("amount")),
-                    longVal(map.get("placedAtEpochMs"))
-            ));
         }
         return bids;
     }
 
-    public List<String> listAuctionsEndingBefore(long nowEpochMs, int limit) {
-        var range = redisTemplate.opsForZSet().rangeByScore(AUCTIONS_BY_END_TIME, 0, nowEpochMs, 0, limit);
+    static BidResponse decodeCompactBid(String auctionId, ZSetOperations.TypedTuple<String> tuple) {
+        String member = tuple.getValue();
+        int first = member == null ? -1 : member.indexOf('|');
+        int second = first < 0 ? -1 : member.indexOf('|', first + 1);
+        if (second < 0 || tuple.getScore() == null) {
+            return null;
+        }
+        return new BidResponse(
+                member.substring(0, first),
+                auctionId,
+                member.substring(second + 1),
+                tuple.getScore().longValue(),
+                Long.parseLong(member, first + 1, second, 10)
+        );
+    }
+
+    static BidResponse decodeBidFields(String auctionId, String bidId, List<?> fields) {
+        if (fields == null || fields.size() < BID_FIELDS.length || fields.get(1) == null) {
+            return null;
+        }
+        return new BidResponse(bidId, auctionId, stringVal(fields.get(0)), longVal(fields.get(1)),
+                longVal(fields.get(2)));
+    }
+
+    public BidStorageMode bidStorageMode() {
+        return bidStorageMode;
+    }
+
+    @Override
+    public boolean outboxEnabled() {
+        return outboxEnabled;
+    }
+
+    private String outboxEventId(String eventId) {
+        return outboxEnabled ? eventId : "";
+    }
+
+    long closedBidsTtl() {
+        return bidStorageMode == BidStorageMode.COMPACT ? closedBidsTtlMs : 0L;
+    }
+
+    @Override
+    public int scheduleShards() {
+        return scheduleShards;
+    }
+
+    @Override
+    public int shardOf(String auctionId) {
+        return AuctionKeys.shardOf(auctionId, scheduleShards);
+    }
+
+    @Override
+    public List<ScheduledClose> listScheduledCloses(int shard, long untilEpochMs, int limit) {
+        var range = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(AuctionKeys.endTimeShard(shard), 0, untilEpochMs, 0, limit);
+        if (range == null || range.isEmpty()) {
+            return List.of();
+        }
+        List<ScheduledClose> closes = new ArrayList<>(range.size());
+        for (ZSetOperations.TypedTuple<String> tuple : range) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                closes.add(new ScheduledClose(tuple.getValue(), tuple.getScore().longValue()));
+            }
+        }
+        return closes;
+    }
+
+    public List<String> listAuctionsEndingBefore(int shard, long nowEpochMs, int limit) {
+        var range = redisTemplate.opsForZSet().rangeByScore(AuctionKeys.endTimeShard(shard), 0, nowEpochMs, 0, limit);
         if (range == null || range.isEmpty()) {
             return List.of();
         }
@@ -221,53 +985,55 @@ public class AuctionRedisRepository {
     }
 
     public void removeFromSchedule(String auctionId) {
-        redisTemplate.opsForZSet().remove(AUCTIONS_BY_END_TIME, auctionId);
+        redisTemplate.opsForZSet().remove(endTimeKey(auctionId), auctionId);
     }
 
     private static String auctionKey(String auctionId) {
-        return AUCTION_KEY_PREFIX + auctionId;
+        return AuctionKeys.auction(auctionId);
     }
 
     private static String bidsKey(String auctionId) {
-        return AUCTION_KEY_PREFIX + auctionId + BIDS_KEY_SUFFIX;
+        return AuctionKeys.bids(auctionId);
     }
 
-    private static String bidKey(String bidId) {
-        return BID_KEY_PREFIX + bidId;
+    private static String bidKey(String auctionId, String bidId) {
+        return AuctionKeys.bid(auctionId, bidId);
     }
 
-    private static String stringVal(Object obj) {
-        return obj == null ? null : obj.toString();
+    String endTimeKey(String auctionId) {
+        return AuctionKeys.endTimeShard(shardOf(auctionId));
     }
 
-    private static long longVal(Object obj) {
-        if (obj == null) {
-            return 0L;
-        }
-        return Long.parseLong(obj.toString());
+    String outboxKey(String auctionId) {
+        return AuctionKeys.outbox(auctionId);
     }
 
-    private static Long nullableLong(Object obj) {
-        return obj == null ? null : Long.parseLong(obj.toString());
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
     }
 
-    public record PlaceBidResult(boolean ok, String errorCode, Long highestBid, String highestBidderId) {
-        public static PlaceBidResult success(Long highestBid, String highestBidderId) {
-            return new PlaceBidResult(true, null, highestBid, highestBidderId);
+    private static String stringVal(Object obj) {
+        if (obj instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
         }
+        return obj == null ? null : obj.toString();
+    }
 
-        public static PlaceBidResult error(String code) {
-            return new PlaceBidResult(false, code, null, null);
+    private static long longVal(Object obj) {
+        if (obj == null) {
+            return 0L;
         }
+        if (obj instanceof Number number) {
+            return number.longValue();
+        }
+        return Long.parseLong(stringVal(obj));
     }
 
-    public record CloseAuctionResult(boolean ok, String status, String errorCode, Long highestBid, String highestBidderId) {
-        private static CloseAuctionResult success(String status, Long highestBid, String highestBidderId) {
-            return new CloseAuctionResult(true, status, null, highestBid, highestBidderId);
-        }
+    private static long scoreVal(Object obj) {
+        return obj == null ? 0L : (long) Double.parseDouble(stringVal(obj));
+    }
 
-        public static CloseAuctionResult error(String code) {
-            return new CloseAuctionResult(false, null, code, null, null);
-        }
+    private static Long nullableLong(Object obj) {
+        return obj == null ? null : Long.parseLong(stringVal(obj));
     }
 }
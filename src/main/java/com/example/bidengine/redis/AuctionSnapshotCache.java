@@ -0,0 +1,101 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.AuctionUpdate;
+import com.example.bidengine.store.AuctionUpdateListener;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of auction snapshots. The place-bid and close scripts publish every change on
+ * {@link AuctionUpdateMessages#TOPIC}, and the message evicts the local copy. An invalidation that arrives while a
+ * load is in flight removes the pending entry, so a snapshot read before the change is never cached after it.
+ * Pub/sub delivery is at most once, so entries also expire after {@code ttl-ms}.
+ */
+@Component
+public class AuctionSnapshotCache implements MessageListener, AuctionUpdateListener {
+    private final boolean enabled;
+    private final AsyncCache<String, AuctionResponse> cache;
+
+    public AuctionSnapshotCache(@Value("${bidengine.redis.snapshot-cache.enabled:true}") boolean enabled,
+                                @Value("${bidengine.redis.snapshot-cache.max-size:10000}") long maxSize,
+                                @Value("${bidengine.redis.snapshot-cache.ttl-ms:1000}") long ttlMs) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .buildAsync();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached snapshot or loads it on the calling thread; concurrent callers for the same ID share one load.
+     */
+    public AuctionResponse get(String auctionId, Function<String, AuctionResponse> loader) {
+        if (!enabled) {
+            return loader.apply(auctionId);
+        }
+        CompletableFuture<AuctionResponse> pending = new CompletableFuture<>();
+        CompletableFuture<AuctionResponse> existing = cache.asMap().putIfAbsent(auctionId, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            AuctionResponse auction = loader.apply(auctionId);
+            if (auction == null) {
+                cache.asMap().remove(auctionId, pending);
+            }
+            pending.complete(auction);
+            return auction;
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(auctionId, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #get}; {@code loader} must only start the load, not wait for it.
+     */
+    public CompletableFuture<AuctionResponse> getAsync(String auctionId,
+                                                      Function<String, CompletableFuture<AuctionResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(auctionId);
+        }
+        return cache.get(auctionId, (key, executor) -> loader.apply(key));
+    }
+
+    public void invalidate(String auctionId) {
+        cache.synchronous().invalidate(auctionId);
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(AuctionUpdateMessages.auctionId(message));
+    }
+
+    @Override
+    public void onAuctionUpdate(AuctionUpdate update) {
+        invalidate(update.auctionId());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionUpdate;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Messages on the {@code auction:updates} channel. The place-bid and close scripts publish
+ * {@code <auctionId>|<seq>|<status>|<highestBid>|<highestBidderId>} after every change, with empty fields for an
+ * auction that closed without bids. The bidder ID comes last, so it may itself contain {@code |}.
+ */
+public final class AuctionUpdateMessages {
+    public static final ChannelTopic TOPIC = new ChannelTopic(AuctionKeys.UPDATES_CHANNEL);
+
+    private AuctionUpdateMessages() {
+    }
+
+    public static String auctionId(Message message) {
+        String body = body(message);
+        int end = body.indexOf('|');
+        return end < 0 ? body : body.substring(0, end);
+    }
+
+    public static AuctionUpdate parse(Message message) {
+        String[] fields = body(message).split("\\|", 5);
+        if (fields.length < 5) {
+            return null;
+        }
+        return new AuctionUpdate(
+                fields[0],
+                Long.parseLong(fields[1]),
+                fields[2],
+                fields[3].isEmpty() ? null : Long.parseLong(fields[3]),
+                fields[4].isEmpty() ? null : fields[4]
+        );
+    }
+
+    private static String body(Message message) {
+        return new String(message.getBody(), StandardCharsets.UTF_8);
+    }
+}
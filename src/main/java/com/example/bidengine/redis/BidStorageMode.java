@@ -0,0 +1,14 @@
+package com.example.bidengine.redis;
+
+/**
+ * How accepted bids are stored in Dragonfly.
+ * <ul>
+ *     <li>{@code HASH}: one {@code bid:{auctionId}:<bidId>} hash per bid plus a ranking ZSET member.</li>
+ *     <li>{@code COMPACT}: only the ranking ZSET; the member packs {@code bidId|placedAtEpochMs|bidderId} and the
+ *     score is the amount. The ZSET expires a configurable time after the auction closes.</li>
+ * </ul>
+ */
+public enum BidStorageMode {
+    HASH,
+    COMPACT
+}
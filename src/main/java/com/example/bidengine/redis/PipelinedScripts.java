@@ -0,0 +1,105 @@
+package com.example.bidengine.redis;
+
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs many calls of one script in a single pipeline. Each call is sent as {@code EVALSHA} only; the script text is
+ * loaded, and the calls answered with {@code NOSCRIPT} sent again, only when the server does not know the script,
+ * as {@link RedisTemplate#execute(RedisScript, List, Object...)} does for a single call.
+ */
+final class PipelinedScripts {
+
+    private PipelinedScripts() {
+    }
+
+    /**
+     * @param calls keys followed by arguments of each call
+     * @return the reply of each call, in the order of {@code calls}; {@code null} for a call that failed
+     */
+    static List<Object> evalSha(RedisTemplate<String, String> redisTemplate, RedisScript<?> script,
+                                ReturnType returnType, int keyCount, List<byte[][]> calls) {
+        byte[] sha = bytes(script.getSha1());
+        Object[] replies = new Object[calls.size()];
+        List<Integer> pending = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            pending.add(i);
+        }
+        for (int attempt = 0; attempt < 2 && !pending.isEmpty(); attempt++) {
+            boolean load = attempt > 0;
+            List<Integer> sent = pending;
+            List<Object> results;
+            try {
+                results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    if (load) {
+                        connection.scriptingCommands().scriptLoad(bytes(script.getScriptAsString()));
+                    }
+                    for (int index : sent) {
+                        connection.scriptingCommands().evalSha(sha, returnType, keyCount, calls.get(index));
+                    }
+                    return null;
+                });
+            } catch (RedisPipelineException ex) {
+                results = decode(ex.getPipelineResult());
+            }
+            pending = new ArrayList<>();
+            int offset = load ? 1 : 0;
+            for (int i = 0; i < sent.size(); i++) {
+                Object reply = results.size() > offset + i ? results.get(offset + i) : null;
+                if (isNoScript(reply)) {
+                    pending.add(sent.get(i));
+                } else {
+                    replies[sent.get(i)] = reply instanceof Throwable ? null : reply;
+                }
+            }
+        }
+        return Arrays.asList(replies);
+    }
+
+    private static boolean isNoScript(Object reply) {
+        for (Throwable cause = reply instanceof Throwable t ? t : null; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Replies of a failed pipeline are not deserialized by the template; decode them as it would.
+    private static List<Object> decode(List<Object> results) {
+        if (results == null) {
+            return List.of();
+        }
+        List<Object> decoded = new ArrayList<>(results.size());
+        for (Object result : results) {
+            decoded.add(decode(result));
+        }
+        return decoded;
+    }
+
+    private static Object decode(Object result) {
+        if (result instanceof byte[] raw) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+        if (result instanceof List<?> list) {
+            List<Object> decoded = new ArrayList<>(list.size());
+            for (Object element : list) {
+                decoded.add(decode(element));
+            }
+            return decoded;
+        }
+        return result;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.store.AuctionStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of {@link AuctionRedisRepository} for the WebFlux API. It runs the same Lua scripts and
+ * reads the same keys, and shares the blocking repository's key, argument and reply handling, so both stacks can serve
+ * the same auctions side by side.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuctionRedisRepository {
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final AuctionRedisRepository repository;
+    private final DefaultRedisScript<Long> scheduleAuctionScript;
+    private final DefaultRedisScript<Long> createAuctionScript;
+    private final DefaultRedisScript<List> placeBidScript;
+    private final DefaultRedisScript<List> proxyBidScript;
+    private final DefaultRedisScript<List> closeAuctionScript;
+
+    public ReactiveAuctionRedisRepository(ReactiveRedisTemplate<String, String> redisTemplate,
+                                          AuctionRedisRepository repository) {
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.scheduleAuctionScript =
+                new DefaultRedisScript<>(AuctionRedisRepository.SCHEDULE_AUCTION_SCRIPT, Long.class);
+        this.createAuctionScript = new DefaultRedisScript<>(AuctionRedisRepository.CREATE_AUCTION_SCRIPT, Long.class);
+        this.placeBidScript = new DefaultRedisScript<>(AuctionRedisRepository.PLACE_BID_SCRIPT, List.class);
+        this.proxyBidScript = new DefaultRedisScript<>(AuctionRedisRepository.PROXY_BID_SCRIPT, List.class);
+        this.closeAuctionScript = new DefaultRedisScript<>(AuctionRedisRepository.CLOSE_AUCTION_SCRIPT, List.class);
+    }
+
+    public Mono<Void> createAuction(AuctionResponse auction, String eventId) {
+        Object[] scheduleArgs = repository.scheduleAuctionArgs(auction);
+        Object[] args = repository.createAuctionArgs(auction, eventId);
+        return repository.metrics().timeScript("schedule-auction", redisTemplate.execute(scheduleAuctionScript,
+                        repository.scheduleAuctionKeys(auction.auctionId()), Arrays.asList(scheduleArgs))
+                        .then())
+                .then(repository.metrics().timeScript("create-auction", redisTemplate.execute(createAuctionScript,
+                                repository.createAuctionKeys(auction.auctionId()), Arrays.asList(args))
+                        .then()));
+    }
+
+    public Mono<AuctionResponse> getAuction(String auctionId) {
+        return redisTemplate.<String, String>opsForHash()
+                .entries(AuctionKeys.auction(auctionId))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .filter(map -> !map.isEmpty())
+                .map(map -> AuctionRedisRepository.toAuction(auctionId, map));
+    }
+
+    public Mono<AuctionStore.PlaceBidResult> placeBid(String auctionId, String bidId, String bidderId,
+                                                                long amount, long nowEpochMs, String eventId) {
+        Object[] args = repository.placeBidArgs(auctionId, bidId, bidderId, amount, nowEpochMs, eventId);
+        return repository.metrics().timeScript("place-bid", scriptReply(redisTemplate.execute(placeBidScript,
+                        repository.placeBidKeys(auctionId, bidId, bidderId), Arrays.asList(args))))
+                .map(reply -> repository.countOutcome(AuctionRedisRepository.toPlaceBidResult(reply)));
+    }
+
+    public Mono<AuctionStore.PlaceBidResult> proxyBid(String auctionId, String bidId, String bidderId,
+                                                                long maxAmount, long nowEpochMs, String eventId) {
+        Object[] args = repository.placeBidArgs(auctionId, bidId, bidderId, maxAmount, nowEpochMs, eventId);
+        return repository.metrics().timeScript("proxy-bid", scriptReply(redisTemplate.execute(proxyBidScript,
+                        repository.placeBidKeys(auctionId, bidId, bidderId), Arrays.asList(args))))
+                .map(reply -> repository.countOutcome(AuctionRedisRepository.toPlaceBidResult(reply)));
+    }
+
+    /**
+     * Places many bids; Lettuce pipelines the concurrent script calls on the shared connection. Results are in the
+     * order of {@code bids}.
+     */
+    public Flux<AuctionStore.PlaceBidResult> placeBids(List<AuctionStore.BidCommand> bids,
+                                                                 long nowEpochMs) {
+        return Flux.fromIterable(bids)
+                .flatMapSequential(bid -> placeBid(bid.auctionId(), bid.bidId(), bid.bidderId(), bid.amount(),
+                        nowEpochMs, bid.eventId()));
+    }
+
+    public Mono<AuctionStore.CloseAuctionResult> closeAuction(String auctionId, long nowEpochMs,
+                                                                        String eventId) {
+        Object[] args = repository.closeAuctionArgs(auctionId, nowEpochMs, eventId);
+        return repository.metrics().timeScript("close-auction", scriptReply(redisTemplate.execute(closeAuctionScript,
+                        repository.closeAuctionKeys(auctionId), Arrays.asList(args))))
+                .map(AuctionRedisRepository::toCloseAuctionResult);
+    }
+
+    public Flux<BidResponse> listTopBids(String auctionId, int limit) {
+        Range<Long> range = Range.closed(0L, limit - 1L);
+        if (repository.bidStorageMode() == BidStorageMode.COMPACT) {
+            return redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(AuctionKeys.bids(auctionId), range)
+                    .mapNotNull(tuple -> AuctionRedisRepository.decodeCompactBid(auctionId, tuple));
+        }
+        // Lettuce pipelines the concurrent HMGETs on the shared connection; flatMapSequential keeps the ranking order.
+        return redisTemplate.opsForZSet()
+                .reverseRange(AuctionKeys.bids(auctionId), range)
+                .flatMapSequential(bidId -> redisTemplate.<String, String>opsForHash()
+                        .multiGet(AuctionKeys.bid(auctionId, bidId), AuctionRedisRepository.BID_FIELD_NAMES)
+                        .mapNotNull(fields -> AuctionRedisRepository.decodeBidFields(auctionId, bidId, fields)));
+    }
+
+    public boolean outboxEnabled() {
+        return repository.outboxEnabled();
+    }
+
+    // Depending on the driver a multi-bulk script reply arrives as one List or as one element per entry.
+    private static Mono<List<?>> scriptReply(Flux<?> reply) {
+        return reply.filter(Objects::nonNull)
+                .collectList()
+                .map(items -> items.size() == 1 && items.get(0) instanceof List<?> nested ? nested : items);
+    }
+}
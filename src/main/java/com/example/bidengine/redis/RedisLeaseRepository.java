@@ -0,0 +1,81 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.store.LeaseRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * {@link LeaseRepository} in Dragonfly. A lease is a key holding its owner's ID that expires with the lease; a group's
+ * members heartbeat into a sorted set scored by their expiry.
+ */
+@Repository
+@ConditionalOnProperty(name = "bidengine.store", havingValue = "redis", matchIfMissing = true)
+public class RedisLeaseRepository implements LeaseRepository {
+    private static final String ACQUIRE_SCRIPT = """
+            local owner = redis.call('GET', KEYS[1])
+            if owner == ARGV[1] then
+              redis.call('PEXPIRE', KEYS[1], ARGV[2])
+              return 1
+            end
+            if not owner then
+              redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+              return 1
+            end
+            return 0
+            """;
+
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    // KEYS: member set. ARGV: owner, now, ttl. Scores are heartbeat expiry times; expired members are dropped.
+    private static final String HEARTBEAT_SCRIPT = """
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2])
+            redis.call('ZADD', KEYS[1], tonumber(ARGV[2]) + tonumber(ARGV[3]), ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return redis.call('ZCARD', KEYS[1])
+            """;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final DefaultRedisScript<Long> acquireScript;
+    private final DefaultRedisScript<Long> releaseScript;
+    private final DefaultRedisScript<Long> heartbeatScript;
+
+    public RedisLeaseRepository(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.acquireScript = new DefaultRedisScript<>(ACQUIRE_SCRIPT, Long.class);
+        this.releaseScript = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+        this.heartbeatScript = new DefaultRedisScript<>(HEARTBEAT_SCRIPT, Long.class);
+    }
+
+    @Override
+    public boolean tryAcquire(String name, String owner, long ttlMs) {
+        Long acquired = redisTemplate.execute(acquireScript, List.of(AuctionKeys.lease(name)), owner,
+                String.valueOf(ttlMs));
+        return acquired != null && acquired == 1L;
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        redisTemplate.execute(releaseScript, List.of(AuctionKeys.lease(name)), owner);
+    }
+
+    @Override
+    public int heartbeat(String group, String owner, long ttlMs) {
+        Long members = redisTemplate.execute(heartbeatScript, List.of(AuctionKeys.members(group)), owner,
+                String.valueOf(System.currentTimeMillis()), String.valueOf(ttlMs));
+        return members == null ? 1 : members.intValue();
+    }
+
+    @Override
+    public void leave(String group, String owner) {
+        redisTemplate.opsForZSet().remove(AuctionKeys.members(group), owner);
+    }
+}
@@ -1,22 +1,122 @@
 package com.example.bidengine.service;
 
+import com.example.bidengine.config.NodeIdentity;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.LeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Closes expired auctions. The end-time index is split into shards; on every tick each instance refreshes its
+ * {@link ShardLeases}, holding at most its fair share of the shards, and only scans the shards it holds, so instances
+ * split the work instead of racing for it and an added instance takes shards over from the others.
+ * Owned shards are processed in parallel on virtual threads; each one claims and closes its expired auctions in
+ * batches of {@code close-batch-limit} with a single script call per batch. With the {@link AuctionCloseTimer}
+ * enabled the poll is only a reconcile pass: it also loads the shard's auctions ending within the timer horizon into
+ * the timer, which closes them at their end time.
+ */
 @Component
-public class AuctionAutoCloseScheduler {
+public class AuctionAutoCloseScheduler implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AuctionAutoCloseScheduler.class);
+    private static final String LEASE_GROUP = "auto-close";
+
     private final AuctionService auctionService;
+    private final ShardLeases leases;
+    private final AuctionCloseTimer closeTimer;
     private final int batchLimit;
+    private final long leaseMs;
+    private final AuctionMetrics metrics;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
     public AuctionAutoCloseScheduler(AuctionService auctionService,
-                                     @Value("${bidengine.scheduler.close-batch-limit:100}") int batchLimit) {
+                                     LeaseRepository leaseRepository,
+                                     AuctionCloseTimer closeTimer,
+                                     NodeIdentity nodeIdentity,
+                                     @Value("${bidengine.scheduler.close-batch-limit:100}") int batchLimit,
+                                     @Value("${bidengine.scheduler.lease-ms:5000}") long leaseMs,
+                                     AuctionMetrics metrics) {
         this.auctionService = auctionService;
+        this.leases = new ShardLeases(leaseRepository, LEASE_GROUP, auctionService.scheduleShards(), nodeIdentity.id(),
+                leaseMs);
+        this.closeTimer = closeTimer;
         this.batchLimit = batchLimit;
+        this.leaseMs = leaseMs;
+        this.metrics = metrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCloseTimer() {
+        closeTimer.start(auctionService::closeDueAuctions);
     }
 
     @Scheduled(fixedDelayString = "${bidengine.scheduler.close-delay-ms:1000}")
     public void closeExpiredAuctions() {
-        auctionService.autoCloseExpiredAuctions(batchLimit);
+        long start = System.nanoTime();
+        try {
+            closeOwnedShards(start + TimeUnit.MILLISECONDS.toNanos(leaseMs));
+        } finally {
+            metrics.autoCloseTick(start);
+        }
+    }
+
+    private void closeOwnedShards(long deadline) {
+        List<Future<?>> shardTasks = new ArrayList<>();
+        for (int shard : leases.refresh()) {
+            shardTasks.add(executor.submit(() -> closeShard(shard, deadline)));
+        }
+        for (Future<?> task : shardTasks) {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                log.warn("Auto-close did not finish within the {} ms lease", leaseMs);
+                return;
+            } catch (ExecutionException ex) {
+                log.warn("Auto-close of a shard failed", ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void closeShard(int shard, long deadlineNanos) {
+        int claimed;
+        do {
+            claimed = auctionService.autoCloseExpiredAuctions(shard, batchLimit);
+        } while (claimed >= batchLimit && System.nanoTime() < deadlineNanos);
+        if (closeTimer.enabled()) {
+            long until = System.currentTimeMillis() + closeTimer.horizonMs();
+            for (AuctionStore.ScheduledClose close
+                    : auctionService.listScheduledCloses(shard, until, closeTimer.loadLimit())) {
+                closeTimer.schedule(close.auctionId(), close.endTimeEpochMs());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        try {
+            leases.releaseAll();
+        } catch (DataAccessException ex) {
+            log.warn("Could not release auto-close leases; they expire after {} ms", leaseMs, ex);
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.example.bidengine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process close timer. Auctions ending within {@code horizon-ms} are kept in a {@link TimingWheel} and handed to
+ * the close handler as soon as their end time has passed (within one tick), instead of waiting for the next poll.
+ */
+@Component
+public class AuctionCloseTimer implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AuctionCloseTimer.class);
+
+    private final boolean enabled;
+    private final long horizonMs;
+    private final int loadLimit;
+    private final DelayQueue<TimingWheel.Bucket> queue = new DelayQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel wheel;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<List<String>> handler;
+    private volatile Thread driver;
+
+    public AuctionCloseTimer(@Value("${bidengine.scheduler.timer.enabled:true}") boolean enabled,
+                             @Value("${bidengine.scheduler.timer.tick-ms:10}") long tickMs,
+                             @Value("${bidengine.scheduler.timer.wheel-size:512}") int wheelSize,
+                             @Value("${bidengine.scheduler.timer.horizon-ms:60000}") long horizonMs,
+                             @Value("${bidengine.scheduler.timer.load-limit:10000}") int loadLimit) {
+        this.enabled = enabled;
+        this.horizonMs = horizonMs;
+        this.loadLimit = loadLimit;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), queue);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public long horizonMs() {
+        return horizonMs;
+    }
+
+    public int loadLimit() {
+        return loadLimit;
+    }
+
+    public synchronized void start(Consumer<List<String>> closeHandler) {
+        if (!enabled || driver != null) {
+            return;
+        }
+        this.handler = closeHandler;
+        this.driver = Thread.ofPlatform().name("auction-close-timer").daemon().start(this::run);
+    }
+
+    /**
+     * Schedules a close for {@code auctionId}; deadlines beyond the horizon are left to the reconcile poll.
+     */
+    public void schedule(String auctionId, long endTimeEpochMs) {
+        if (!enabled || endTimeEpochMs > System.currentTimeMillis() + horizonMs || !pending.add(auctionId)) {
+            return;
+        }
+        long tickMs = wheel.tickMs();
+        long dueMs = Math.ceilDiv(endTimeEpochMs, tickMs) * tickMs;
+        boolean added;
+        lock.lock();
+        try {
+            added = wheel.add(new TimingWheel.Entry(auctionId, endTimeEpochMs, dueMs));
+        } finally {
+            lock.unlock();
+        }
+        if (!added) {
+            fire(List.of(auctionId));
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimingWheel.Bucket bucket = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                List<String> due = new ArrayList<>();
+                lock.lock();
+                try {
+                    while (bucket != null) {
+                        wheel.advanceClock(bucket.expiration());
+                        bucket.flush(entry -> {
+                            if (!wheel.add(entry)) {
+                                due.add(entry.auctionId());
+                            }
+                        });
+                        bucket = queue.poll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!due.isEmpty()) {
+                    fire(due);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.warn("Auction close timer failed to fire", ex);
+            }
+        }
+    }
+
+    private void fire(List<String> auctionIds) {
+        auctionIds.forEach(pending::remove);
+        Consumer<List<String>> current = handler;
+        if (current != null) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    current.accept(auctionIds);
+                } catch (RuntimeException ex) {
+                    log.warn("Timer close of {} auctions failed; the reconcile poll will retry", auctionIds.size(), ex);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Thread current = driver;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+}
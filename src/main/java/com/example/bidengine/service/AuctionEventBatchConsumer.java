@@ -0,0 +1,77 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.persistence.AuctionProjectionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch variant of {@link AuctionEventConsumer}: one transaction per poll, bids written with a JDBC batch insert and
+ * auction rows upserted once per auction with the highest-{@code seq} state seen in the batch.
+ */
+@Component
+@ConditionalOnProperty(name = "bidengine.kafka.consumer.batch-enabled", havingValue = "true")
+public class AuctionEventBatchConsumer {
+    private final AuctionProjectionRepository projectionRepository;
+    private final AuctionMetrics metrics;
+
+    public AuctionEventBatchConsumer(AuctionProjectionRepository projectionRepository, AuctionMetrics metrics) {
+        this.projectionRepository = projectionRepository;
+        this.metrics = metrics;
+    }
+
+    @KafkaListener(topics = "${bidengine.kafka.topic}", batch = "true")
+    @Transactional
+    public void handle(List<AuctionEvent> events) {
+        long start = System.nanoTime();
+        Map<String, AuctionEvent> created = new LinkedHashMap<>();
+        List<AuctionEvent> bids = new ArrayList<>();
+        Map<String, AuctionEvent> highestBids = new LinkedHashMap<>();
+        Map<String, AuctionEvent> closed = new LinkedHashMap<>();
+        List<AuctionEvent> written = new ArrayList<>(events.size());
+        for (AuctionEvent event : events) {
+            if (event == null || event.eventType() == null || event.auctionId() == null) {
+                continue;
+            }
+            switch (event.eventType()) {
+                case "AUCTION_CREATED" -> created.put(event.auctionId(), event);
+                case "BID_PLACED" -> {
+                    bids.add(event);
+                    highestBids.merge(event.auctionId(), event, AuctionEventBatchConsumer::later);
+                }
+                case "AUCTION_CLOSED" -> closed.merge(event.auctionId(), event, AuctionEventBatchConsumer::later);
+                default -> {
+                    continue;
+                }
+            }
+            written.add(event);
+        }
+        projectionRepository.upsertAuctions(created.values());
+        projectionRepository.insertBids(bids);
+        projectionRepository.upsertHighestBids(highestBids.values());
+        projectionRepository.upsertClosedAuctions(closed.values());
+        metrics.consumerHandled("batch", start);
+        long writtenAt = System.currentTimeMillis();
+        for (AuctionEvent event : written) {
+            metrics.projectionLag(event.eventType(), event.occurredAtEpochMs(), writtenAt);
+        }
+    }
+
+    private static AuctionEvent later(AuctionEvent current, AuctionEvent candidate) {
+        if (current.seq() != null && candidate.seq() != null) {
+            return candidate.seq() >= current.seq() ? candidate : current;
+        }
+        if (current.amount() == null || candidate.amount() == null) {
+            return candidate;
+        }
+        return candidate.amount() >= current.amount() ? candidate : current;
+    }
+}
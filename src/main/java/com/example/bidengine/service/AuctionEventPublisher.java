@@ -0,0 +1,216 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.metrics.AuctionMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends auction events to Kafka. Batching, compression and ordering are producer settings
+ * ({@code spring.kafka.producer.*}: linger, batch size, zstd, idempotence); events are keyed by auction ID, so all
+ * events of an auction land on one partition in order. This component tracks the outcome of every send and applies
+ * backpressure once {@code max-in-flight} events await acknowledgement: {@link #awaitCapacity} waits up to
+ * {@code max-block-ms} for the count to drop and otherwise turns the request away, before its store call. An event
+ * whose change is committed is never dropped; {@link #publishUntilAcknowledged} retries it every
+ * {@code retry-backoff-ms}, keeping its slot, so a broker outage fills the cap and stops new writes.
+ * {@link #checkCapacity} does not wait, for the reactive path.
+ */
+@Component
+public class AuctionEventPublisher implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AuctionEventPublisher.class);
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 1000;
+
+    private final KafkaTemplate<String, AuctionEvent> kafkaTemplate;
+    private final String topic;
+    private final int maxInFlight;
+    private final long maxBlockMs;
+    private final long retryBackoffMs;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Callers blocked in awaitCapacity; releases only take the lock to wake them when there are any.
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private final ScheduledExecutorService retries;
+    private final AuctionMetrics metrics;
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AuctionEventPublisher(KafkaTemplate<String, AuctionEvent> kafkaTemplate, String topic, int maxInFlight,
+                                 long maxBlockMs) {
+        this(kafkaTemplate, topic, maxInFlight, maxBlockMs, DEFAULT_RETRY_BACKOFF_MS, AuctionMetrics.NONE);
+    }
+
+    @Autowired
+    public AuctionEventPublisher(KafkaTemplate<String, AuctionEvent> kafkaTemplate,
+                                 @Value("${bidengine.kafka.topic}") String topic,
+                                 @Value("${bidengine.kafka.publisher.max-in-flight:50000}") int maxInFlight,
+                                 @Value("${bidengine.kafka.publisher.max-block-ms:100}") long maxBlockMs,
+                                 @Value("${bidengine.kafka.publisher.retry-backoff-ms:1000}") long retryBackoffMs,
+                                 AuctionMetrics metrics) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.maxInFlight = maxInFlight;
+        this.maxBlockMs = maxBlockMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.metrics = metrics;
+        this.retries = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("auction-event-retry").daemon().factory());
+    }
+
+    /**
+     * Waits up to {@code max-block-ms} until fewer than {@code max-in-flight} events await acknowledgement. Call it
+     * before the store call whose events will be published.
+     *
+     * @throws EventBackpressureException if the count stays at the cap
+     */
+    public void awaitCapacity() {
+        if (inFlight.get() < maxInFlight) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBlockMs);
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            while (inFlight.get() >= maxInFlight) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                slotFreed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Like {@link #awaitCapacity}, but turns the request away at once instead of waiting, for callers on an event loop
+     * thread.
+     *
+     * @throws EventBackpressureException if {@code max-in-flight} events await acknowledgement
+     */
+    public void checkCapacity() {
+        if (inFlight.get() >= maxInFlight) {
+            throw reject();
+        }
+    }
+
+    /**
+     * Sends an event once, for callers that keep it until it is acknowledged and send it again themselves.
+     *
+     * @return completes when Kafka acknowledges the event, exceptionally if the send failed
+     */
+    public CompletableFuture<Void> publish(AuctionEvent event) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        send(event, outcome, false);
+        return outcome;
+    }
+
+    /**
+     * Sends an event whose change is committed, retrying every {@code retry-backoff-ms} until Kafka acknowledges it.
+     * It holds its slot until then.
+     *
+     * @return completes when Kafka acknowledges the event; exceptionally only if the publisher shut down first
+     */
+    public CompletableFuture<Void> publishUntilAcknowledged(AuctionEvent event) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        send(event, outcome, true);
+        return outcome;
+    }
+
+    public long acknowledgedCount() {
+        return acknowledged.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    private void send(AuctionEvent event, CompletableFuture<Void> outcome, boolean retry) {
+        long start = System.nanoTime();
+        try {
+            kafkaTemplate.send(topic, event.auctionId(), event).whenComplete((result, ex) -> {
+                metrics.kafkaSend(start, ex == null);
+                completed(event, outcome, retry, ex);
+            });
+        } catch (RuntimeException ex) {
+            completed(event, outcome, retry, ex);
+        }
+    }
+
+    private void completed(AuctionEvent event, CompletableFuture<Void> outcome, boolean retry, Throwable ex) {
+        if (ex == null) {
+            acknowledged.increment();
+            release();
+            outcome.complete(null);
+            return;
+        }
+        failed.increment();
+        if (retry) {
+            try {
+                retries.schedule(() -> send(event, outcome, true), retryBackoffMs, TimeUnit.MILLISECONDS);
+                log.warn("Failed to publish {} event of auction {}; retrying in {} ms",
+                        event.eventType(), event.auctionId(), retryBackoffMs, ex);
+                return;
+            } catch (RejectedExecutionException shutDown) {
+                log.error("Gave up on {} event {} of auction {}: shutting down",
+                        event.eventType(), event.eventId(), event.auctionId(), ex);
+            }
+        } else {
+            log.warn("Failed to publish {} event of auction {}", event.eventType(), event.auctionId(), ex);
+        }
+        release();
+        outcome.completeExceptionally(ex);
+    }
+
+    private void release() {
+        if (inFlight.decrementAndGet() < maxInFlight && waiting.get() > 0) {
+            lock.lock();
+            try {
+                slotFreed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private EventBackpressureException reject() {
+        rejected.increment();
+        return new EventBackpressureException(maxInFlight + " events await acknowledgement by Kafka");
+    }
+
+    @Override
+    public void destroy() {
+        retries.shutdownNow();
+    }
+}
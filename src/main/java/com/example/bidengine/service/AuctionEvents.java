@@ -0,0 +1,179 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BulkBidRequest;
+import com.example.bidengine.api.CloseAuctionResponse;
+import com.example.bidengine.api.CreateAuctionRequest;
+import com.example.bidengine.api.PlaceBidResponse;
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.id.IdGenerator;
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.store.AuctionStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Auction state and event construction shared by {@link AuctionService} and {@link ReactiveAuctionService}.
+ */
+final class AuctionEvents {
+    private AuctionEvents() {
+    }
+
+    static AuctionResponse newAuction(String auctionId, CreateAuctionRequest request, long now) {
+        if (request.endTimeEpochMs() <= request.startTimeEpochMs()) {
+            throw new IllegalArgumentException("endTimeEpochMs must be greater than startTimeEpochMs");
+        }
+        if (request.endTimeEpochMs() <= now) {
+            throw new IllegalArgumentException("endTimeEpochMs must be in the future");
+        }
+        return new AuctionResponse(
+                auctionId,
+                request.sellerId(),
+                request.title(),
+                request.description(),
+                "OPEN",
+                request.startingPrice(),
+                request.reservePrice(),
+                request.startTimeEpochMs(),
+                request.endTimeEpochMs(),
+                null,
+                null,
+                now,
+                now,
+                0
+        );
+    }
+
+    static AuctionEvent created(String eventId, AuctionResponse auction, long now) {
+        return new AuctionEvent(
+                eventId,
+                "AUCTION_CREATED",
+                auction.auctionId(),
+                now,
+                auction.sellerId(),
+                auction.title(),
+                auction.description(),
+                auction.startingPrice(),
+                auction.reservePrice(),
+                auction.startTimeEpochMs(),
+                auction.endTimeEpochMs(),
+                null,
+                null,
+                null,
+                auction.status(),
+                0L
+        );
+    }
+
+    static AuctionEvent bidPlaced(String eventId, String auctionId, String bidId, String bidderId, long amount,
+                                  long now, long seq) {
+        return new AuctionEvent(
+                eventId,
+                "BID_PLACED",
+                auctionId,
+                now,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                bidId,
+                bidderId,
+                amount,
+                "OPEN",
+                seq
+        );
+    }
+
+    /**
+     * One event per bid the store recorded; a proxy's answering bid gets {@link AuctionStore#proxyAnswerId}
+     * of the caller's event ID, matching its outbox entry.
+     */
+    static List<AuctionEvent> bidsPlaced(String eventId, String auctionId, String bidId,
+                                         AuctionStore.PlaceBidResult result, long now) {
+        List<AuctionEvent> events = new ArrayList<>(result.placed().size());
+        for (AuctionStore.PlacedBid placed : result.placed()) {
+            String placedEventId = placed.bidId().equals(bidId)
+                    ? eventId
+                    : AuctionStore.proxyAnswerId(eventId);
+            events.add(bidPlaced(placedEventId, auctionId, placed.bidId(), placed.bidderId(), placed.amount(), now,
+                    placed.seq()));
+        }
+        return events;
+    }
+
+    static List<AuctionStore.BidCommand> bidCommands(List<BulkBidRequest.Bid> bids, IdGenerator idGenerator) {
+        List<AuctionStore.BidCommand> commands = new ArrayList<>(bids.size());
+        for (BulkBidRequest.Bid bid : bids) {
+            commands.add(new AuctionStore.BidCommand(bid.auctionId(), idGenerator.nextId(), bid.bidderId(),
+                    bid.amount(), idGenerator.nextId()));
+        }
+        return commands;
+    }
+
+    static List<AuctionStore.BidCommand> aboveFloor(List<AuctionStore.BidCommand> commands,
+                                                              AuctionBidFloorCache bidFloorCache, long now) {
+        return commands.stream()
+                .filter(command -> !bidFloorCache.rejects(command.auctionId(), command.amount(), now))
+                .toList();
+    }
+
+    /**
+     * Results for all {@code commands} in order: the replies for the {@code sent} ones, {@code BELOW_HIGHEST} for
+     * the ones the bid floor rejected.
+     */
+    static List<AuctionStore.PlaceBidResult> resultsInOrder(
+            List<AuctionStore.BidCommand> commands, List<AuctionStore.BidCommand> sent,
+            List<AuctionStore.PlaceBidResult> replies) {
+        List<AuctionStore.PlaceBidResult> results = new ArrayList<>(commands.size());
+        int next = 0;
+        for (AuctionStore.BidCommand command : commands) {
+            results.add(next < sent.size() && sent.get(next) == command
+                    ? replies.get(next++)
+                    : AuctionStore.PlaceBidResult.error("BELOW_HIGHEST"));
+        }
+        return results;
+    }
+
+    static PlaceBidResponse bidResponse(String auctionId, String bidId, AuctionStore.PlaceBidResult result) {
+        if (!result.ok()) {
+            return new PlaceBidResponse(bidId, auctionId, result.errorCode(), null, null,
+                    result.retryAfterMs() > 0 ? result.retryAfterMs() : null);
+        }
+        return new PlaceBidResponse(bidId, auctionId, result.status(), result.highestBid(), result.highestBidderId());
+    }
+
+    static CloseAuctionResponse closeResponse(String auctionId, AuctionStore.CloseAuctionResult result) {
+        if (!result.ok()) {
+            return new CloseAuctionResponse(auctionId, result.errorCode(), null, null);
+        }
+        boolean sold = "CLOSED".equals(result.status());
+        return new CloseAuctionResponse(auctionId, result.status(),
+                sold ? result.highestBid() : null,
+                sold ? result.highestBidderId() : null);
+    }
+
+    static AuctionEvent closed(String eventId, CloseAuctionResponse response, long now, long seq) {
+        return new AuctionEvent(
+                eventId,
+                "AUCTION_CLOSED",
+                response.auctionId(),
+                now,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                response.winningBidderId(),
+                response.winningBid(),
+                response.status(),
+                seq
+        );
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.config.NodeIdentity;
+import com.example.bidengine.redis.AuctionOutboxRepository;
+import com.example.bidengine.redis.AuctionOutboxRepository.OutboxEntry;
+import com.example.bidengine.redis.AuctionOutboxRepository.SweepPage;
+import com.example.bidengine.redis.AuctionUpdateMessages;
+import com.example.bidengine.store.LeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the outbox streams to Kafka. The auctions of each shard are relayed by the one instance holding the shard's
+ * lease, which keeps the events of an auction in stream order; the live instances split the shards evenly (see
+ * {@link ShardLeases}). The relay learns which streams have entries from the auction IDs the scripts publish, and
+ * sweeps the registry of its shards, a page of {@code sweep-batch} auctions per shard every {@code sweep-ms} and every
+ * page at once when it takes a shard over, so an entry whose message was missed is still sent. A batch of up to
+ * {@code batch-size} entries is read in one pipeline and handed to the {@link AuctionEventPublisher} at once; per
+ * auction, the entries before the first one Kafka did not acknowledge are deleted, in one pipeline too, and the rest
+ * are sent again, in order. Delivery is therefore at least once, with stable event IDs; the projection writes are
+ * idempotent, so a redelivered event changes nothing. The embedded store writes no outbox, so the relay only runs on
+ * Dragonfly.
+ */
+@Component
+@ConditionalOnProperty(name = "bidengine.outbox.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "bidengine.store", havingValue = "redis", matchIfMissing = true)
+public class AuctionOutboxRelay implements MessageListener, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AuctionOutboxRelay.class);
+    private static final String LEASE_GROUP = "outbox";
+    // A registered auction that still does not exist after this long was never created.
+    private static final long ABANDONED_AFTER_MS = 60_000;
+
+    private final AuctionOutboxRepository outboxRepository;
+    private final AuctionEventPublisher eventPublisher;
+    private final ShardLeases leases;
+    private final int batchSize;
+    private final long blockMs;
+    private final long leaseMs;
+    private final long sweepMs;
+    private final int sweepBatch;
+    private final long sendTimeoutMs;
+    // Auction IDs published since the last batch, filtered by owned shard; drained into the relay thread's set.
+    private final Set<String> hinted = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    // Where the next sweep page of each owned shard starts, and the taken-over shards not fully swept yet.
+    private final Map<Integer, Long> sweepOffsets = new HashMap<>();
+    private final Set<Integer> catchingUp = new TreeSet<>();
+    private long leasesRenewedAt;
+    private long sweptAt;
+    private volatile Thread driver;
+
+    public AuctionOutboxRelay(AuctionOutboxRepository outboxRepository,
+                              AuctionEventPublisher eventPublisher,
+                              LeaseRepository leaseRepository,
+                              NodeIdentity nodeIdentity,
+                              @Value("${bidengine.outbox.batch-size:500}") int batchSize,
+                              @Value("${bidengine.outbox.block-ms:100}") long blockMs,
+                              @Value("${bidengine.outbox.lease-ms:10000}") long leaseMs,
+                              @Value("${bidengine.outbox.sweep-ms:5000}") long sweepMs,
+                              @Value("${bidengine.outbox.sweep-batch:1000}") int sweepBatch,
+                              @Value("${bidengine.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.leases = new ShardLeases(leaseRepository, LEASE_GROUP, outboxRepository.shards(), nodeIdentity.id(),
+                leaseMs);
+        this.batchSize = batchSize;
+        this.blockMs = blockMs;
+        this.leaseMs = leaseMs;
+        this.sweepMs = sweepMs;
+        this.sweepBatch = sweepBatch;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (driver == null) {
+            driver = Thread.ofPlatform().name("auction-outbox-relay").daemon().start(this::run);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String auctionId = AuctionUpdateMessages.auctionId(message);
+        if (leases.owned().contains(outboxRepository.shardOf(auctionId)) && hinted.add(auctionId)) {
+            Thread current = driver;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now - leasesRenewedAt >= leaseMs / 3) {
+                    renewLeases();
+                }
+                if (now - sweptAt >= sweepMs) {
+                    leases.owned().forEach(this::sweep);
+                    sweptAt = now;
+                }
+                catchingUp.removeIf(shard -> !sweep(shard));
+                if (relayOnce() > 0) {
+                    // Failed entries stay in their streams; back off instead of resending them in a tight loop.
+                    Thread.sleep(1000);
+                } else if (dirty.isEmpty() && hinted.isEmpty() && catchingUp.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(blockMs));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.warn("Outbox relay failed; retrying", ex);
+                sleepQuietly();
+            }
+        }
+    }
+
+    void renewLeases() {
+        Set<Integer> previous = leases.owned();
+        Set<Integer> owned = leases.refresh();
+        dirty.removeIf(auctionId -> !owned.contains(outboxRepository.shardOf(auctionId)));
+        sweepOffsets.keySet().retainAll(owned);
+        catchingUp.retainAll(owned);
+        for (int shard : owned) {
+            // The previous owner of a taken-over shard may have left entries unsent: sweep it from the start, a page
+            // per loop, until the pass is complete.
+            if (!previous.contains(shard)) {
+                sweepOffsets.put(shard, 0L);
+                if (sweep(shard)) {
+                    catchingUp.add(shard);
+                }
+            }
+        }
+        leasesRenewedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Sweeps the next page of {@code shard}'s registry.
+     *
+     * @return whether the pass over the registry continues with another page
+     */
+    boolean sweep(int shard) {
+        long abandonedBefore = System.currentTimeMillis() - ABANDONED_AFTER_MS;
+        SweepPage page = outboxRepository.sweep(shard, sweepOffsets.getOrDefault(shard, 0L), sweepBatch,
+                abandonedBefore);
+        dirty.addAll(page.pending());
+        sweepOffsets.put(shard, page.nextOffset());
+        return !page.last();
+    }
+
+    /**
+     * Relays one batch from the streams of the auctions known to have entries.
+     *
+     * @return the number of entries that could not be sent
+     */
+    int relayOnce() {
+        for (Iterator<String> it = hinted.iterator(); it.hasNext(); ) {
+            dirty.add(it.next());
+            it.remove();
+        }
+        List<String> auctionIds = dirty.stream().limit(batchSize).toList();
+        if (auctionIds.isEmpty()) {
+            return 0;
+        }
+        // An even share of the batch per auction; a longer stream is read again on a later batch.
+        int perAuction = Math.ceilDiv(batchSize, auctionIds.size());
+        Map<String, List<OutboxEntry>> entries = outboxRepository.read(auctionIds, perAuction);
+        List<OutboxEntry> batch = new ArrayList<>();
+        for (String auctionId : auctionIds) {
+            List<OutboxEntry> auctionEntries = entries.getOrDefault(auctionId, List.of());
+            if (auctionEntries.isEmpty()) {
+                dirty.remove(auctionId);
+            }
+            batch.addAll(auctionEntries);
+        }
+        return batch.isEmpty() ? 0 : relay(batch);
+    }
+
+    private int relay(List<OutboxEntry> batch) {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+        for (OutboxEntry entry : batch) {
+            sends.add(entry.event() == null
+                    ? CompletableFuture.completedFuture(null)
+                    : eventPublisher.publish(entry.event()));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        Map<String, List<String>> sent = new LinkedHashMap<>();
+        Set<String> stalled = new HashSet<>();
+        int failed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEntry entry = batch.get(i);
+            // Only the entries before an auction's first failure are deleted, so its events are resent in order.
+            if (!stalled.contains(entry.auctionId()) && awaitSent(sends.get(i), deadline)) {
+                sent.computeIfAbsent(entry.auctionId(), auctionId -> new ArrayList<>()).add(entry.id());
+            } else {
+                failed++;
+                stalled.add(entry.auctionId());
+            }
+        }
+        if (!sent.isEmpty()) {
+            List<String> left = outboxRepository.acknowledge(sent);
+            dirty.removeAll(sent.keySet());
+            // Entries left: queue the auctions behind the others, so a long stream does not starve them.
+            dirty.addAll(left);
+        }
+        return failed;
+    }
+
+    private static boolean awaitSent(CompletableFuture<Void> send, long deadlineNanos) {
+        try {
+            send.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Thread current = driver;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(blockMs + 1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            leases.releaseAll();
+        } catch (DataAccessException ex) {
+            log.warn("Could not release outbox leases; they expire after {} ms", leaseMs, ex);
+        }
+    }
+}
@@ -2,144 +2,193 @@ package com.example.bidengine.service;
 
 import com.example.bidengine.api.*;
 import com.example.bidengine.events.AuctionEvent;
-import com.example.bidengine.redis.AuctionRedisRepository;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.example.bidengine.id.IdGenerator;
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.redis.AuctionBidGroupCommitter;
+import com.example.bidengine.redis.AuctionSnapshotCache;
+import com.example.bidengine.store.AuctionStore;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Service
 public class AuctionService {
-    private final AuctionRedisRepository redisRepository;
-    private final KafkaTemplate<String, AuctionEvent> kafkaTemplate;
-    private final String topic;
+    private final AuctionStore store;
+    private final AuctionBidGroupCommitter groupCommitter;
+    private final AuctionEventPublisher eventPublisher;
+    private final AuctionCloseTimer closeTimer;
+    private final AuctionSnapshotCache snapshotCache;
+    private final AuctionBidFloorCache bidFloorCache;
+    private final IdGenerator idGenerator;
 
-    public AuctionService(AuctionRedisRepository redisRepository,
-                          KafkaTemplate<String, AuctionEvent> kafkaTemplate,
-                          @Value("${bidengine.kafka.topic}") String topic) {
-        this.redisRepository = redisRepository;
-        this.kafkaTemplate = kafkaTemplate;
-        this.topic = topic;
+    public AuctionService(AuctionStore store,
+                          AuctionBidGroupCommitter groupCommitter,
+                          AuctionEventPublisher eventPublisher,
+                          AuctionCloseTimer closeTimer,
+                          AuctionSnapshotCache snapshotCache,
+                          AuctionBidFloorCache bidFloorCache,
+                          IdGenerator idGenerator) {
+        this.store = store;
+        this.groupCommitter = groupCommitter;
+        this.eventPublisher = eventPublisher;
+        this.closeTimer = closeTimer;
+        this.snapshotCache = snapshotCache;
+        this.bidFloorCache = bidFloorCache;
+        this.idGenerator = idGenerator;
     }
 
     public AuctionResponse createAuction(CreateAuctionRequest request) {
         long now = Instant.now().toEpochMilli();
-        if (request.endTimeEpochMs() <= request.startTimeEpochMs()) {
-            throw new IllegalArgumentException("endTimeEpochMs must be greater than startTimeEpochMs");
-        }
-        if (request.endTimeEpochMs() <= now) {
-            throw new IllegalArgumentException("endTimeEpochMs must be in the future");
-        }
-        String auctionId = UUID.randomUUID().toString();
-        AuctionResponse auction = new AuctionResponse(
-                auctionId,
-                request.sellerId(),
-                request.title(),
-                request.description(),
-                "OPEN",
-                request.startingPrice(),
-                request.reservePrice(),
-                request.startTimeEpochMs(),
-                request.endTimeEpochMs(),
-                null,
-                null,
-                now,
-                now
-        );
-        redisRepository.createAuction(auction);
-        kafkaTemplate.send(topic, auctionId, new AuctionEvent(
-                UUID.randomUUID().toString(),
-                "AUCTION_CREATED",
-                auctionId,
-                now,
-                auction.sellerId(),
-                auction.title(),
-                auction.description(),
-                auction.startingPrice(),
-                auction.reservePrice(),
-                auction.startTimeEpochMs(),
-                auction.endTimeEpochMs(),
-                null,
-                null,
-                null,
-                auction.status()
-        ));
+        AuctionResponse auction = AuctionEvents.newAuction(idGenerator.nextId(), request, now);
+        String eventId = idGenerator.nextId();
+        awaitPublisher();
+        store.createAuction(auction, eventId);
+        bidFloorCache.track(auction);
+        closeTimer.schedule(auction.auctionId(), auction.endTimeEpochMs());
+        publish(AuctionEvents.created(eventId, auction, now));
         return auction;
     }
 
     public AuctionResponse getAuction(String auctionId) {
-        return redisRepository.getAuction(auctionId);
+        AuctionResponse auction = snapshotCache.get(auctionId, store::getAuction);
+        bidFloorCache.track(auction);
+        return auction;
+    }
+
+    /**
+     * Reads the auction from the store, bypassing the snapshot cache.
+     */
+    public AuctionResponse readAuction(String auctionId) {
+        return store.getAuction(auctionId);
     }
 
     public PlaceBidResponse placeBid(String auctionId, PlaceBidRequest request) {
-        String bidId = UUID.randomUUID().toString();
+        String bidId = idGenerator.nextId();
         long now = Instant.now().toEpochMilli();
-        var result = redisRepository.placeBid(auctionId, bidId, request.bidderId(), request.amount(), now);
-        if (!result.ok()) {
-            return new PlaceBidResponse(bidId, auctionId, result.errorCode(), null, null);
+        if (bidFloorCache.rejects(auctionId, request.amount(), now)) {
+            return AuctionEvents.bidResponse(auctionId, bidId,
+                    AuctionStore.PlaceBidResult.error("BELOW_HIGHEST"));
         }
-        kafkaTemplate.send(topic, auctionId, new AuctionEvent(
-                UUID.randomUUID().toString(),
-                "BID_PLACED",
-                auctionId,
-                now,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                bidId,
-                request.bidderId(),
-                request.amount(),
-                "OPEN"
-        ));
-        return new PlaceBidResponse(bidId, auctionId, "OK", result.highestBid(), result.highestBidderId());
+        String eventId = idGenerator.nextId();
+        awaitPublisher();
+        var result = groupCommitter.placeBid(new AuctionStore.BidCommand(auctionId, bidId, request.bidderId(),
+                request.amount(), eventId), now);
+        bidFloorCache.raise(auctionId, result.highestBid());
+        AuctionEvents.bidsPlaced(eventId, auctionId, bidId, result, now).forEach(this::publish);
+        return AuctionEvents.bidResponse(auctionId, bidId, result);
     }
 
-    public CloseAuctionResponse closeAuction(String auctionId) {
+    /**
+     * Registers the bidder's maximum; the store bids for it up to that amount. A bidding war against another proxy
+     * is resolved in the same store call.
+     */
+    public PlaceBidResponse proxyBid(String auctionId, ProxyBidRequest request) {
+        String bidId = idGenerator.nextId();
+        String eventId = idGenerator.nextId();
+        awaitPublisher();
         long now = Instant.now().toEpochMilli();
-        var result = redisRepository.closeAuction(auctionId, now);
-        if (!result.ok()) {
-            return new CloseAuctionResponse(auctionId, result.errorCode(), null, null);
+        var result = store.proxyBid(auctionId, bidId, request.bidderId(), request.maxAmount(), now, eventId);
+        bidFloorCache.raise(auctionId, result.highestBid());
+        AuctionEvents.bidsPlaced(eventId, auctionId, bidId, result, now).forEach(this::publish);
+        return AuctionEvents.bidResponse(auctionId, bidId, result);
+    }
+
+    /**
+     * Places bids on any number of auctions with one store call (one pipelined round trip on Dragonfly); bids at or
+     * below the local bid floor are rejected without being sent. The resulting events are sent back to back, so they
+     * share producer batches.
+     */
+    public List<PlaceBidResponse> placeBids(List<BulkBidRequest.Bid> bids) {
+        awaitPublisher();
+        long now = Instant.now().toEpochMilli();
+        List<AuctionStore.BidCommand> commands = AuctionEvents.bidCommands(bids, idGenerator);
+        List<AuctionStore.BidCommand> sent = AuctionEvents.aboveFloor(commands, bidFloorCache, now);
+        List<AuctionStore.PlaceBidResult> results = AuctionEvents.resultsInOrder(commands, sent,
+                store.placeBids(sent, now));
+        List<PlaceBidResponse> responses = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            AuctionStore.BidCommand command = commands.get(i);
+            AuctionStore.PlaceBidResult result = results.get(i);
+            bidFloorCache.raise(command.auctionId(), result.highestBid());
+            AuctionEvents.bidsPlaced(command.eventId(), command.auctionId(), command.bidId(), result, now)
+                    .forEach(this::publish);
+            responses.add(AuctionEvents.bidResponse(command.auctionId(), command.bidId(), result));
         }
-        String status = result.status();
-        Long winningBid = "CLOSED".equals(status) ? result.highestBid() : null;
-        String winningBidderId = "CLOSED".equals(status) ? result.highestBidderId() : null;
-        kafkaTemplate.send(topic, auctionId, new AuctionEvent(
-                UUID.randomUUID().toString(),
-                "AUCTION_CLOSED",
-                auctionId,
-                now,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                winningBidderId,
-                winningBid,
-                status
-        ));
-        return new CloseAuctionResponse(auctionId, status, winningBid, winningBidderId);
+        return responses;
+    }
+
+    public CloseAuctionResponse closeAuction(String auctionId) {
+        awaitPublisher();
+        long now = Instant.now().toEpochMilli();
+        String eventId = idGenerator.nextId();
+        var result = store.closeAuction(auctionId, now, eventId);
+        return publishClosed(auctionId, now, result, eventId);
     }
 
     public List<BidResponse> listTopBids(String auctionId, int limit) {
-        return redisRepository.listTopBids(auctionId, limit);
+        return store.listTopBids(auctionId, limit);
+    }
+
+    public int scheduleShards() {
+        return store.scheduleShards();
     }
 
-    public void autoCloseExpiredAuctions(int limit) {
+    public int autoCloseExpiredAuctions(int shard, int limit) {
+        awaitPublisher();
         long now = Instant.now().toEpochMilli();
-        List<String> expired = redisRepository.listAuctionsEndingBefore(now, limit);
-        for (String auctionId : expired) {
-            closeAuction(auctionId);
-            redisRepository.removeFromSchedule(auctionId);
+        List<AuctionStore.ClosedAuction> closed = store.closeExpiredAuctions(shard, now, limit,
+                idGenerator::nextId);
+        for (AuctionStore.ClosedAuction auction : closed) {
+            publishClosed(auction.auctionId(), now, auction.result(), idGenerator.nextId());
+        }
+        return closed.size();
+    }
+
+    public void closeDueAuctions(List<String> auctionIds) {
+        awaitPublisher();
+        long now = Instant.now().toEpochMilli();
+        Map<Integer, List<String>> byShard = new HashMap<>();
+        for (String auctionId : auctionIds) {
+            byShard.computeIfAbsent(store.shardOf(auctionId), shard -> new ArrayList<>()).add(auctionId);
+        }
+        byShard.forEach((shard, candidates) -> {
+            for (AuctionStore.ClosedAuction auction
+                    : store.claimAndCloseAuctions(shard, now, candidates, idGenerator::nextId)) {
+                publishClosed(auction.auctionId(), now, auction.result(), idGenerator.nextId());
+            }
+        });
+    }
+
+    public List<AuctionStore.ScheduledClose> listScheduledCloses(int shard, long untilEpochMs, int limit) {
+        return store.listScheduledCloses(shard, untilEpochMs, limit);
+    }
+
+    private CloseAuctionResponse publishClosed(String auctionId, long now,
+                                               AuctionStore.CloseAuctionResult result, String eventId) {
+        CloseAuctionResponse response = AuctionEvents.closeResponse(auctionId, result);
+        if (result.ok()) {
+            publish(AuctionEvents.closed(eventId, response, now, result.seq()));
+        }
+        return response;
+    }
+
+    // Without the outbox an event exists only in memory until Kafka has it: a change is made only while the publisher
+    // has room for its events, and a committed event is sent until it is acknowledged. Due auctions left open here are
+    // closed on a later round.
+    private void awaitPublisher() {
+        if (!store.outboxEnabled()) {
+            eventPublisher.awaitCapacity();
+        }
+    }
+
+    // With the outbox enabled the store already appended the event; AuctionOutboxRelay sends it.
+    private void publish(AuctionEvent event) {
+        if (!store.outboxEnabled()) {
+            eventPublisher.publishUntilAcknowledged(event);
         }
     }
 }
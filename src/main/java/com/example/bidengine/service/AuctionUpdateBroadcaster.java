@@ -0,0 +1,140 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.api.AuctionUpdate;
+import com.example.bidengine.redis.AuctionUpdateMessages;
+import com.example.bidengine.store.AuctionUpdateListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fans auction updates from the node's single {@code auction:updates} subscription, or from the embedded store, out
+ * to stream subscribers.
+ * Updates are coalesced per auction: every {@code coalesce-ms} each subscriber receives only the latest one, so a
+ * burst of bids costs one event per subscriber and window. Each delivery runs on its own virtual thread, so a slow
+ * client does not hold up the others; per-subscriber {@code seq} checks drop anything older than what was already sent.
+ */
+@Component
+public class AuctionUpdateBroadcaster implements MessageListener, AuctionUpdateListener, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AuctionUpdateBroadcaster.class);
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, AuctionUpdate> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService delivery = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AuctionUpdateBroadcaster(@Value("${bidengine.stream.coalesce-ms:100}") long coalesceMs) {
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("auction-update-flusher").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers {@code listener} for updates of {@code auctionId}. Read the initial state after this returns and hand
+     * it to {@link Subscription#offer}: updates are dropped while an auction has no subscriber, so a change between
+     * reading the state and subscribing would otherwise never reach the client.
+     */
+    public Subscription subscribe(String auctionId, Consumer<AuctionUpdate> listener) {
+        Subscription subscription = new Subscription(auctionId, listener);
+        subscriptions.compute(auctionId, (id, subscribers) -> {
+            Set<Subscription> updated = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            updated.add(subscription);
+            return updated;
+        });
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        AuctionUpdate update = AuctionUpdateMessages.parse(message);
+        if (update != null) {
+            onAuctionUpdate(update);
+        }
+    }
+
+    @Override
+    public void onAuctionUpdate(AuctionUpdate update) {
+        if (!subscriptions.containsKey(update.auctionId())) {
+            return;
+        }
+        pending.merge(update.auctionId(), update, (current, candidate) -> candidate.seq() > current.seq()
+                ? candidate
+                : current);
+    }
+
+    void flush() {
+        for (String auctionId : pending.keySet()) {
+            AuctionUpdate update = pending.remove(auctionId);
+            Set<Subscription> subscribers = subscriptions.get(auctionId);
+            if (update == null || subscribers == null) {
+                continue;
+            }
+            for (Subscription subscription : subscribers) {
+                delivery.execute(() -> subscription.deliver(update));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        delivery.shutdownNow();
+    }
+
+    public final class Subscription {
+        private final String auctionId;
+        private final Consumer<AuctionUpdate> listener;
+        private long lastSeq = -1L;
+        private volatile boolean cancelled;
+
+        private Subscription(String auctionId, Consumer<AuctionUpdate> listener) {
+            this.auctionId = auctionId;
+            this.listener = listener;
+        }
+
+        private synchronized void deliver(AuctionUpdate update) {
+            if (cancelled || update.seq() <= lastSeq) {
+                return;
+            }
+            lastSeq = update.seq();
+            try {
+                listener.accept(update);
+            } catch (RuntimeException ex) {
+                log.debug("Dropping stream subscriber of auction {}", auctionId, ex);
+                cancel();
+            }
+        }
+
+        /**
+         * Delivers {@code update}, typically the initial state, unless a newer update has already been delivered.
+         */
+        public void offer(AuctionUpdate update) {
+            deliver(update);
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.computeIfPresent(auctionId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bidengine.service;
+
+/**
+ * Thrown before a store call when too many events await acknowledgement by Kafka: the request is turned away rather
+ * than committing a change whose event could not be sent.
+ */
+public class EventBackpressureException extends RuntimeException {
+    public EventBackpressureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.api.BulkBidRequest;
+import com.example.bidengine.api.CloseAuctionResponse;
+import com.example.bidengine.api.CreateAuctionRequest;
+import com.example.bidengine.api.PlaceBidRequest;
+import com.example.bidengine.api.PlaceBidResponse;
+import com.example.bidengine.api.ProxyBidRequest;
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.id.IdGenerator;
+import com.example.bidengine.redis.AuctionBidFloorCache;
+import com.example.bidengine.redis.AuctionSnapshotCache;
+import com.example.bidengine.redis.ReactiveAuctionRedisRepository;
+import com.example.bidengine.store.AuctionStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AuctionService} for the WebFlux API. Same validation, scripts and events, but every Dragonfly call is
+ * non-blocking. Without the outbox, a request is turned away with {@link EventBackpressureException} before its
+ * script when the publisher is at its in-flight cap, and its events are handed to the producer on a bounded elastic
+ * thread: {@code KafkaTemplate.send} can block for up to {@code max.block.ms}, which the event loop must not. Like the
+ * blocking service it answers once the events are handed over, without waiting for the Kafka acknowledgement.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuctionService {
+    private final ReactiveAuctionRedisRepository redisRepository;
+    private final AuctionEventPublisher eventPublisher;
+    private final AuctionCloseTimer closeTimer;
+    private final AuctionSnapshotCache snapshotCache;
+    private final AuctionBidFloorCache bidFloorCache;
+    private final IdGenerator idGenerator;
+
+    public ReactiveAuctionService(ReactiveAuctionRedisRepository redisRepository,
+                                  AuctionEventPublisher eventPublisher,
+                                  AuctionCloseTimer closeTimer,
+                                  AuctionSnapshotCache snapshotCache,
+                                  AuctionBidFloorCache bidFloorCache,
+                                  IdGenerator idGenerator) {
+        this.redisRepository = redisRepository;
+        this.eventPublisher = eventPublisher;
+        this.closeTimer = closeTimer;
+        this.snapshotCache = snapshotCache;
+        this.bidFloorCache = bidFloorCache;
+        this.idGenerator = idGenerator;
+    }
+
+    public Mono<AuctionResponse> createAuction(CreateAuctionRequest request) {
+        return Mono.defer(() -> {
+            long now = Instant.now().toEpochMilli();
+            AuctionResponse auction = AuctionEvents.newAuction(idGenerator.nextId(), request, now);
+            String eventId = idGenerator.nextId();
+            return checkCapacity()
+                    .then(redisRepository.createAuction(auction, eventId))
+                    .then(Mono.defer(() -> {
+                        bidFloorCache.track(auction);
+                        closeTimer.schedule(auction.auctionId(), auction.endTimeEpochMs());
+                        return publish(List.of(AuctionEvents.created(eventId, auction, now)));
+                    }))
+                    .thenReturn(auction);
+        });
+    }
+
+    public Mono<AuctionResponse> getAuction(String auctionId) {
+        return Mono.fromFuture(() -> snapshotCache.getAsync(auctionId,
+                key -> redisRepository.getAuction(key).toFuture()))
+                .doOnNext(bidFloorCache::track);
+    }
+
+    /**
+     * Reads the auction from Dragonfly, bypassing the snapshot cache.
+     */
+    public Mono<AuctionResponse> readAuction(String auctionId) {
+        return redisRepository.getAuction(auctionId);
+    }
+
+    public Mono<PlaceBidResponse> placeBid(String auctionId, PlaceBidRequest request) {
+        return Mono.defer(() -> {
+            String bidId = idGenerator.nextId();
+            long now = Instant.now().toEpochMilli();
+            if (bidFloorCache.rejects(auctionId, request.amount(), now)) {
+                return Mono.just(AuctionEvents.bidResponse(auctionId, bidId,
+                        AuctionStore.PlaceBidResult.error("BELOW_HIGHEST")));
+            }
+            String eventId = idGenerator.nextId();
+            return checkCapacity()
+                    .then(redisRepository.placeBid(auctionId, bidId, request.bidderId(), request.amount(), now,
+                            eventId))
+                    .flatMap(result -> {
+                        bidFloorCache.raise(auctionId, result.highestBid());
+                        return publish(AuctionEvents.bidsPlaced(eventId, auctionId, bidId, result, now))
+                                .thenReturn(AuctionEvents.bidResponse(auctionId, bidId, result));
+                    });
+        });
+    }
+
+    public Mono<PlaceBidResponse> proxyBid(String auctionId, ProxyBidRequest request) {
+        return Mono.defer(() -> {
+            String bidId = idGenerator.nextId();
+            String eventId = idGenerator.nextId();
+            long now = Instant.now().toEpochMilli();
+            return checkCapacity()
+                    .then(redisRepository.proxyBid(auctionId, bidId, request.bidderId(), request.maxAmount(), now,
+                            eventId))
+                    .flatMap(result -> {
+                        bidFloorCache.raise(auctionId, result.highestBid());
+                        return publish(AuctionEvents.bidsPlaced(eventId, auctionId, bidId, result, now))
+                                .thenReturn(AuctionEvents.bidResponse(auctionId, bidId, result));
+                    });
+        });
+    }
+
+    public Flux<PlaceBidResponse> placeBids(List<BulkBidRequest.Bid> bids) {
+        return Flux.defer(() -> {
+            long now = Instant.now().toEpochMilli();
+            List<AuctionStore.BidCommand> commands = AuctionEvents.bidCommands(bids, idGenerator);
+            List<AuctionStore.BidCommand> sent = AuctionEvents.aboveFloor(commands, bidFloorCache, now);
+            return checkCapacity()
+                    .thenMany(redisRepository.placeBids(sent, now))
+                    .collectList()
+                    .flatMapMany(replies -> {
+                        List<AuctionStore.PlaceBidResult> results = AuctionEvents.resultsInOrder(commands, sent,
+                                replies);
+                        List<AuctionEvent> events = new ArrayList<>();
+                        List<PlaceBidResponse> responses = new ArrayList<>(commands.size());
+                        for (int i = 0; i < commands.size(); i++) {
+                            AuctionStore.BidCommand command = commands.get(i);
+                            AuctionStore.PlaceBidResult result = results.get(i);
+                            bidFloorCache.raise(command.auctionId(), result.highestBid());
+                            events.addAll(AuctionEvents.bidsPlaced(command.eventId(), command.auctionId(),
+                                    command.bidId(), result, now));
+                            responses.add(AuctionEvents.bidResponse(command.auctionId(), command.bidId(), result));
+                        }
+                        return publish(events).thenMany(Flux.fromIterable(responses));
+                    });
+        });
+    }
+
+    public Mono<CloseAuctionResponse> closeAuction(String auctionId) {
+        return Mono.defer(() -> {
+            long now = Instant.now().toEpochMilli();
+            String eventId = idGenerator.nextId();
+            return checkCapacity()
+                    .then(redisRepository.closeAuction(auctionId, now, eventId))
+                    .flatMap(result -> {
+                        CloseAuctionResponse response = AuctionEvents.closeResponse(auctionId, result);
+                        return result.ok()
+                                ? publish(List.of(AuctionEvents.closed(eventId, response, now, result.seq())))
+                                        .thenReturn(response)
+                                : Mono.just(response);
+                    });
+        });
+    }
+
+    public Flux<BidResponse> listTopBids(String auctionId, int limit) {
+        return redisRepository.listTopBids(auctionId, limit);
+    }
+
+    // Runs on the event loop, so it never waits for an in-flight slot.
+    private Mono<Void> checkCapacity() {
+        return redisRepository.outboxEnabled() ? Mono.empty() : Mono.fromRunnable(eventPublisher::checkCapacity);
+    }
+
+    // With the outbox enabled the script already appended the events; AuctionOutboxRelay sends them.
+    private Mono<Void> publish(List<AuctionEvent> events) {
+        if (redisRepository.outboxEnabled() || events.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> events.forEach(eventPublisher::publishUntilAcknowledged))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.store.LeaseRepository;
+
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The shards of one lease group that this instance holds. On every refresh the instance heartbeats into the group
+ * and holds at most its fair share, {@code ceil(shards / live instances)}: it renews its shards up to the share,
+ * releases the rest, and then takes free or expired leases until it has the share. A started instance therefore gets
+ * shards once the others refresh and release their surplus, and the shards of a dead instance are taken over once its
+ * heartbeat and leases expire. Each instance starts looking for free shards at its own offset, so they rarely race
+ * for the same lease. Refreshed by one thread; {@link #owned} may be read from any thread.
+ */
+final class ShardLeases {
+    private final LeaseRepository leaseRepository;
+    private final String group;
+    private final int shards;
+    private final String owner;
+    private final long leaseMs;
+    private final int firstShard;
+    private volatile Set<Integer> owned = Set.of();
+
+    ShardLeases(LeaseRepository leaseRepository, String group, int shards, String owner, long leaseMs) {
+        this.leaseRepository = leaseRepository;
+        this.group = group;
+        this.shards = shards;
+        this.owner = owner;
+        this.leaseMs = leaseMs;
+        this.firstShard = Math.floorMod(owner.hashCode(), Math.max(1, shards));
+    }
+
+    /**
+     * @return the shards held until the next refresh, in ascending order
+     */
+    Set<Integer> refresh() {
+        int live = Math.max(1, leaseRepository.heartbeat(group, owner, leaseMs));
+        int share = (shards + live - 1) / live;
+        Set<Integer> held = new TreeSet<>();
+        for (int shard : owned) {
+            if (held.size() < share && leaseRepository.tryAcquire(leaseName(shard), owner, leaseMs)) {
+                held.add(shard);
+            } else if (held.size() >= share) {
+                leaseRepository.release(leaseName(shard), owner);
+            }
+        }
+        for (int i = 0; i < shards && held.size() < share; i++) {
+            int shard = (firstShard + i) % shards;
+            if (!owned.contains(shard) && leaseRepository.tryAcquire(leaseName(shard), owner, leaseMs)) {
+                held.add(shard);
+            }
+        }
+        owned = Collections.unmodifiableSet(held);
+        return owned;
+    }
+
+    Set<Integer> owned() {
+        return owned;
+    }
+
+    /**
+     * Releases every shard's lease still held by this instance and leaves the group.
+     */
+    void releaseAll() {
+        for (int shard = 0; shard < shards; shard++) {
+            leaseRepository.release(leaseName(shard), owner);
+        }
+        leaseRepository.leave(group, owner);
+        owned = Set.of();
+    }
+
+    private String leaseName(int shard) {
+        return group + ":" + shard;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bidengine.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (the Kafka purgatory design). Each level has {@code wheelSize} buckets of
+ * {@code tickMs}; deadlines beyond a level's range go to an overflow level whose tick is the whole range of the level
+ * below. Non-empty buckets are put on a shared {@link DelayQueue}, so the driver sleeps until the next bucket is due
+ * instead of ticking through empty ones. Entries are due at their deadline rounded up to the next tick, never before.
+ * Not thread-safe; callers serialize access.
+ */
+final class TimingWheel {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final Bucket[] buckets;
+    private final DelayQueue<Bucket> queue;
+    private long currentTime;
+    private TimingWheel overflow;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<Bucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * @return {@code false} if the entry is already due and must be handled by the caller right away
+     */
+    boolean add(Entry entry) {
+        long expiration = entry.dueMs();
+        if (expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.entries.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel(interval, wheelSize, currentTime, queue);
+        }
+        return overflow.add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+
+    long tickMs() {
+        return tickMs;
+    }
+
+    record Entry(String auctionId, long deadlineMs, long dueMs) {
+    }
+
+    static final class Bucket implements Delayed {
+        private final List<Entry> entries = new ArrayList<>();
+        // Written under the wheel's lock but read by the DelayQueue's ordering on other threads, as in Kafka's
+        // TimerTaskList.
+        private final AtomicLong expiration = new AtomicLong(-1L);
+
+        private boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long expiration() {
+            return expiration.get();
+        }
+
+        void flush(Consumer<Entry> sink) {
+            List<Entry> drained = new ArrayList<>(entries);
+            entries.clear();
+            expiration.set(-1L);
+            drained.forEach(sink);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiration.get() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration.get(), ((Bucket) other).expiration.get());
+        }
+    }
+}
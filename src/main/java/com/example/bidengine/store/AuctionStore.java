@@ -0,0 +1,123 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Primary store of auctions and bids. {@code AuctionRedisRepository} keeps them in Dragonfly and evaluates bids with
+ * Lua scripts; {@link EmbeddedAuctionStore} keeps them in the JVM and evaluates the same rules in Java. Every bid and
+ * close is atomic per auction, and auction end times are indexed in {@link #scheduleShards()} shards for the
+ * auto-close scheduler.
+ */
+public interface AuctionStore {
+
+    void createAuction(AuctionResponse auction, String eventId);
+
+    AuctionResponse getAuction(String auctionId);
+
+    PlaceBidResult placeBid(String auctionId, String bidId, String bidderId, long amount, long nowEpochMs,
+                            String eventId);
+
+    /**
+     * Registers {@code maxAmount} as the bidder's maximum. The store bids on the bidder's behalf, one increment above
+     * the competition, up to that maximum; a competing maximum is resolved in the same call.
+     */
+    PlaceBidResult proxyBid(String auctionId, String bidId, String bidderId, long maxAmount, long nowEpochMs,
+                            String eventId);
+
+    /**
+     * Places bids on any number of auctions. Bids on the same auction keep their relative order; results are in the
+     * order of {@code bids}.
+     */
+    List<PlaceBidResult> placeBids(List<BidCommand> bids, long nowEpochMs);
+
+    /**
+     * Places bids on one auction in one atomic step. The bids are evaluated in list order, each as {@link #placeBid}
+     * would at its own {@code nowEpochMs}; results are in the same order.
+     */
+    List<PlaceBidResult> placeAuctionBids(String auctionId, List<TimedBid> bids);
+
+    CloseAuctionResult closeAuction(String auctionId, long nowEpochMs, String eventId);
+
+    List<ClosedAuction> closeExpiredAuctions(int shard, long nowEpochMs, int limit, Supplier<String> eventIds);
+
+    /**
+     * Closes the candidates whose end time has passed and that are still in the shard's end-time index, removing
+     * them from it, so concurrent callers never close the same auction twice.
+     *
+     * @param eventIds supplies one event ID per candidate, used for the outbox entry if the candidate gets closed
+     */
+    List<ClosedAuction> claimAndCloseAuctions(int shard, long nowEpochMs, List<String> candidates,
+                                              Supplier<String> eventIds);
+
+    List<BidResponse> listTopBids(String auctionId, int limit);
+
+    int scheduleShards();
+
+    int shardOf(String auctionId);
+
+    List<ScheduledClose> listScheduledCloses(int shard, long untilEpochMs, int limit);
+
+    /**
+     * @return whether the store appends every event to an outbox itself, so callers must not send them
+     */
+    boolean outboxEnabled();
+
+    /**
+     * ID of the bid (or its event) a standing proxy places in answer to the bid (or event) with the given ID.
+     */
+    static String proxyAnswerId(String id) {
+        return id + "-proxy";
+    }
+
+    record BidCommand(String auctionId, String bidId, String bidderId, long amount, String eventId) {
+    }
+
+    record TimedBid(BidCommand command, long nowEpochMs) {
+    }
+
+    /**
+     * @param status {@code OK} if the caller leads, {@code OUTBID} if its bid was recorded but a standing proxy
+     *               answered it
+     * @param placed every bid the call recorded, in order, including the answers of a proxy
+     * @param retryAfterMs for {@code RATE_LIMITED}, how long until the bid would get a token
+     */
+    record PlaceBidResult(boolean ok, String status, String errorCode, Long highestBid, String highestBidderId,
+                          long seq, List<PlacedBid> placed, long retryAfterMs) {
+        public static PlaceBidResult success(String status, Long highestBid, String highestBidderId, long seq,
+                                             List<PlacedBid> placed) {
+            return new PlaceBidResult(true, status, null, highestBid, highestBidderId, seq, placed, 0L);
+        }
+
+        public static PlaceBidResult error(String code) {
+            return new PlaceBidResult(false, null, code, null, null, 0L, List.of(), 0L);
+        }
+
+        public static PlaceBidResult rateLimited(long retryAfterMs) {
+            return new PlaceBidResult(false, null, "RATE_LIMITED", null, null, 0L, List.of(), retryAfterMs);
+        }
+    }
+
+    record PlacedBid(String bidId, String bidderId, long amount, long seq) {
+    }
+
+    record ScheduledClose(String auctionId, long endTimeEpochMs) {
+    }
+
+    record ClosedAuction(String auctionId, long endTimeEpochMs, CloseAuctionResult result) {
+    }
+
+    record CloseAuctionResult(boolean ok, String status, String errorCode, Long highestBid,
+                              String highestBidderId, long seq) {
+        public static CloseAuctionResult success(String status, Long highestBid, String highestBidderId, long seq) {
+            return new CloseAuctionResult(true, status, null, highestBid, highestBidderId, seq);
+        }
+
+        public static CloseAuctionResult error(String code) {
+            return new CloseAuctionResult(false, null, code, null, null, 0L);
+        }
+    }
+}
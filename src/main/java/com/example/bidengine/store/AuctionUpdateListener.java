@@ -0,0 +1,14 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.AuctionUpdate;
+
+/**
+ * Receives the update that follows every bid and close of an {@link AuctionStore}. On Dragonfly the scripts publish
+ * it on {@code auction:updates}; {@link EmbeddedAuctionStore} hands it to its listeners directly, on the calling
+ * thread, once the auction's lock is released. Updates of one auction may arrive out of order; the higher
+ * {@code seq} is the newer one.
+ */
+public interface AuctionUpdateListener {
+
+    void onAuctionUpdate(AuctionUpdate update);
+}
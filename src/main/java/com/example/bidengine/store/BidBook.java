@@ -0,0 +1,126 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.BidResponse;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The top bids of one auction as a ring of fixed-width records outside the Java heap, so resident bids cost the
+ * garbage collector nothing. Every bid the rules record is at least as high as the previous one, so the newest
+ * {@code capacity} bids are the top {@code capacity}: adding overwrites the oldest slot and never sorts. Amounts only
+ * tie when a proxy answers a bid with its equal maximum; the answer, added last, is listed first, as in the Dragonfly
+ * bid index. The ring starts small and doubles up to {@code capacity}. Not thread-safe; the store guards each book
+ * with its auction's lock.
+ *
+ * <p>A record is {@value #RECORD_BYTES} bytes: amount and placement time as longs, the bidder as a
+ * {@link BidderDictionary} reference, and the bid ID as a length byte and up to {@value #MAX_BID_ID_BYTES} UTF-8
+ * bytes. {@link BidJournal} stores the same bytes.
+ */
+final class BidBook {
+    static final int RECORD_BYTES = 64;
+    static final int MAX_BID_ID_BYTES = 43;
+    private static final long AMOUNT = 0;
+    private static final long PLACED_AT = 8;
+    private static final long BIDDER = 16;
+    private static final long BID_ID_LENGTH = 20;
+    private static final long BID_ID = 21;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int capacity;
+    private MemorySegment records;
+    private int slots;
+    private long added;
+
+    BidBook(int capacity) {
+        this.capacity = capacity;
+        this.slots = Math.min(capacity, INITIAL_CAPACITY);
+        this.records = allocate(slots);
+    }
+
+    /**
+     * @return the new record, valid until the next add
+     */
+    MemorySegment add(String bidId, int bidderRef, long amount, long placedAtEpochMs) {
+        byte[] id = bidId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_BID_ID_BYTES) {
+            throw new IllegalArgumentException("Bid ID " + bidId + " is longer than " + MAX_BID_ID_BYTES + " bytes");
+        }
+        MemorySegment record = nextSlot();
+        record.set(ValueLayout.JAVA_LONG_UNALIGNED, AMOUNT, amount);
+        record.set(ValueLayout.JAVA_LONG_UNALIGNED, PLACED_AT, placedAtEpochMs);
+        record.set(ValueLayout.JAVA_INT_UNALIGNED, BIDDER, bidderRef);
+        record.set(ValueLayout.JAVA_BYTE, BID_ID_LENGTH, (byte) id.length);
+        MemorySegment.copy(MemorySegment.ofArray(id), 0, record, BID_ID, id.length);
+        return record;
+    }
+
+    /**
+     * Adds a copy of a record written by {@link #add(String, int, long, long)}, such as one replayed from the journal.
+     */
+    void add(MemorySegment record) {
+        nextSlot().copyFrom(record.asSlice(0, RECORD_BYTES));
+    }
+
+    int size() {
+        return (int) Math.min(added, slots);
+    }
+
+    /**
+     * @return up to {@code limit} bids, highest first
+     */
+    List<BidResponse> top(String auctionId, int limit, BidderDictionary bidders) {
+        int count = Math.min(size(), Math.max(0, limit));
+        List<BidResponse> bids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MemorySegment record = slot((added - 1 - i) % slots);
+            bids.add(new BidResponse(bidId(record), auctionId, bidders.name(bidderRef(record)), amount(record),
+                    placedAt(record)));
+        }
+        return bids;
+    }
+
+    static long amount(MemorySegment record) {
+        return record.get(ValueLayout.JAVA_LONG_UNALIGNED, AMOUNT);
+    }
+
+    static long placedAt(MemorySegment record) {
+        return record.get(ValueLayout.JAVA_LONG_UNALIGNED, PLACED_AT);
+    }
+
+    static int bidderRef(MemorySegment record) {
+        return record.get(ValueLayout.JAVA_INT_UNALIGNED, BIDDER);
+    }
+
+    static String bidId(MemorySegment record) {
+        int length = record.get(ValueLayout.JAVA_BYTE, BID_ID_LENGTH);
+        return new String(record.asSlice(BID_ID, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+
+    // The ring only grows while it has never wrapped, so the records are still in slot order when copied.
+    private MemorySegment nextSlot() {
+        if (added == slots && slots < capacity) {
+            int grown = (int) Math.min(capacity, slots * 2L);
+            MemorySegment larger = allocate(grown);
+            MemorySegment.copy(records, 0, larger, 0, records.byteSize());
+            records = larger;
+            slots = grown;
+        }
+        MemorySegment record = slot(added % slots);
+        added++;
+        return record;
+    }
+
+    private MemorySegment slot(long slot) {
+        return records.asSlice(slot * RECORD_BYTES, RECORD_BYTES);
+    }
+
+    // Freed when the book no longer references it, like a direct buffer.
+    private static MemorySegment allocate(int slots) {
+        return Arena.ofAuto().allocate((long) slots * RECORD_BYTES, Long.BYTES);
+    }
+}
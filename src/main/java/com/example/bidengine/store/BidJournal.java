@@ -0,0 +1,307 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.AuctionResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of every change to an {@link EmbeddedAuctionStore}, so a restart rebuilds the store by replaying
+ * it instead of re-reading Kafka. The log is a series of {@code journal-NNNNNN.bin} files of {@code segmentBytes}
+ * each, written through a memory mapping: an append is a copy into the page cache, with no system call. Bids are
+ * logged as the {@link BidBook} record bytes.
+ *
+ * <p>An entry is its length, a type byte and the payload. The length is written last, so an entry cut short by a
+ * crash reads as the zero-filled end of the log. Appends are serialized by one lock; callers append while holding
+ * the auction's lock, so each auction's entries are in the order they were applied. Pages are forced to disk when a
+ * segment fills and on {@link #close()}: a process crash loses nothing, a machine crash loses what the OS had not
+ * flushed yet. Files are never compacted.
+ */
+final class BidJournal implements AutoCloseable {
+    /** Receives the entries of a journal in the order they were appended. */
+    interface Replay {
+        void created(int auctionRef, AuctionResponse auction);
+
+        void bidder(int bidderRef, String bidderId);
+
+        /**
+         * @param record a {@link BidBook} record, valid only during the call
+         */
+        void bid(int auctionRef, MemorySegment record);
+
+        /**
+         * @param bidderRef the proxy's bidder, or -1 when the auction's proxy was cleared
+         */
+        void proxy(int auctionRef, int bidderRef, long maxAmount);
+
+        void closed(int auctionRef, String status, long nowEpochMs);
+    }
+
+    private static final byte CREATED = 1;
+    private static final byte BIDDER = 2;
+    private static final byte BID = 3;
+    private static final byte PROXY = 4;
+    private static final byte CLOSED = 5;
+    private static final int HEADER_BYTES = Integer.BYTES + 1;
+    private static final long MIN_SEGMENT_BYTES = 1 << 16;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{6})\\.bin");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int segmentIndex;
+    private Arena arena;
+    private MemorySegment segment;
+    private long position;
+
+    private BidJournal(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if missing. Nothing can be appended until {@link #replay}.
+     */
+    static BidJournal open(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("bidengine.embedded.journal.segment-bytes must be at least "
+                    + MIN_SEGMENT_BYTES);
+        }
+        Files.createDirectories(directory);
+        return new BidJournal(directory, segmentBytes);
+    }
+
+    /**
+     * Hands every entry to {@code replay}, then positions appends after the last one.
+     */
+    void replay(Replay replay) throws IOException {
+        lock.lock();
+        try {
+            if (arena != null) {
+                throw new IllegalStateException("Journal was already replayed");
+            }
+            List<Path> files;
+            try (Stream<Path> listed = Files.list(directory)) {
+                files = listed.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                        .sorted()
+                        .toList();
+            }
+            long end = 0;
+            for (Path file : files) {
+                try (Arena mapped = Arena.ofConfined();
+                     FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    end = replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), mapped), replay);
+                }
+            }
+            if (files.isEmpty()) {
+                map(0, 0);
+            } else {
+                Matcher last = SEGMENT_NAME.matcher(files.getLast().getFileName().toString());
+                last.matches();
+                map(Integer.parseInt(last.group(1)), end);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void appendCreated(int auctionRef, AuctionResponse auction) {
+        byte[][] strings = {
+                utf8(auction.auctionId()), utf8(auction.sellerId()), utf8(auction.title()),
+                utf8(auction.description()), utf8(auction.status()), utf8(auction.highestBidderId())
+        };
+        int length = Integer.BYTES + 7 * Long.BYTES;
+        for (byte[] string : strings) {
+            length += Integer.BYTES + string.length;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length).putInt(auctionRef);
+        for (byte[] string : strings) {
+            payload.putInt(string.length).put(string);
+        }
+        payload.putLong(auction.startingPrice())
+                .putLong(auction.reservePrice() == null ? -1 : auction.reservePrice())
+                .putLong(auction.startTimeEpochMs())
+                .putLong(auction.endTimeEpochMs())
+                .putLong(auction.highestBid() == null ? -1 : auction.highestBid())
+                .putLong(auction.createdAtEpochMs())
+                .putLong(auction.updatedAtEpochMs());
+        append(CREATED, payload.array());
+    }
+
+    void appendBidder(int bidderRef, String bidderId) {
+        byte[] id = utf8(bidderId);
+        append(BIDDER, ByteBuffer.allocate(2 * Integer.BYTES + id.length).putInt(bidderRef).putInt(id.length).put(id)
+                .array());
+    }
+
+    void appendBid(int auctionRef, MemorySegment record) {
+        lock.lock();
+        try {
+            MemorySegment payload = reserve(Integer.BYTES + BidBook.RECORD_BYTES);
+            payload.set(ValueLayout.JAVA_INT_UNALIGNED, 0, auctionRef);
+            MemorySegment.copy(record, 0, payload, Integer.BYTES, BidBook.RECORD_BYTES);
+            commit(BID, payload.byteSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void appendProxy(int auctionRef, int bidderRef, long maxAmount) {
+        append(PROXY, ByteBuffer.allocate(2 * Integer.BYTES + Long.BYTES).putInt(auctionRef).putInt(bidderRef)
+                .putLong(maxAmount).array());
+    }
+
+    void appendClosed(int auctionRef, String status, long nowEpochMs) {
+        byte[] text = utf8(status);
+        append(CLOSED, ByteBuffer.allocate(2 * Integer.BYTES + text.length + Long.BYTES).putInt(auctionRef)
+                .putInt(text.length).put(text).putLong(nowEpochMs).array());
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (arena != null) {
+                segment.force();
+                arena.close();
+                arena = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte type, byte[] bytes) {
+        lock.lock();
+        try {
+            MemorySegment payload = reserve(bytes.length);
+            MemorySegment.copy(MemorySegment.ofArray(bytes), 0, payload, 0, bytes.length);
+            commit(type, bytes.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns the payload area of the next entry, moving to a new segment if it does not fit in this one.
+    private MemorySegment reserve(long payloadBytes) {
+        if (arena == null) {
+            throw new IllegalStateException("Journal is not open for appends");
+        }
+        long entryBytes = HEADER_BYTES + payloadBytes;
+        if (entryBytes > segmentBytes) {
+            throw new IllegalArgumentException("Journal entry of " + entryBytes + " bytes exceeds the segment size");
+        }
+        if (position + entryBytes > segment.byteSize()) {
+            segment.force();
+            arena.close();
+            arena = null;
+            try {
+                map(segmentIndex + 1, 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return segment.asSlice(position + HEADER_BYTES, payloadBytes);
+    }
+
+    private void commit(byte type, long payloadBytes) {
+        long entryBytes = HEADER_BYTES + payloadBytes;
+        segment.set(ValueLayout.JAVA_BYTE, position + Integer.BYTES, type);
+        VarHandle.releaseFence();
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, position, (int) entryBytes);
+        position += entryBytes;
+    }
+
+    private void map(int index, long start) throws IOException {
+        Path file = directory.resolve("journal-%06d.bin".formatted(index));
+        Arena mapped = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()), mapped);
+        } catch (IOException | RuntimeException e) {
+            mapped.close();
+            throw e;
+        }
+        arena = mapped;
+        segmentIndex = index;
+        position = start;
+    }
+
+    // Returns the offset just past the last whole entry.
+    private static long replay(MemorySegment file, Replay replay) {
+        long position = 0;
+        while (position + HEADER_BYTES <= file.byteSize()) {
+            int length = file.get(ValueLayout.JAVA_INT_UNALIGNED, position);
+            if (length < HEADER_BYTES || position + length > file.byteSize()) {
+                break;
+            }
+            byte type = file.get(ValueLayout.JAVA_BYTE, position + Integer.BYTES);
+            MemorySegment payload = file.asSlice(position + HEADER_BYTES, length - HEADER_BYTES);
+            switch (type) {
+                case CREATED -> replayCreated(payload.asByteBuffer(), replay);
+                case BIDDER -> {
+                    ByteBuffer buffer = payload.asByteBuffer();
+                    replay.bidder(buffer.getInt(), string(buffer));
+                }
+                case BID -> replay.bid(payload.get(ValueLayout.JAVA_INT_UNALIGNED, 0),
+                        payload.asSlice(Integer.BYTES, BidBook.RECORD_BYTES));
+                case PROXY -> {
+                    ByteBuffer buffer = payload.asByteBuffer();
+                    replay.proxy(buffer.getInt(), buffer.getInt(), buffer.getLong());
+                }
+                case CLOSED -> {
+                    ByteBuffer buffer = payload.asByteBuffer();
+                    replay.closed(buffer.getInt(), string(buffer), buffer.getLong());
+                }
+                default -> throw new IllegalStateException("Unknown journal entry type " + type + " at " + position);
+            }
+            position += length;
+        }
+        return position;
+    }
+
+    private static void replayCreated(ByteBuffer buffer, Replay replay) {
+        int auctionRef = buffer.getInt();
+        String auctionId = string(buffer);
+        String sellerId = string(buffer);
+        String title = string(buffer);
+        String description = string(buffer);
+        String status = string(buffer);
+        String highestBidderId = string(buffer);
+        long startingPrice = buffer.getLong();
+        long reservePrice = buffer.getLong();
+        long startTime = buffer.getLong();
+        long endTime = buffer.getLong();
+        long highestBid = buffer.getLong();
+        long createdAt = buffer.getLong();
+        long updatedAt = buffer.getLong();
+        replay.created(auctionRef, new AuctionResponse(auctionId, sellerId, title, description, status, startingPrice,
+                reservePrice < 0 ? null : reservePrice, startTime, endTime, highestBid < 0 ? null : highestBid,
+                highestBidderId.isEmpty() ? null : highestBidderId, createdAt, updatedAt, 0));
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bidengine.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets every {@link AuctionStore} enforces on place and proxy bids: one per bidder on an auction and one per
+ * auction. Every attempt on a live auction takes a token from both, rejected bids included. A capacity of 0 disables
+ * a bucket.
+ */
+@Component
+public class BidRateLimits {
+    public static final BidRateLimits NONE = new BidRateLimits(0, 0, 0, 0);
+
+    private final long bidderCapacity;
+    private final double bidderRefillPerSecond;
+    private final long auctionCapacity;
+    private final double auctionRefillPerSecond;
+
+    public BidRateLimits(@Value("${bidengine.rate-limit.bidder.capacity:0}") long bidderCapacity,
+                         @Value("${bidengine.rate-limit.bidder.refill-per-second:0}") double bidderRefillPerSecond,
+                         @Value("${bidengine.rate-limit.auction.capacity:0}") long auctionCapacity,
+                         @Value("${bidengine.rate-limit.auction.refill-per-second:0}") double auctionRefillPerSecond) {
+        if ((bidderCapacity > 0 && bidderRefillPerSecond <= 0)
+                || (auctionCapacity > 0 && auctionRefillPerSecond <= 0)) {
+            throw new IllegalArgumentException("bidengine.rate-limit refill-per-second must be positive for a bucket "
+                    + "with a capacity");
+        }
+        this.bidderCapacity = bidderCapacity;
+        this.bidderRefillPerSecond = bidderRefillPerSecond;
+        this.auctionCapacity = auctionCapacity;
+        this.auctionRefillPerSecond = auctionRefillPerSecond;
+    }
+
+    public long bidderCapacity() {
+        return bidderCapacity;
+    }
+
+    public double bidderRefillPerSecond() {
+        return bidderRefillPerSecond;
+    }
+
+    public long auctionCapacity() {
+        return auctionCapacity;
+    }
+
+    public double auctionRefillPerSecond() {
+        return auctionRefillPerSecond;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bidengine.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Interns bidder IDs as {@code int} references, so off-heap bid records hold four bytes instead of a string and each
+ * bidder's ID exists once on the heap however many bids it placed. A new ID is journaled before its reference is
+ * handed out, so the journal never holds a bid with an unknown bidder.
+ */
+final class BidderDictionary {
+    private final BidJournal journal;
+    private final Map<String, Integer> refs = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Written under the lock; the volatile write after each change publishes the new element.
+    private volatile String[] names = new String[64];
+    private int size;
+
+    /**
+     * @param journal where new IDs are appended, or {@code null}
+     */
+    BidderDictionary(BidJournal journal) {
+        this.journal = journal;
+    }
+
+    int intern(String bidderId) {
+        Integer ref = refs.get(bidderId);
+        if (ref != null) {
+            return ref;
+        }
+        lock.lock();
+        try {
+            ref = refs.get(bidderId);
+            if (ref != null) {
+                return ref;
+            }
+            int added = size;
+            if (journal != null) {
+                journal.appendBidder(added, bidderId);
+            }
+            put(added, bidderId);
+            refs.put(bidderId, added);
+            return added;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-registers an ID read back from the journal under its original reference.
+     */
+    void restore(int ref, String bidderId) {
+        lock.lock();
+        try {
+            put(ref, bidderId);
+            refs.put(bidderId, ref);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String name(int ref) {
+        return names[ref];
+    }
+
+    int size() {
+        return refs.size();
+    }
+
+    private void put(int ref, String bidderId) {
+        String[] current = names;
+        if (ref >= current.length) {
+            current = Arrays.copyOf(current, Math.max(ref + 1, current.length * 2));
+        }
+        current[ref] = bidderId;
+        size = Math.max(size, ref + 1);
+        names = current;
+    }
+}
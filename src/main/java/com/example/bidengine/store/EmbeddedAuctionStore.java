@@ -0,0 +1,726 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.AuctionUpdate;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.metrics.AuctionMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-JVM {@link AuctionStore} for single-node deployments and as a zero-network baseline in benchmarks. It applies
+ * the rules of the place-bid, proxy-bid and close scripts one for one, including the bid increments, reserve handling
+ * and rate-limit buckets, so callers see the same results, {@code seq} values and updates as on Dragonfly.
+ *
+ * <p>Auctions are guarded by a fixed set of striped locks, and every call holds one auction's lock for its whole
+ * evaluation, as a script call holds Dragonfly's. The end-time index of each shard has its own lock and is never
+ * locked together with an auction: claiming an auction removes it from the index first, then closes it. Each auction
+ * keeps its top {@code bid-book-size} bids in an off-heap {@link BidBook}; older bids are dropped, so
+ * {@link #listTopBids} returns at most that many. Nothing is written to an outbox, so callers send events themselves.
+ *
+ * <p>With {@code bidengine.embedded.journal.dir} set, every change is also appended to a {@link BidJournal} and the
+ * store replays it on startup. Rate-limit buckets and end-time claims are not journaled: buckets start full after a
+ * restart, and every auction still open is scheduled again.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "bidengine.store", havingValue = "embedded")
+public class EmbeddedAuctionStore implements AuctionStore, DisposableBean {
+    private static final long NONE = -1L;
+    private static final int MIN_BUCKET_PRUNE_SIZE = 64;
+
+    private final int scheduleShards;
+    private final int bidBookSize;
+    private final BidRateLimits rateLimits;
+    private final AuctionMetrics metrics;
+    private final List<AuctionUpdateListener> updateListeners;
+    private final BidJournal journal;
+    private final BidderDictionary bidders;
+    private final Map<String, Auction> auctions = new ConcurrentHashMap<>();
+    private final AtomicInteger auctionRefs = new AtomicInteger();
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock[] shardLocks;
+    private final EndTimeIndex[] endTimeIndexes;
+
+    public EmbeddedAuctionStore(int scheduleShards, int lockStripes, int bidBookSize, BidRateLimits rateLimits,
+                                AuctionMetrics metrics, List<AuctionUpdateListener> updateListeners) {
+        this(scheduleShards, lockStripes, bidBookSize, rateLimits, metrics, updateListeners, null, 0);
+    }
+
+    /**
+     * @param journalDirectory where the journal is kept and replayed from, or {@code null} to keep nothing
+     */
+    public EmbeddedAuctionStore(int scheduleShards, int lockStripes, int bidBookSize, BidRateLimits rateLimits,
+                                AuctionMetrics metrics, List<AuctionUpdateListener> updateListeners,
+                                Path journalDirectory, long journalSegmentBytes) {
+        if (scheduleShards < 1) {
+            throw new IllegalArgumentException("bidengine.scheduler.shards must be at least 1");
+        }
+        if (lockStripes < 1 || Integer.bitCount(lockStripes) != 1) {
+            throw new IllegalArgumentException("bidengine.embedded.lock-stripes must be a power of two");
+        }
+        if (bidBookSize < 1) {
+            throw new IllegalArgumentException("bidengine.embedded.bid-book-size must be at least 1");
+        }
+        this.scheduleShards = scheduleShards;
+        this.bidBookSize = bidBookSize;
+        this.rateLimits = rateLimits;
+        this.metrics = metrics;
+        this.updateListeners = List.copyOf(updateListeners);
+        this.journal = journalDirectory == null ? null : openJournal(journalDirectory, journalSegmentBytes);
+        this.bidders = new BidderDictionary(journal);
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.shardLocks = new ReentrantLock[scheduleShards];
+        this.endTimeIndexes = new EndTimeIndex[scheduleShards];
+        for (int i = 0; i < scheduleShards; i++) {
+            shardLocks[i] = new ReentrantLock();
+            endTimeIndexes[i] = new EndTimeIndex();
+        }
+        if (journal != null) {
+            replayJournal();
+        }
+    }
+
+    /**
+     * Delivers updates to every {@link AuctionUpdateListener} bean: the snapshot cache, the bid floor and the live
+     * streams.
+     */
+    @Autowired
+    public EmbeddedAuctionStore(@Value("${bidengine.scheduler.shards:16}") int scheduleShards,
+                                @Value("${bidengine.embedded.lock-stripes:1024}") int lockStripes,
+                                @Value("${bidengine.embedded.bid-book-size:100}") int bidBookSize,
+                                @Value("${bidengine.embedded.journal.dir:}") String journalDirectory,
+                                @Value("${bidengine.embedded.journal.segment-bytes:67108864}") long journalSegmentBytes,
+                                BidRateLimits rateLimits,
+                                AuctionMetrics metrics,
+                                List<AuctionUpdateListener> updateListeners) {
+        this(scheduleShards, lockStripes, bidBookSize, rateLimits, metrics, updateListeners,
+                journalDirectory.isBlank() ? null : Path.of(journalDirectory), journalSegmentBytes);
+    }
+
+    private static BidJournal openJournal(Path directory, long segmentBytes) {
+        try {
+            return BidJournal.open(directory, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void createAuction(AuctionResponse auction, String eventId) {
+        Auction created = new Auction(auctionRefs.getAndIncrement(), auction, bidBookSize);
+        Auction replaced;
+        ReentrantLock lock = lockOf(auction.auctionId());
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.appendCreated(created.ref, auction);
+            }
+            replaced = auctions.put(auction.auctionId(), created);
+        } finally {
+            lock.unlock();
+        }
+        int shard = shardOf(auction.auctionId());
+        shardLocks[shard].lock();
+        try {
+            if (replaced != null) {
+                endTimeIndexes[shard].remove(auction.auctionId(), replaced.endTime);
+            }
+            endTimeIndexes[shard].add(auction.auctionId(), auction.endTimeEpochMs());
+        } finally {
+            shardLocks[shard].unlock();
+        }
+    }
+
+    @Override
+    public AuctionResponse getAuction(String auctionId) {
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            Auction auction = auctions.get(auctionId);
+            return auction == null ? null : auction.toResponse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PlaceBidResult placeBid(String auctionId, String bidId, String bidderId, long amount, long nowEpochMs,
+                                   String eventId) {
+        List<AuctionUpdate> updates = new ArrayList<>(2);
+        PlaceBidResult result;
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            result = placeBid(auctions.get(auctionId), bidId, bidderId, amount, nowEpochMs, updates);
+        } finally {
+            lock.unlock();
+        }
+        publish(updates);
+        return countOutcome(result);
+    }
+
+    @Override
+    public PlaceBidResult proxyBid(String auctionId, String bidId, String bidderId, long maxAmount, long nowEpochMs,
+                                   String eventId) {
+        List<AuctionUpdate> updates = new ArrayList<>(2);
+        PlaceBidResult result;
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            result = proxyBid(auctions.get(auctionId), bidId, bidderId, maxAmount, nowEpochMs, updates);
+        } finally {
+            lock.unlock();
+        }
+        publish(updates);
+        return countOutcome(result);
+    }
+
+    @Override
+    public List<PlaceBidResult> placeBids(List<BidCommand> bids, long nowEpochMs) {
+        List<PlaceBidResult> results = new ArrayList<>(bids.size());
+        for (BidCommand bid : bids) {
+            results.add(placeBid(bid.auctionId(), bid.bidId(), bid.bidderId(), bid.amount(), nowEpochMs,
+                    bid.eventId()));
+        }
+        return results;
+    }
+
+    @Override
+    public List<PlaceBidResult> placeAuctionBids(String auctionId, List<TimedBid> bids) {
+        List<AuctionUpdate> updates = new ArrayList<>(bids.size());
+        List<PlaceBidResult> results = new ArrayList<>(bids.size());
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            Auction auction = auctions.get(auctionId);
+            for (TimedBid timed : bids) {
+                BidCommand bid = timed.command();
+                results.add(placeBid(auction, bid.bidId(), bid.bidderId(), bid.amount(), timed.nowEpochMs(),
+                        updates));
+            }
+        } finally {
+            lock.unlock();
+        }
+        publish(updates);
+        results.forEach(this::countOutcome);
+        return results;
+    }
+
+    @Override
+    public CloseAuctionResult closeAuction(String auctionId, long nowEpochMs, String eventId) {
+        List<AuctionUpdate> updates = new ArrayList<>(1);
+        CloseAuctionResult result;
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            result = close(auctions.get(auctionId), nowEpochMs, updates);
+        } finally {
+            lock.unlock();
+        }
+        publish(updates);
+        return result;
+    }
+
+    @Override
+    public List<ClosedAuction> closeExpiredAuctions(int shard, long nowEpochMs, int limit,
+                                                    Supplier<String> eventIds) {
+        List<String> candidates = listScheduledCloses(shard, nowEpochMs, limit).stream()
+                .map(ScheduledClose::auctionId)
+                .toList();
+        return claimAndCloseAuctions(shard, nowEpochMs, candidates, eventIds);
+    }
+
+    @Override
+    public List<ClosedAuction> claimAndCloseAuctions(int shard, long nowEpochMs, List<String> candidates,
+                                                     Supplier<String> eventIds) {
+        List<ClosedAuction> closed = new ArrayList<>();
+        List<AuctionUpdate> updates = new ArrayList<>();
+        for (String auctionId : candidates) {
+            Auction auction = auctions.get(auctionId);
+            if (auction == null || auction.endTime > nowEpochMs || !claim(shard, auctionId, auction.endTime)) {
+                continue;
+            }
+            CloseAuctionResult result;
+            ReentrantLock lock = lockOf(auctionId);
+            lock.lock();
+            try {
+                result = close(auctions.get(auctionId), nowEpochMs, updates);
+            } finally {
+                lock.unlock();
+            }
+            closed.add(new ClosedAuction(auctionId, auction.endTime, result));
+        }
+        publish(updates);
+        long closedAt = System.currentTimeMillis();
+        for (ClosedAuction auction : closed) {
+            if (auction.result().ok()) {
+                metrics.closeLag(auction.endTimeEpochMs(), closedAt);
+            }
+        }
+        return closed;
+    }
+
+    @Override
+    public List<BidResponse> listTopBids(String auctionId, int limit) {
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            Auction auction = auctions.get(auctionId);
+            return auction == null ? List.of() : auction.bids.top(auctionId, limit, bidders);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bidder rate-limit buckets the auction still holds.
+    int bidderBucketCount(String auctionId) {
+        ReentrantLock lock = lockOf(auctionId);
+        lock.lock();
+        try {
+            Auction auction = auctions.get(auctionId);
+            return auction == null ? 0 : auction.bidderBuckets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int scheduleShards() {
+        return scheduleShards;
+    }
+
+    @Override
+    public int shardOf(String auctionId) {
+        return Math.floorMod(auctionId.hashCode(), scheduleShards);
+    }
+
+    @Override
+    public List<ScheduledClose> listScheduledCloses(int shard, long untilEpochMs, int limit) {
+        shardLocks[shard].lock();
+        try {
+            return endTimeIndexes[shard].until(untilEpochMs, limit);
+        } finally {
+            shardLocks[shard].unlock();
+        }
+    }
+
+    @Override
+    public boolean outboxEnabled() {
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private boolean claim(int shard, String auctionId, long endTime) {
+        shardLocks[shard].lock();
+        try {
+            return endTimeIndexes[shard].remove(auctionId, endTime);
+        } finally {
+            shardLocks[shard].unlock();
+        }
+    }
+
+    // The rules below mirror the Lua scripts in AuctionRedisRepository; keep the two in step.
+
+    private PlaceBidResult placeBid(Auction auction, String bidId, String bidderId, long amount, long now,
+                                    List<AuctionUpdate> updates) {
+        String error = biddingError(auction, now);
+        if (error != null) {
+            return PlaceBidResult.error(error);
+        }
+        long wait = rateLimitWait(auction, bidderId, now);
+        if (wait > 0) {
+            return PlaceBidResult.rateLimited(wait);
+        }
+        long highestBid = auction.highestBid;
+        if (amount < auction.startingPrice) {
+            return PlaceBidResult.error("BELOW_START");
+        }
+        if (highestBid != NONE && amount <= highestBid) {
+            return PlaceBidResult.error("BELOW_HIGHEST");
+        }
+        List<PlacedBid> placed = new ArrayList<>(2);
+        String proxyBidderId = auction.proxyBidderId;
+        if (proxyBidderId != null) {
+            long proxyMax = auction.proxyMax;
+            boolean otherBidder = !proxyBidderId.equals(bidderId);
+            if (otherBidder && amount <= proxyMax) {
+                recordBid(auction, bidId, bidderId, amount, now, placed, updates);
+                recordBid(auction, AuctionStore.proxyAnswerId(bidId), proxyBidderId,
+                        proxyPrice(auction, amount + increment(amount), proxyMax), now, placed, updates);
+                return reply(auction, "OUTBID", placed);
+            }
+            if (otherBidder || amount >= proxyMax) {
+                setProxy(auction, null, NONE);
+            }
+            if (otherBidder && proxyMax > highestBid) {
+                recordBid(auction, AuctionStore.proxyAnswerId(bidId), proxyBidderId, proxyMax, now, placed, updates);
+            }
+        }
+        recordBid(auction, bidId, bidderId, amount, now, placed, updates);
+        return reply(auction, "OK", placed);
+    }
+
+    private PlaceBidResult proxyBid(Auction auction, String bidId, String bidderId, long max, long now,
+                                    List<AuctionUpdate> updates) {
+        String error = biddingError(auction, now);
+        if (error != null) {
+            return PlaceBidResult.error(error);
+        }
+        long wait = rateLimitWait(auction, bidderId, now);
+        if (wait > 0) {
+            return PlaceBidResult.rateLimited(wait);
+        }
+        if (max < auction.startingPrice) {
+            return PlaceBidResult.error("BELOW_START");
+        }
+        List<PlacedBid> placed = new ArrayList<>(2);
+        long highestBid = auction.highestBid;
+        if (highestBid == NONE) {
+            setProxy(auction, bidderId, max);
+            recordBid(auction, bidId, bidderId, proxyPrice(auction, auction.startingPrice, max), now, placed,
+                    updates);
+            return reply(auction, "OK", placed);
+        }
+        String leader = auction.highestBidderId;
+        long leaderMax = leader.equals(auction.proxyBidderId) ? auction.proxyMax : highestBid;
+        if (leader.equals(bidderId)) {
+            if (max <= leaderMax) {
+                return PlaceBidResult.error("BELOW_MAX");
+            }
+            setProxy(auction, bidderId, max);
+            long price = proxyPrice(auction, highestBid, max);
+            if (price > highestBid) {
+                recordBid(auction, bidId, bidderId, price, now, placed, updates);
+            }
+            return reply(auction, "OK", placed);
+        }
+        if (max <= highestBid) {
+            return PlaceBidResult.error("BELOW_HIGHEST");
+        }
+        String answerId = AuctionStore.proxyAnswerId(bidId);
+        if (max <= leaderMax) {
+            recordBid(auction, bidId, bidderId, max, now, placed, updates);
+            recordBid(auction, answerId, leader, proxyPrice(auction, max + increment(max), leaderMax), now, placed,
+                    updates);
+            return reply(auction, "OUTBID", placed);
+        }
+        if (leaderMax > highestBid) {
+            recordBid(auction, answerId, leader, leaderMax, now, placed, updates);
+        }
+        setProxy(auction, bidderId, max);
+        recordBid(auction, bidId, bidderId, proxyPrice(auction, leaderMax + increment(leaderMax), max), now, placed,
+                updates);
+        return reply(auction, "OK", placed);
+    }
+
+    private CloseAuctionResult close(Auction auction, long now, List<AuctionUpdate> updates) {
+        if (auction == null) {
+            return CloseAuctionResult.error("NOT_FOUND");
+        }
+        if (!"OPEN".equals(auction.status)) {
+            return CloseAuctionResult.error("NOT_OPEN");
+        }
+        boolean reserveMissed = auction.reservePrice != NONE
+                && (auction.highestBid == NONE || auction.highestBid < auction.reservePrice);
+        auction.status = reserveMissed ? "CLOSED_NO_SALE" : "CLOSED";
+        auction.updatedAt = now;
+        auction.seq++;
+        if (journal != null) {
+            journal.appendClosed(auction.ref, auction.status, now);
+        }
+        auction.bidderBuckets.clear();
+        auction.auctionBucket = null;
+        Long highestBid = auction.highestBid == NONE ? null : auction.highestBid;
+        updates.add(new AuctionUpdate(auction.auctionId, auction.seq, auction.status, highestBid,
+                auction.highestBidderId));
+        return CloseAuctionResult.success(auction.status, highestBid, auction.highestBidderId, auction.seq);
+    }
+
+    private static String biddingError(Auction auction, long now) {
+        if (auction == null) {
+            return "NOT_FOUND";
+        }
+        if (!"OPEN".equals(auction.status)) {
+            return "NOT_OPEN";
+        }
+        if (now < auction.startTime) {
+            return "NOT_STARTED";
+        }
+        if (now > auction.endTime) {
+            return "ENDED";
+        }
+        return null;
+    }
+
+    /**
+     * Takes a token from both buckets and returns 0, or takes none and returns the ms until both have one.
+     */
+    private long rateLimitWait(Auction auction, String bidderId, long now) {
+        long bidderCapacity = rateLimits.bidderCapacity();
+        long auctionCapacity = rateLimits.auctionCapacity();
+        double bidderTokens = bidderCapacity > 0
+                ? TokenBucket.tokens(auction.bidderBuckets.get(bidderId), bidderCapacity,
+                rateLimits.bidderRefillPerSecond(), now)
+                : 0;
+        double auctionTokens = auctionCapacity > 0
+                ? TokenBucket.tokens(auction.auctionBucket, auctionCapacity, rateLimits.auctionRefillPerSecond(), now)
+                : 0;
+        long wait = 0;
+        if (bidderCapacity > 0 && bidderTokens < 1) {
+            wait = TokenBucket.wait(bidderTokens, rateLimits.bidderRefillPerSecond());
+        }
+        if (auctionCapacity > 0 && auctionTokens < 1) {
+            wait = Math.max(wait, TokenBucket.wait(auctionTokens, rateLimits.auctionRefillPerSecond()));
+        }
+        if (wait > 0) {
+            return wait;
+        }
+        if (bidderCapacity > 0) {
+            if (auction.bidderBuckets.put(bidderId, new TokenBucket(bidderTokens - 1, now)) == null
+                    && auction.bidderBuckets.size() >= auction.bucketPruneSize) {
+                pruneBidderBuckets(auction, bidderCapacity, now);
+            }
+        }
+        if (auctionCapacity > 0) {
+            auction.auctionBucket = new TokenBucket(auctionTokens - 1, now);
+        }
+        return 0;
+    }
+
+    /**
+     * Drops the bidder buckets that have refilled to capacity, which read the same as a missing bucket, as the
+     * script's {@code PEXPIRE} drops them on Dragonfly. Runs each time the map doubles, so bidders who bid once and
+     * leave do not pile up on a long auction.
+     */
+    private void pruneBidderBuckets(Auction auction, long capacity, long now) {
+        double refillPerSecond = rateLimits.bidderRefillPerSecond();
+        auction.bidderBuckets.values()
+                .removeIf(bucket -> TokenBucket.tokens(bucket, capacity, refillPerSecond, now) >= capacity);
+        auction.bucketPruneSize = Math.max(MIN_BUCKET_PRUNE_SIZE, 2 * auction.bidderBuckets.size());
+    }
+
+    private static long increment(long price) {
+        if (price < 100) {
+            return 5;
+        } else if (price < 500) {
+            return 25;
+        } else if (price < 2500) {
+            return 50;
+        } else if (price < 10000) {
+            return 100;
+        } else if (price < 25000) {
+            return 250;
+        } else if (price < 50000) {
+            return 500;
+        } else if (price < 100000) {
+            return 1000;
+        } else if (price < 250000) {
+            return 2500;
+        } else if (price < 500000) {
+            return 5000;
+        }
+        return 10000;
+    }
+
+    // The price a proxy bids to beat base: the reserve if its maximum covers it, never more than the maximum.
+    private static long proxyPrice(Auction auction, long base, long max) {
+        long reserve = auction.reservePrice;
+        if (reserve != NONE && max >= reserve && base < reserve) {
+            base = reserve;
+        }
+        return Math.min(base, max);
+    }
+
+    private void setProxy(Auction auction, String bidderId, long max) {
+        auction.proxyBidderId = bidderId;
+        auction.proxyMax = max;
+        if (journal != null) {
+            journal.appendProxy(auction.ref, bidderId == null ? -1 : bidders.intern(bidderId), max);
+        }
+    }
+
+    private void recordBid(Auction auction, String bidId, String bidderId, long amount, long now,
+                           List<PlacedBid> placed, List<AuctionUpdate> updates) {
+        MemorySegment record = auction.bids.add(bidId, bidders.intern(bidderId), amount, now);
+        if (journal != null) {
+            journal.appendBid(auction.ref, record);
+        }
+        auction.highestBid = amount;
+        auction.highestBidderId = bidderId;
+        auction.updatedAt = now;
+        auction.seq++;
+        updates.add(new AuctionUpdate(auction.auctionId, auction.seq, "OPEN", amount, bidderId));
+        placed.add(new PlacedBid(bidId, bidderId, amount, auction.seq));
+    }
+
+    private static PlaceBidResult reply(Auction auction, String status, List<PlacedBid> placed) {
+        return PlaceBidResult.success(status, auction.highestBid == NONE ? null : auction.highestBid,
+                auction.highestBidderId, auction.seq, placed);
+    }
+
+    private PlaceBidResult countOutcome(PlaceBidResult result) {
+        metrics.bidOutcome(result.ok() ? result.status() : result.errorCode());
+        return result;
+    }
+
+    private void publish(List<AuctionUpdate> updates) {
+        for (AuctionUpdate update : updates) {
+            for (AuctionUpdateListener listener : updateListeners) {
+                listener.onAuctionUpdate(update);
+            }
+        }
+    }
+
+    // Runs in the constructor, before the store is shared, so it takes no locks.
+    private void replayJournal() {
+        try {
+            journal.replay(new JournalReplay());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Auction auction : auctions.values()) {
+            if ("OPEN".equals(auction.status)) {
+                endTimeIndexes[shardOf(auction.auctionId)].add(auction.auctionId, auction.endTime);
+            }
+        }
+    }
+
+    private ReentrantLock lockOf(String auctionId) {
+        int hash = auctionId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // Mutable state of one auction; every field except the identity is guarded by the auction's stripe lock.
+    private static final class Auction {
+        private final int ref;
+        private final String auctionId;
+        private final String sellerId;
+        private final String title;
+        private final String description;
+        private final long startingPrice;
+        private final long reservePrice;
+        private final long startTime;
+        private final long endTime;
+        private final long createdAt;
+        private final BidBook bids;
+        private final Map<String, TokenBucket> bidderBuckets = new HashMap<>();
+        private TokenBucket auctionBucket;
+        private int bucketPruneSize = MIN_BUCKET_PRUNE_SIZE;
+        private String status;
+        private long highestBid;
+        private String highestBidderId;
+        private long updatedAt;
+        private long seq;
+        private String proxyBidderId;
+        private long proxyMax = NONE;
+
+        private Auction(int ref, AuctionResponse auction, int bidBookSize) {
+            this.ref = ref;
+            this.auctionId = auction.auctionId();
+            this.sellerId = auction.sellerId();
+            this.title = auction.title();
+            this.description = auction.description() == null ? "" : auction.description();
+            this.status = auction.status();
+            this.startingPrice = auction.startingPrice();
+            this.reservePrice = auction.reservePrice() == null ? NONE : auction.reservePrice();
+            this.startTime = auction.startTimeEpochMs();
+            this.endTime = auction.endTimeEpochMs();
+            this.highestBid = auction.highestBid() == null ? NONE : auction.highestBid();
+            this.highestBidderId = auction.highestBidderId();
+            this.createdAt = auction.createdAtEpochMs();
+            this.updatedAt = auction.updatedAtEpochMs();
+            this.seq = auction.seq();
+            this.bids = new BidBook(bidBookSize);
+        }
+
+        private AuctionResponse toResponse() {
+            return new AuctionResponse(auctionId, sellerId, title, description, status, startingPrice,
+                    reservePrice == NONE ? null : reservePrice, startTime, endTime,
+                    highestBid == NONE ? null : highestBid, highestBidderId, createdAt, updatedAt, seq);
+        }
+    }
+
+    // Applies journal entries the way the live calls applied them; auctions are journaled by ref, not ID.
+    private final class JournalReplay implements BidJournal.Replay {
+        private final Map<Integer, Auction> byRef = new HashMap<>();
+
+        @Override
+        public void created(int auctionRef, AuctionResponse response) {
+            Auction auction = new Auction(auctionRef, response, bidBookSize);
+            byRef.put(auctionRef, auction);
+            auctions.put(auction.auctionId, auction);
+            auctionRefs.set(Math.max(auctionRefs.get(), auctionRef + 1));
+        }
+
+        @Override
+        public void bidder(int bidderRef, String bidderId) {
+            bidders.restore(bidderRef, bidderId);
+        }
+
+        @Override
+        public void bid(int auctionRef, MemorySegment record) {
+            Auction auction = byRef.get(auctionRef);
+            auction.bids.add(record);
+            auction.highestBid = BidBook.amount(record);
+            auction.highestBidderId = bidders.name(BidBook.bidderRef(record));
+            auction.updatedAt = BidBook.placedAt(record);
+            auction.seq++;
+        }
+
+        @Override
+        public void proxy(int auctionRef, int bidderRef, long maxAmount) {
+            Auction auction = byRef.get(auctionRef);
+            auction.proxyBidderId = bidderRef < 0 ? null : bidders.name(bidderRef);
+            auction.proxyMax = maxAmount;
+        }
+
+        @Override
+        public void closed(int auctionRef, String status, long nowEpochMs) {
+            Auction auction = byRef.get(auctionRef);
+            auction.status = status;
+            auction.updatedAt = nowEpochMs;
+            auction.seq++;
+        }
+    }
+
+    private record TokenBucket(double tokens, long updatedAtEpochMs) {
+        static double tokens(TokenBucket bucket, long capacity, double refillPerSecond, long now) {
+            if (bucket == null) {
+                return capacity;
+            }
+            return Math.min(capacity,
+                    bucket.tokens + Math.max(0, now - bucket.updatedAtEpochMs) * refillPerSecond / 1000);
+        }
+
+        static long wait(double tokens, double refillPerSecond) {
+            return (long) Math.ceil((1 - tokens) * 1000 / refillPerSecond);
+        }
+    }
+}
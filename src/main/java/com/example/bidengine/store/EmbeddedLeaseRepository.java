@@ -0,0 +1,67 @@
+package com.example.bidengine.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-JVM {@link LeaseRepository} for the {@link EmbeddedAuctionStore}, whose single instance is the only one to
+ * split work with. Leases and heartbeats expire as they do on Dragonfly, so callers behave the same on both.
+ */
+@Repository
+@ConditionalOnProperty(name = "bidengine.store", havingValue = "embedded")
+public class EmbeddedLeaseRepository implements LeaseRepository {
+    private final LongSupplier clock;
+    private final Map<String, Lease> leases = new HashMap<>();
+    private final Map<String, Map<String, Long>> members = new HashMap<>();
+
+    public EmbeddedLeaseRepository() {
+        this(System::currentTimeMillis);
+    }
+
+    EmbeddedLeaseRepository(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String name, String owner, long ttlMs) {
+        long now = clock.getAsLong();
+        Lease lease = leases.get(name);
+        if (lease != null && lease.expiresAtEpochMs() > now && !lease.owner().equals(owner)) {
+            return false;
+        }
+        leases.put(name, new Lease(owner, now + ttlMs));
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String name, String owner) {
+        Lease lease = leases.get(name);
+        if (lease != null && lease.owner().equals(owner)) {
+            leases.remove(name);
+        }
+    }
+
+    @Override
+    public synchronized int heartbeat(String group, String owner, long ttlMs) {
+        long now = clock.getAsLong();
+        Map<String, Long> live = members.computeIfAbsent(group, key -> new HashMap<>());
+        live.values().removeIf(expiresAt -> expiresAt <= now);
+        live.put(owner, now + ttlMs);
+        return live.size();
+    }
+
+    @Override
+    public synchronized void leave(String group, String owner) {
+        Map<String, Long> live = members.get(group);
+        if (live != null) {
+            live.remove(owner);
+        }
+    }
+
+    private record Lease(String owner, long expiresAtEpochMs) {
+    }
+}
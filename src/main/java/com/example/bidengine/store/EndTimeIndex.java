@@ -0,0 +1,86 @@
+package com.example.bidengine.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * End-time index of one shard: auction IDs sorted by (end time, ID), the order of the Dragonfly end-time ZSET, in
+ * parallel arrays. Lookups are binary searches; inserts and removals shift the tail with one array copy. Not
+ * thread-safe; the store guards each shard's index with the shard lock.
+ */
+final class EndTimeIndex {
+    private long[] endTimes = new long[16];
+    private String[] auctionIds = new String[16];
+    private int size;
+
+    void add(String auctionId, long endTimeEpochMs) {
+        int index = find(auctionId, endTimeEpochMs);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == endTimes.length) {
+            endTimes = Arrays.copyOf(endTimes, size * 2);
+            auctionIds = Arrays.copyOf(auctionIds, size * 2);
+        }
+        System.arraycopy(endTimes, insertAt, endTimes, insertAt + 1, size - insertAt);
+        System.arraycopy(auctionIds, insertAt, auctionIds, insertAt + 1, size - insertAt);
+        endTimes[insertAt] = endTimeEpochMs;
+        auctionIds[insertAt] = auctionId;
+        size++;
+    }
+
+    /**
+     * @return {@code true} if the entry was indexed, so exactly one of several concurrent callers claims it
+     */
+    boolean remove(String auctionId, long endTimeEpochMs) {
+        int index = find(auctionId, endTimeEpochMs);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(endTimes, index + 1, endTimes, index, size - index - 1);
+        System.arraycopy(auctionIds, index + 1, auctionIds, index, size - index - 1);
+        size--;
+        auctionIds[size] = null;
+        return true;
+    }
+
+    boolean contains(String auctionId, long endTimeEpochMs) {
+        return find(auctionId, endTimeEpochMs) >= 0;
+    }
+
+    /**
+     * @return up to {@code limit} entries ending at or before {@code untilEpochMs}, earliest first
+     */
+    List<AuctionStore.ScheduledClose> until(long untilEpochMs, int limit) {
+        List<AuctionStore.ScheduledClose> closes = new ArrayList<>();
+        for (int i = 0; i < size && closes.size() < limit && endTimes[i] <= untilEpochMs; i++) {
+            closes.add(new AuctionStore.ScheduledClose(auctionIds[i], endTimes[i]));
+        }
+        return closes;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(String auctionId, long endTimeEpochMs) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = endTimes[mid] != endTimeEpochMs
+                    ? Long.compare(endTimes[mid], endTimeEpochMs)
+                    : auctionIds[mid].compareTo(auctionId);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bidengine.store;
+
+/**
+ * Expiring leases that let instances split work. A lease has one owner at a time; the owner renews it by acquiring it
+ * again before it expires, and anyone can take it over once it has expired. Instances sharing a group of leases also
+ * heartbeat into the group, so each can tell how many instances are alive to split the group among.
+ * {@code RedisLeaseRepository} keeps them in Dragonfly; {@link EmbeddedLeaseRepository} in the JVM.
+ */
+public interface LeaseRepository {
+
+    boolean tryAcquire(String name, String owner, long ttlMs);
+
+    void release(String name, String owner);
+
+    /**
+     * Marks {@code owner} alive in {@code group} for {@code ttlMs}.
+     *
+     * @return the number of live members, including {@code owner}
+     */
+    int heartbeat(String group, String owner, long ttlMs);
+
+    void leave(String group, String owner);
+}
@@ -1,6 +1,7 @@
 package com.example.bidengine.api;
 
 import com.example.bidengine.service.AuctionService;
+import com.example.bidengine.service.EventBackpressureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -31,7 +32,7 @@ class AuctionControllerTest {
     void createAuctionReturns201() throws Exception {
         AuctionResponse response = new AuctionResponse(
                 "a1", "s1", "title", "desc", "OPEN",
-                100, 200L, 10, 20, null, null, 10, 10
+                100, 200L, 10, 20, null, null, 10, 10, 0
         );
         Mockito.when(auctionService.createAuction(any(CreateAuctionRequest.class))).thenReturn(response);
 
@@ -103,6 +104,81 @@ class AuctionControllerTest {
                 .andExpect(jsonPath("$.highestBid").value(150));
     }
 
+    @Test
+    void placeBidRateLimitedReturns429WithRetryAfter() throws Exception {
+        PlaceBidResponse response = new PlaceBidResponse("b1", "a1", "RATE_LIMITED", null, null, 1200L);
+        Mockito.when(auctionService.placeBid(eq("a1"), any(PlaceBidRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/auctions/a1/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bidderId":"u1","amount":150}
+                                """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.retryAfterMs").value(1200));
+    }
+
+    @Test
+    void placeBidReturns503WhenEventsAreBacklogged() throws Exception {
+        Mockito.when(auctionService.placeBid(eq("a1"), any(PlaceBidRequest.class)))
+                .thenThrow(new EventBackpressureException("2 events await acknowledgement by Kafka"));
+
+        mockMvc.perform(post("/auctions/a1/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bidderId":"u1","amount":150}
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("EVENTS_BACKLOGGED"));
+    }
+
+    @Test
+    void proxyBidReturnsOkWhenOutbidByAStandingProxy() throws Exception {
+        PlaceBidResponse response = new PlaceBidResponse("b2", "a1", "OUTBID", 1550L, "u1");
+        Mockito.when(auctionService.proxyBid(eq("a1"), eq(new ProxyBidRequest("u2", 1500L)))).thenReturn(response);
+
+        mockMvc.perform(post("/auctions/a1/proxy-bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bidderId":"u2","maxAmount":1500}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OUTBID"))
+                .andExpect(jsonPath("$.highestBidderId").value("u1"));
+    }
+
+    @Test
+    void placeBidsReturnsResultsInOrder() throws Exception {
+        Mockito.when(auctionService.placeBids(List.of(
+                        new BulkBidRequest.Bid("a1", "u1", 150L),
+                        new BulkBidRequest.Bid("a2", "u1", 90L))))
+                .thenReturn(List.of(
+                        new PlaceBidResponse("b1", "a1", "OK", 150L, "u1"),
+                        new PlaceBidResponse("b2", "a2", "BELOW_START", null, null)));
+
+        mockMvc.perform(post("/auctions/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bids":[{"auctionId":"a1","bidderId":"u1","amount":150},
+                                         {"auctionId":"a2","bidderId":"u1","amount":90}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("OK"))
+                .andExpect(jsonPath("$.results[1].status").value("BELOW_START"));
+    }
+
+    @Test
+    void placeBidsBadRequestOnInvalidBid() throws Exception {
+        mockMvc.perform(post("/auctions/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bids":[{"auctionId":"a1","bidderId":"u1","amount":-5}]}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void listBidsOk() throws Exception {
         Mockito.when(auctionService.listTopBids("a1", 2))
@@ -0,0 +1,191 @@
+package com.example.bidengine.api;
+
+import com.example.bidengine.service.AuctionUpdateBroadcaster;
+import com.example.bidengine.service.EventBackpressureException;
+import com.example.bidengine.service.ReactiveAuctionService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class ReactiveAuctionHandlerTest {
+    private WebTestClient client;
+    private ReactiveAuctionService auctionService;
+
+    @BeforeEach
+    void setUp() {
+        auctionService = Mockito.mock(ReactiveAuctionService.class);
+        ReactiveAuctionHandler handler = new ReactiveAuctionHandler(auctionService,
+                new AuctionUpdateBroadcaster(10), Validation.buildDefaultValidatorFactory().getValidator());
+        client = WebTestClient.bindToRouterFunction(new ReactiveAuctionRoutes().auctionRoutes(handler)).build();
+    }
+
+    @Test
+    void createAuctionReturns201() {
+        AuctionResponse response = new AuctionResponse(
+                "a1", "s1", "title", "desc", "OPEN",
+                100, 200L, 10, 20, null, null, 10, 10, 0
+        );
+        Mockito.when(auctionService.createAuction(any(CreateAuctionRequest.class))).thenReturn(Mono.just(response));
+
+        client.post().uri("/auctions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"sellerId":"s1","title":"t","description":"d","startingPrice":100,
+                         "reservePrice":200,"startTimeEpochMs":10,"endTimeEpochMs":20}
+                        """)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.auctionId").isEqualTo("a1");
+    }
+
+    @Test
+    void createAuctionBadRequestOnValidation() {
+        client.post().uri("/auctions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("VALIDATION_ERROR");
+    }
+
+    @Test
+    void createAuctionBadRequestOnServiceError() {
+        Mockito.when(auctionService.createAuction(any(CreateAuctionRequest.class)))
+                .thenReturn(Mono.error(new IllegalArgumentException("bad")));
+
+        client.post().uri("/auctions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"sellerId":"s1","title":"t","startingPrice":100,
+                         "startTimeEpochMs":10,"endTimeEpochMs":20}
+                        """)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("INVALID_AUCTION_TIME");
+    }
+
+    @Test
+    void getAuctionNotFound() {
+        Mockito.when(auctionService.getAuction("missing")).thenReturn(Mono.empty());
+
+        client.get().uri("/auctions/missing")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void placeBidMapsConflict() {
+        Mockito.when(auctionService.placeBid(eq("a1"), any(PlaceBidRequest.class)))
+                .thenReturn(Mono.just(new PlaceBidResponse("b1", "a1", "BELOW_HIGHEST", null, null)));
+
+        client.post().uri("/auctions/a1/bids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"bidderId\":\"u1\",\"amount\":100}")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.status").isEqualTo("BELOW_HIGHEST");
+    }
+
+    @Test
+    void placeBidReturns503WhenEventsAreBacklogged() {
+        Mockito.when(auctionService.placeBid(eq("a1"), any(PlaceBidRequest.class)))
+                .thenReturn(Mono.error(new EventBackpressureException("1 events await acknowledgement by Kafka")));
+
+        client.post().uri("/auctions/a1/bids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"bidderId\":\"u1\",\"amount\":100}")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "1")
+                .expectBody().jsonPath("$.code").isEqualTo("EVENTS_BACKLOGGED");
+    }
+
+    @Test
+    void placeBidsReturnsResultsInOrder() {
+        Mockito.when(auctionService.placeBids(List.of(
+                        new BulkBidRequest.Bid("a1", "u1", 150L),
+                        new BulkBidRequest.Bid("a2", "u1", 90L))))
+                .thenReturn(Flux.just(
+                        new PlaceBidResponse("b1", "a1", "OK", 150L, "u1"),
+                        new PlaceBidResponse("b2", "a2", "BELOW_START", null, null)));
+
+        client.post().uri("/auctions/bids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"bids\":[{\"auctionId\":\"a1\",\"bidderId\":\"u1\",\"amount\":150},"
+                        + "{\"auctionId\":\"a2\",\"bidderId\":\"u1\",\"amount\":90}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].bidId").isEqualTo("b1")
+                .jsonPath("$.results[1].status").isEqualTo("BELOW_START");
+    }
+
+    @Test
+    void placeBidsRejectsEmptyBatch() {
+        client.post().uri("/auctions/bids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"bids\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("VALIDATION_ERROR");
+    }
+
+    @Test
+    void closeAuctionReturnsOk() {
+        Mockito.when(auctionService.closeAuction("a1"))
+                .thenReturn(Mono.just(new CloseAuctionResponse("a1", "CLOSED", 200L, "u1")));
+
+        client.post().uri("/auctions/a1/close")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.winningBid").isEqualTo(200);
+    }
+
+    @Test
+    void listBidsPassesLimit() {
+        Mockito.when(auctionService.listTopBids("a1", 2))
+                .thenReturn(Flux.just(new BidResponse("b1", "a1", "u1", 200, 10)));
+
+        client.get().uri("/auctions/a1/bids?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].bidId").isEqualTo("b1");
+    }
+
+    @Test
+    void streamOfClosedAuctionSendsClosedEventAndCompletes() {
+        AuctionResponse closed = new AuctionResponse(
+                "a1", "s1", "title", null, "CLOSED", 100, null, 10, 20, 200L, "u1", 10, 30, 2);
+        Mockito.when(auctionService.getAuction("a1")).thenReturn(Mono.just(closed));
+        Mockito.when(auctionService.readAuction("a1")).thenReturn(Mono.just(closed));
+
+        String body = client.get().uri("/auctions/a1/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).contains("event:closed").contains("id:2").contains("\"highestBid\":200");
+    }
+
+    @Test
+    void streamOfMissingAuctionReturns404() {
+        Mockito.when(auctionService.getAuction("missing")).thenReturn(Mono.empty());
+
+        client.get().uri("/auctions/missing/stream")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bidengine.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuctionEventCodecTest {
+    private static final AuctionEvent CREATED = new AuctionEvent("e1", "AUCTION_CREATED", "a1", 1_000L,
+            "seller-1", "Vintage Watch", null, 100L, null, 900L, 2_000L, null, null, null, "OPEN", 0L);
+    private static final AuctionEvent BID = new AuctionEvent("e2", "BID_PLACED", "a1", 1_100L,
+            null, null, null, null, null, null, null, "b1", "bidder-\u00e9", 150L, "OPEN", 7L);
+    private static final AuctionEvent CLOSED_NO_SALE = new AuctionEvent("e3", "AUCTION_CLOSED", "a1", 2_000L,
+            null, null, null, null, null, null, null, null, null, null, "CLOSED_NO_SALE", 8L);
+
+    @Test
+    void roundTripsEveryEventType() {
+        assertThat(AuctionEventCodec.decode(AuctionEventCodec.encode(CREATED))).isEqualTo(CREATED);
+        assertThat(AuctionEventCodec.decode(AuctionEventCodec.encode(BID))).isEqualTo(BID);
+        assertThat(AuctionEventCodec.decode(AuctionEventCodec.encode(CLOSED_NO_SALE))).isEqualTo(CLOSED_NO_SALE);
+    }
+
+    @Test
+    void roundTripsEventsWithoutSeq() {
+        AuctionEvent legacy = new AuctionEvent("e4", "AUCTION_CLOSED", "a1", 2_000L, null, null, null, null, null,
+                null, null, null, "u1", 300L, "CLOSED", null);
+
+        assertThat(AuctionEventCodec.decode(AuctionEventCodec.encode(legacy))).isEqualTo(legacy);
+    }
+
+    @Test
+    void bidEventIsMuchSmallerThanJson() {
+        try (JsonSerializer<AuctionEvent> json = new JsonSerializer<>()) {
+            int jsonSize = json.serialize("auction-events", BID).length;
+            int binarySize = AuctionEventCodec.encode(BID).length;
+
+            assertThat(binarySize).isLessThan(jsonSize / 5);
+        }
+    }
+
+    @Test
+    void deserializerAcceptsBothFormats() {
+        try (AuctionEventDeserializer deserializer = new AuctionEventDeserializer();
+             JsonSerializer<AuctionEvent> json = new JsonSerializer<>()) {
+            deserializer.configure(Map.of(
+                    "spring.json.trusted.packages", "com.example.bidengine.events",
+                    "spring.json.value.default.type", AuctionEvent.class.getName()), false);
+
+            assertThat(deserializer.deserialize("auction-events", new AuctionEventBinarySerializer()
+                    .serialize("auction-events", BID))).isEqualTo(BID);
+            assertThat(deserializer.deserialize("auction-events", json.serialize("auction-events", BID)))
+                    .isEqualTo(BID);
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] data = AuctionEventCodec.encode(BID);
+        data[1] = 9;
+
+        assertThatThrownBy(() -> AuctionEventCodec.decode(data)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bidengine.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+    @Test
+    void idsAreFixedWidthAndSortInGenerationOrder() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(13));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockStepsBackOrTheSequenceOverflows() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MS + 1_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(generator.nextId());
+        }
+        clock.addAndGet(-500);
+        for (int i = 0; i < 100; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(SnowflakeIdGenerator.timestampMillis(ids.get(0))).isEqualTo(SnowflakeIdGenerator.EPOCH_MS + 1_000);
+    }
+
+    @Test
+    void workersProduceDistinctIdsConcurrently() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+        IntStream.range(0, 20_000).parallel().forEach(i -> ids.add((i % 2 == 0 ? first : second).nextId()));
+
+        assertThat(ids).hasSize(20_000);
+    }
+
+    @Test
+    void rejectsWorkerIdOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bidengine.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7IdGeneratorTest {
+    @Test
+    void idsAreFixedWidthAndSortInGenerationOrder() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(() -> 1_750_000_000_000L);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(26).matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void encodesTimestampVersionAndVariant() {
+        String id = new UuidV7IdGenerator(() -> 1_750_000_000_000L).nextId();
+
+        long high = (Crockford32.decode(id, 0, 1) << 61) | Crockford32.decode(id, 1, 12) << 1
+                | Crockford32.decode(id, 13, 1) >>> 4;
+        long lowTop = Crockford32.decode(id, 13, 1) & 0xF;
+
+        assertThat(high >>> 16).isEqualTo(1_750_000_000_000L);
+        assertThat((high >>> 12) & 0xF).isEqualTo(7L);
+        assertThat(lowTop >>> 2).isEqualTo(2L);
+    }
+
+    @Test
+    void concurrentCallersGetDistinctIds() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 20_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+        assertThat(ids).hasSize(20_000);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bidengine.integration.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.BidStorageMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionBidStorageFootprintIntegrationTest {
+    private static final int BIDS = 2_000;
+
+    private static final GenericContainer<?> DRAGONFLY =
+            new GenericContainer<>("dragonflydb/dragonfly:v1.27.1")
+                    .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> template;
+
+    @BeforeAll
+    static void startContainer() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Docker not available for Testcontainers");
+        DRAGONFLY.start();
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        DRAGONFLY.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(DRAGONFLY.getHost(), DRAGONFLY.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        template.setKeySerializer(serializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void compactModeStoresBidsInFewerBytes() {
+        long hashBytes = bytesPerBid(BidStorageMode.HASH, "footprint-hash");
+        long compactBytes = bytesPerBid(BidStorageMode.COMPACT, "footprint-compact");
+
+        // Dropping the per-bid hash key at least halves the footprint.
+        assertThat(compactBytes).isPositive().isLessThanOrEqualTo(hashBytes / 2);
+    }
+
+    @Test
+    void compactModeReturnsSameBidResponsesAndExpiresAfterClose() {
+        AuctionRedisRepository repository = new AuctionRedisRepository(template, BidStorageMode.COMPACT, 60_000L);
+        long now = createAuction(repository, "compact-a1");
+        repository.placeBid("compact-a1", "b1", "u1", 150, now, "e1");
+        repository.placeBid("compact-a1", "b2", "u|2", 160, now + 1, "e2");
+
+        List<BidResponse> bids = repository.listTopBids("compact-a1", 10);
+        assertThat(bids).containsExactly(
+                new BidResponse("b2", "compact-a1", "u|2", 160, now + 1),
+                new BidResponse("b1", "compact-a1", "u1", 150, now)
+        );
+
+        repository.closeAuction("compact-a1", now + 2, "e3");
+        Long ttl = template.getExpire("auction:{compact-a1}:bids");
+        assertThat(ttl).isPositive();
+    }
+
+    private long bytesPerBid(BidStorageMode mode, String auctionId) {
+        AuctionRedisRepository repository = new AuctionRedisRepository(template, mode, 0L);
+        long now = createAuction(repository, auctionId);
+        long before = memoryUsage(auctionId);
+        for (int i = 0; i < BIDS; i++) {
+            repository.placeBid(auctionId, UUID.randomUUID().toString(), "bidder-" + (i % 100),
+                    1_000 + i, now + i, "e" + i);
+        }
+        return (memoryUsage(auctionId) - before) / BIDS;
+    }
+
+    private long createAuction(AuctionRedisRepository repository, String auctionId) {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                auctionId, "seller-1", "Footprint", null, "OPEN",
+                100, null, now - 1000, now + 600_000, null, null, now, now, 0
+        ), "created-" + auctionId);
+        return now;
+    }
+
+    private long memoryUsage(String auctionId) {
+        Set<String> keys = template.keys("*{" + auctionId + "}*");
+        long total = 0;
+        if (keys == null) {
+            return total;
+        }
+        for (String key : keys) {
+            Long bytes = template.execute((RedisCallback<Long>) connection -> (Long) connection.execute(
+                    "MEMORY",
+                    "USAGE".getBytes(StandardCharsets.UTF_8),
+                    key.getBytes(StandardCharsets.UTF_8)));
+            total += bytes == null ? 0 : bytes;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bidengine.integration.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.redis.AuctionKeyMigrator;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionKeyMigratorIntegrationTest {
+    private static final GenericContainer<?> DRAGONFLY =
+            new GenericContainer<>("dragonflydb/dragonfly:latest")
+                    .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> template;
+
+    @BeforeAll
+    static void startContainer() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Docker not available for Testcontainers");
+        DRAGONFLY.start();
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        DRAGONFLY.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(DRAGONFLY.getHost(), DRAGONFLY.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        template.setKeySerializer(serializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void migratesLegacyKeysToHashTaggedLayout() {
+        long now = Instant.now().toEpochMilli();
+        template.opsForHash().putAll("auction:legacy-1", Map.of(
+                "auctionId", "legacy-1",
+                "sellerId", "seller-1",
+                "title", "Old Lamp",
+                "description", "",
+                "status", "OPEN",
+                "startingPrice", "100",
+                "startTimeEpochMs", String.valueOf(now - 1000),
+                "endTimeEpochMs", String.valueOf(now + 60_000),
+                "createdAtEpochMs", String.valueOf(now),
+                "updatedAtEpochMs", String.valueOf(now)
+        ));
+        template.opsForHash().putAll("bid:b1", Map.of(
+                "bidId", "b1",
+                "auctionId", "legacy-1",
+                "bidderId", "u1",
+                "amount", "150",
+                "placedAtEpochMs", String.valueOf(now)
+        ));
+        template.opsForZSet().add("auction:legacy-1:bids", "b1", 150);
+        template.opsForZSet().add("auctions:byEndTime", "legacy-1", now + 60_000);
+
+        AuctionKeyMigrator migrator = new AuctionKeyMigrator(template, 1);
+        int migrated = migrator.migrate();
+        int scheduled = migrator.migrateEndTimeIndex();
+
+        assertThat(migrated).isEqualTo(1);
+        assertThat(scheduled).isEqualTo(1);
+        assertThat(template.hasKey("auctions:byEndTime")).isFalse();
+        assertThat(template.hasKey("auction:legacy-1")).isFalse();
+        assertThat(template.hasKey("auction:legacy-1:bids")).isFalse();
+        assertThat(template.hasKey("bid:b1")).isFalse();
+
+        AuctionRedisRepository repository = new AuctionRedisRepository(template);
+        AuctionResponse auction = repository.getAuction("legacy-1");
+        assertThat(auction).isNotNull();
+        assertThat(auction.title()).isEqualTo("Old Lamp");
+        List<BidResponse> bids = repository.listTopBids("legacy-1", 10);
+        assertThat(bids).extracting(BidResponse::bidderId).containsExactly("u1");
+        assertThat(repository.listAuctionsEndingBefore(0, now + 120_000, 10)).containsExactly("legacy-1");
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.bidengine.integration.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.redis.AuctionOutboxRepository;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.BidStorageMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionOutboxIntegrationTest {
+    private static final GenericContainer<?> DRAGONFLY =
+            new GenericContainer<>("dragonflydb/dragonfly:latest")
+                    .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> template;
+    private AuctionRedisRepository repository;
+    private AuctionOutboxRepository outbox;
+
+    @BeforeAll
+    static void startContainer() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Docker not available for Testcontainers");
+        DRAGONFLY.start();
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        DRAGONFLY.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(DRAGONFLY.getHost(), DRAGONFLY.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        template.setKeySerializer(serializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+        template.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        repository = new AuctionRedisRepository(template, BidStorageMode.HASH, 0L, 1, true);
+        outbox = new AuctionOutboxRepository(template, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void scriptsAppendEventsInCommitOrder() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(auction("a1", now + 60_000), "e1");
+        repository.placeBid("a1", "b1", "u1", 150, now, "e2");
+        repository.placeBid("a1", "b2", "u2", 120, now, "e-rejected");
+        repository.closeAuction("a1", now + 1000, "e3");
+
+        List<AuctionOutboxRepository.OutboxEntry> entries = read("a1", 10);
+
+        assertThat(entries).extracting(entry -> entry.event().eventId()).containsExactly("e1", "e2", "e3");
+        AuctionEvent created = entries.get(0).event();
+        assertThat(created.eventType()).isEqualTo("AUCTION_CREATED");
+        assertThat(created.title()).isEqualTo("Lot a1");
+        assertThat(created.reservePrice()).isEqualTo(100L);
+        assertThat(created.seq()).isZero();
+        AuctionEvent bid = entries.get(1).event();
+        assertThat(bid.eventType()).isEqualTo("BID_PLACED");
+        assertThat(bid.bidId()).isEqualTo("b1");
+        assertThat(bid.amount()).isEqualTo(150L);
+        assertThat(bid.seq()).isEqualTo(1L);
+        AuctionEvent closed = entries.get(2).event();
+        assertThat(closed.eventType()).isEqualTo("AUCTION_CLOSED");
+        assertThat(closed.status()).isEqualTo("CLOSED");
+        assertThat(closed.bidderId()).isEqualTo("u1");
+        assertThat(closed.amount()).isEqualTo(150L);
+        assertThat(closed.seq()).isEqualTo(2L);
+
+        assertThat(outbox.acknowledge(Map.of("a1", List.of(entries.get(0).id())))).containsExactly("a1");
+        assertThat(read("a1", 10)).extracting(entry -> entry.event().eventId()).containsExactly("e2", "e3");
+        assertThat(outbox.acknowledge(Map.of("a1", entries.subList(1, 3).stream()
+                .map(AuctionOutboxRepository.OutboxEntry::id).toList()))).isEmpty();
+        assertThat(template.hasKey("outbox:{a1}")).isFalse();
+    }
+
+    @Test
+    void closeExpiredAppendsTheCloseToTheAuctionsStream() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(auction("exp-1", now - 500), "e1");
+        repository.createAuction(auction("open-1", now + 60_000), "e2");
+        List<String> ids = List.of("close-1", "close-2");
+        var next = ids.iterator();
+
+        repository.closeExpiredAuctions(0, now, 10, next::next);
+
+        assertThat(read("exp-1", 10)).extracting(entry -> entry.event().eventType())
+                .containsExactly("AUCTION_CREATED", "AUCTION_CLOSED");
+        AuctionEvent closed = read("exp-1", 10).get(1).event();
+        assertThat(closed.eventId()).isEqualTo("close-1");
+        assertThat(closed.status()).isEqualTo("CLOSED_NO_SALE");
+        assertThat(closed.amount()).isNull();
+        assertThat(read("open-1", 10)).extracting(entry -> entry.event().eventType())
+                .containsExactly("AUCTION_CREATED");
+    }
+
+    @Test
+    void sweepFindsStreamsWithEntriesAndUnregistersDrainedAuctions() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(auction("open-1", now + 60_000), "e1");
+        repository.createAuction(auction("closed-1", now + 60_000), "e2");
+        repository.closeAuction("closed-1", now, "e3");
+        template.opsForZSet().add("outbox:auctions:{0}", "never-created", now - 120_000);
+
+        assertThat(outbox.sweep(0, 0, 10, now - 60_000).pending()).containsExactlyInAnyOrder("open-1", "closed-1");
+
+        Map<String, List<String>> sent = new HashMap<>();
+        outbox.read(List.of("open-1", "closed-1"), 10).forEach((auctionId, entries) -> sent.put(auctionId,
+                entries.stream().map(AuctionOutboxRepository.OutboxEntry::id).toList()));
+        assertThat(outbox.acknowledge(sent)).isEmpty();
+        assertThat(outbox.sweep(0, 0, 10, now - 60_000).pending()).isEmpty();
+        assertThat(template.opsForZSet().range("outbox:auctions:{0}", 0, -1)).containsExactly("open-1");
+    }
+
+    @Test
+    void sweepPagesThroughTheRegistryWithoutSkippingUnregisteredAuctions() {
+        long now = Instant.now().toEpochMilli();
+        for (String auctionId : List.of("c1", "c2", "o1", "o2")) {
+            repository.createAuction(auction(auctionId, now + 60_000), "e-" + auctionId);
+        }
+        repository.closeAuction("c1", now, "close-c1");
+        repository.closeAuction("c2", now, "close-c2");
+        Map<String, List<String>> closed = new HashMap<>();
+        outbox.read(List.of("c1", "c2"), 10).forEach((auctionId, entries) -> closed.put(auctionId,
+                entries.stream().map(AuctionOutboxRepository.OutboxEntry::id).toList()));
+        outbox.acknowledge(closed);
+
+        AuctionOutboxRepository.SweepPage first = outbox.sweep(0, 0, 2, now - 60_000);
+        AuctionOutboxRepository.SweepPage second = outbox.sweep(0, first.nextOffset(), 2, now - 60_000);
+
+        assertThat(first.pending()).isEmpty();
+        assertThat(first.last()).isFalse();
+        assertThat(first.nextOffset()).isZero();
+        assertThat(second.pending()).containsExactly("o1", "o2");
+        assertThat(second.nextOffset()).isEqualTo(2);
+        assertThat(outbox.sweep(0, second.nextOffset(), 2, now - 60_000).last()).isTrue();
+    }
+
+    private List<AuctionOutboxRepository.OutboxEntry> read(String auctionId, int count) {
+        return outbox.read(List.of(auctionId), count).getOrDefault(auctionId, List.of());
+    }
+
+    private static AuctionResponse auction(String auctionId, long endTime) {
+        long now = Instant.now().toEpochMilli();
+        return new AuctionResponse(auctionId, "seller-1", "Lot " + auctionId, null, "OPEN",
+                100, 100L, now - 10_000, endTime, null, null, now, now, 0);
+    }
+}
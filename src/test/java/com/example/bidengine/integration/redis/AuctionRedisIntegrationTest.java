@@ -3,6 +3,11 @@ package com.example.bidengine.integration.redis;
 import com.example.bidengine.api.AuctionResponse;
 import com.example.bidengine.api.BidResponse;
 import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.AuctionSnapshotCache;
+import com.example.bidengine.redis.AuctionUpdateMessages;
+import com.example.bidengine.redis.BidStorageMode;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.BidRateLimits;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -11,12 +16,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assumptions;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.DockerClientFactory;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,6 +33,7 @@ class AuctionRedisIntegrationTest {
                     .withExposedPorts(6379);
 
     private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> template;
     private AuctionRedisRepository repository;
 
     @BeforeAll
@@ -45,7 +53,7 @@ class AuctionRedisIntegrationTest {
         connectionFactory = new LettuceConnectionFactory(DRAGONFLY.getHost(), DRAGONFLY.getMappedPort(6379));
         connectionFactory.afterPropertiesSet();
 
-        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         StringRedisSerializer serializer = new StringRedisSerializer();
         template.setKeySerializer(serializer);
@@ -80,11 +88,12 @@ class AuctionRedisIntegrationTest {
                 null,
                 null,
                 now,
-                now
+                now,
+                0
         );
-        repository.createAuction(auction);
+        repository.createAuction(auction, "e1");
 
-        var bidResult = repository.placeBid("a1", "b1", "u1", 150, now);
+        var bidResult = repository.placeBid("a1", "b1", "u1", 150, now, "e2");
         assertThat(bidResult.ok()).isTrue();
         assertThat(bidResult.highestBid()).isEqualTo(150L);
         assertThat(bidResult.highestBidderId()).isEqualTo("u1");
@@ -93,9 +102,215 @@ class AuctionRedisIntegrationTest {
         assertThat(bids).hasSize(1);
         assertThat(bids.get(0).amount()).isEqualTo(150L);
 
-        var close = repository.closeAuction("a1", now + 1000);
+        var close = repository.closeAuction("a1", now + 1000, "e3");
         assertThat(close.ok()).isTrue();
         assertThat(close.highestBid()).isEqualTo(150L);
         assertThat(close.highestBidderId()).isEqualTo("u1");
     }
+
+    @Test
+    void placeBidsPipelinesBidsAcrossAuctionsInOrder() {
+        long now = Instant.now().toEpochMilli();
+        for (String auctionId : List.of("bulk-1", "bulk-2", "bulk-3")) {
+            repository.createAuction(new AuctionResponse(
+                    auctionId, "seller-1", "Lot " + auctionId, null, "OPEN",
+                    100, null, now - 1000, now + 60_000, null, null, now, now, 0
+            ), "created-" + auctionId);
+        }
+
+        var results = repository.placeBids(List.of(
+                new AuctionStore.BidCommand("bulk-1", "b1", "u1", 150, "e1"),
+                new AuctionStore.BidCommand("bulk-2", "b2", "u2", 90, "e2"),
+                new AuctionStore.BidCommand("bulk-1", "b3", "u3", 140, "e3"),
+                new AuctionStore.BidCommand("missing", "b4", "u4", 500, "e4"),
+                new AuctionStore.BidCommand("bulk-3", "b5", "u5", 100, "e5"),
+                new AuctionStore.BidCommand("bulk-1", "b6", "u6", 160, "e6")), now);
+
+        assertThat(results).extracting(r -> r.ok() ? "OK" : r.errorCode())
+                .containsExactly("OK", "BELOW_START", "BELOW_HIGHEST", "NOT_FOUND", "OK", "OK");
+        assertThat(results.get(5).highestBid()).isEqualTo(160L);
+        assertThat(results.get(5).seq()).isEqualTo(2L);
+        assertThat(repository.getAuction("bulk-1").highestBidderId()).isEqualTo("u6");
+        assertThat(repository.getAuction("bulk-3").highestBid()).isEqualTo(100L);
+    }
+
+    @Test
+    void placeAuctionBidsEvaluatesAGroupInOrderInOneCall() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                "group-1", "seller-1", "Lot group-1", null, "OPEN",
+                100, null, now - 1000, now + 60_000, null, null, now, now, 0
+        ), "e0");
+        repository.proxyBid("group-1", "b0", "u0", 170, now, "e0-proxy");
+
+        var results = repository.placeAuctionBids("group-1", List.of(
+                new AuctionStore.TimedBid(new AuctionStore.BidCommand(
+                        "group-1", "b1", "u1", 90, "e1"), now),
+                new AuctionStore.TimedBid(new AuctionStore.BidCommand(
+                        "group-1", "b2", "u2", 150, "e2"), now),
+                new AuctionStore.TimedBid(new AuctionStore.BidCommand(
+                        "group-1", "b3", "u3", 140, "e3"), now),
+                new AuctionStore.TimedBid(new AuctionStore.BidCommand(
+                        "group-1", "b4", "u4", 200, "e4"), now + 1)));
+
+        assertThat(results).extracting(r -> r.ok() ? r.status() : r.errorCode())
+                .containsExactly("BELOW_START", "OUTBID", "BELOW_HIGHEST", "OK");
+        assertThat(results.get(1).placed()).extracting(AuctionStore.PlacedBid::bidId)
+                .containsExactly("b2", "b2-proxy");
+        assertThat(results.get(1).highestBid()).isEqualTo(170L);
+        assertThat(results.get(3).placed()).containsExactly(new AuctionStore.PlacedBid("b4", "u4", 200, 4));
+        assertThat(repository.getAuction("group-1").highestBidderId()).isEqualTo("u4");
+    }
+
+    @Test
+    void proxyBidsResolveBiddingWarsInOneCall() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                "proxy-1", "seller-1", "Lot proxy-1", null, "OPEN",
+                1000, null, now - 1000, now + 60_000, null, null, now, now, 0
+        ), "e0");
+
+        var opening = repository.proxyBid("proxy-1", "b1", "u1", 2000, now, "e1");
+        assertThat(opening.status()).isEqualTo("OK");
+        assertThat(opening.highestBid()).isEqualTo(1000L);
+
+        var outbid = repository.proxyBid("proxy-1", "b2", "u2", 1500, now, "e2");
+        assertThat(outbid.status()).isEqualTo("OUTBID");
+        assertThat(outbid.placed()).containsExactly(
+                new AuctionStore.PlacedBid("b2", "u2", 1500, 2),
+                new AuctionStore.PlacedBid("b2-proxy", "u1", 1550, 3));
+
+        var manualOutbid = repository.placeBid("proxy-1", "b3", "u3", 1600, now, "e3");
+        assertThat(manualOutbid.status()).isEqualTo("OUTBID");
+        assertThat(manualOutbid.highestBid()).isEqualTo(1650L);
+        assertThat(manualOutbid.highestBidderId()).isEqualTo("u1");
+
+        var overMax = repository.placeBid("proxy-1", "b4", "u3", 2500, now, "e4");
+        assertThat(overMax.status()).isEqualTo("OK");
+        assertThat(overMax.placed()).extracting(AuctionStore.PlacedBid::amount).containsExactly(2000L, 2500L);
+        assertThat(repository.proxyBid("proxy-1", "b5", "u1", 2400, now, "e5").errorCode())
+                .isEqualTo("BELOW_HIGHEST");
+        assertThat(repository.listTopBids("proxy-1", 10)).extracting(BidResponse::amount)
+                .containsExactly(2500L, 2000L, 1650L, 1600L, 1550L, 1500L, 1000L);
+    }
+
+    @Test
+    void proxyBidOpensAtTheReserveItCovers() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                "proxy-2", "seller-1", "Lot proxy-2", null, "OPEN",
+                100, 1000L, now - 1000, now + 60_000, null, null, now, now, 0
+        ), "e0");
+
+        assertThat(repository.proxyBid("proxy-2", "b1", "u1", 800, now, "e1").highestBid()).isEqualTo(100L);
+        var raised = repository.proxyBid("proxy-2", "b2", "u1", 5000, now, "e2");
+
+        assertThat(raised.status()).isEqualTo("OK");
+        assertThat(raised.highestBid()).isEqualTo(1000L);
+        assertThat(repository.proxyBid("proxy-2", "b3", "u1", 4000, now, "e3").errorCode()).isEqualTo("BELOW_MAX");
+    }
+
+    @Test
+    void rateLimitsCountRejectedBidsAndRefill() {
+        AuctionRedisRepository limited = new AuctionRedisRepository(template, BidStorageMode.HASH, 0L, 1, false,
+                new BidRateLimits(2, 10, 0, 0));
+        long now = Instant.now().toEpochMilli();
+        limited.createAuction(new AuctionResponse(
+                "limited-1", "seller-1", "Lot limited-1", null, "OPEN",
+                100, null, now - 1000, now + 60_000, null, null, now, now, 0
+        ), "e0");
+
+        assertThat(limited.placeBid("limited-1", "b1", "u1", 150, now, "e1").ok()).isTrue();
+        assertThat(limited.placeBid("limited-1", "b2", "u1", 140, now, "e2").errorCode()).isEqualTo("BELOW_HIGHEST");
+        var limitedBid = limited.placeBid("limited-1", "b3", "u1", 200, now, "e3");
+        assertThat(limitedBid.errorCode()).isEqualTo("RATE_LIMITED");
+        assertThat(limitedBid.retryAfterMs()).isEqualTo(100L);
+        assertThat(limited.placeBid("limited-1", "b4", "u2", 200, now, "e4").ok()).isTrue();
+
+        assertThat(limited.placeBid("limited-1", "b5", "u1", 250, now + 100, "e5").ok()).isTrue();
+    }
+
+    @Test
+    void closeExpiredAuctionsClaimsEachAuctionOnce() {
+        long now = Instant.now().toEpochMilli();
+        for (String auctionId : List.of("exp-1", "exp-2", "future-1")) {
+            long endTime = auctionId.startsWith("exp") ? now + 100 : now + 60_000;
+            repository.createAuction(new AuctionResponse(
+                    auctionId, "seller-1", "Lot " + auctionId, null, "OPEN",
+                    100, 200L, now - 1000, endTime, null, null, now, now, 0
+            ), "created-" + auctionId);
+        }
+        repository.placeBid("exp-1", "b1", "u1", 250, now, "e1");
+
+        var closed = repository.closeExpiredAuctions(0, now + 1000, 10, () -> UUID.randomUUID().toString());
+
+        assertThat(closed).extracting(AuctionStore.ClosedAuction::auctionId)
+                .containsExactlyInAnyOrder("exp-1", "exp-2");
+        var sold = closed.stream().filter(c -> c.auctionId().equals("exp-1")).findFirst().orElseThrow();
+        assertThat(sold.endTimeEpochMs()).isEqualTo(now + 100);
+        assertThat(sold.result().status()).isEqualTo("CLOSED");
+        assertThat(sold.result().highestBid()).isEqualTo(250L);
+        var unsold = closed.stream().filter(c -> c.auctionId().equals("exp-2")).findFirst().orElseThrow();
+        assertThat(unsold.result().status()).isEqualTo("CLOSED_NO_SALE");
+        assertThat(unsold.result().highestBid()).isNull();
+
+        assertThat(repository.closeExpiredAuctions(0, now + 1000, 10, () -> UUID.randomUUID().toString()))
+                .isEmpty();
+        assertThat(repository.getAuction("future-1").status()).isEqualTo("OPEN");
+    }
+
+    @Test
+    void closeExpiredAuctionsFinishesAClaimLeftUnconfirmed() {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                "stranded-1", "seller-1", "Lot stranded-1", null, "OPEN",
+                100, null, now - 1000, now + 100, null, null, now, now, 0
+        ), "created-stranded-1");
+        // As left by a scheduler that claimed the auction and died before closing it.
+        template.opsForZSet().remove("auctions:byEndTime:{0}", "stranded-1");
+        template.opsForZSet().add("auctions:closing:{0}", "stranded-1", now + 100);
+
+        var closed = repository.closeExpiredAuctions(0, now + 1000, 10, () -> UUID.randomUUID().toString());
+
+        assertThat(closed).extracting(AuctionStore.ClosedAuction::auctionId).containsExactly("stranded-1");
+        assertThat(closed.getFirst().endTimeEpochMs()).isEqualTo(now + 100);
+        assertThat(repository.getAuction("stranded-1").status()).isEqualTo("CLOSED_NO_SALE");
+        assertThat(template.opsForZSet().size("auctions:closing:{0}")).isZero();
+    }
+
+    @Test
+    void bidAndCloseScriptsInvalidateSnapshotCache() throws InterruptedException {
+        long now = Instant.now().toEpochMilli();
+        repository.createAuction(new AuctionResponse(
+                "cached-1", "seller-1", "Lot", null, "OPEN",
+                100, null, now - 1000, now + 60_000, null, null, now, now, 0
+        ), "e1");
+        AuctionSnapshotCache cache = new AuctionSnapshotCache(true, 100, 60_000);
+        RedisMessageListenerContainer listener = new RedisMessageListenerContainer();
+        listener.setConnectionFactory(connectionFactory);
+        listener.addMessageListener(cache, AuctionUpdateMessages.TOPIC);
+        listener.afterPropertiesSet();
+        listener.start();
+        try {
+            assertThat(cache.get("cached-1", repository::getAuction).highestBid()).isNull();
+
+            repository.placeBid("cached-1", "b1", "u1", 150, now, "e2");
+            awaitEmpty(cache);
+            assertThat(cache.get("cached-1", repository::getAuction).highestBid()).isEqualTo(150L);
+
+            repository.closeAuction("cached-1", now + 1000, "e3");
+            awaitEmpty(cache);
+            assertThat(cache.get("cached-1", repository::getAuction).status()).isEqualTo("CLOSED");
+        } finally {
+            listener.destroy();
+        }
+    }
+
+    private static void awaitEmpty(AuctionSnapshotCache cache) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.size()).isZero();
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.bidengine.integration.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.redis.AuctionRedisRepository;
+import com.example.bidengine.redis.BidStorageMode;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.BidRateLimits;
+import com.example.bidengine.store.EmbeddedAuctionStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays one random sequence of bids, proxy bids and closes against the Lua scripts on Dragonfly and against the
+ * embedded store, and requires identical results after every step.
+ */
+class EmbeddedAuctionStoreParityIntegrationTest {
+    private static final GenericContainer<?> DRAGONFLY =
+            new GenericContainer<>("dragonflydb/dragonfly:latest")
+                    .withExposedPorts(6379);
+    // Whole tokens per 250 ms step, so neither side depends on how fractional tokens are rounded.
+    private static final BidRateLimits RATE_LIMITS = new BidRateLimits(3, 4, 20, 8);
+    private static final List<String> BIDDERS = List.of("u1", "u2", "u3", "u4");
+
+    private LettuceConnectionFactory connectionFactory;
+    private AuctionRedisRepository scripts;
+    private EmbeddedAuctionStore embedded;
+
+    @BeforeAll
+    static void startContainer() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Docker not available for Testcontainers");
+        DRAGONFLY.start();
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        DRAGONFLY.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(DRAGONFLY.getHost(), DRAGONFLY.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        template.setKeySerializer(serializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        scripts = new AuctionRedisRepository(template, BidStorageMode.HASH, 0L, 4, false, RATE_LIMITS);
+        embedded = new EmbeddedAuctionStore(4, 16, 1000, RATE_LIMITS, AuctionMetrics.NONE, List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void randomBiddingMatchesTheScripts() {
+        SplittableRandom random = new SplittableRandom(7);
+        long start = Instant.now().toEpochMilli();
+        List<String> auctionIds = List.of("par-1", "par-2", "par-3", "par-4", "par-5");
+        for (int i = 0; i < auctionIds.size(); i++) {
+            AuctionResponse auction = new AuctionResponse(auctionIds.get(i), "seller-1", "Lot " + i, null, "OPEN",
+                    50 + i * 100L, i % 2 == 0 ? 400L + i * 150 : null, start, start + 200_000 + i * 50_000L,
+                    null, null, start, start, 0);
+            scripts.createAuction(auction, "created-" + i);
+            embedded.createAuction(auction, "created-" + i);
+        }
+
+        long now = start;
+        for (int step = 0; step < 2000; step++) {
+            now += 250;
+            String auctionId = auctionIds.get(random.nextInt(auctionIds.size()));
+            String bidderId = BIDDERS.get(random.nextInt(BIDDERS.size()));
+            String bidId = "bid-" + step;
+            AuctionResponse current = embedded.getAuction(auctionId);
+            long base = current.highestBid() == null ? current.startingPrice() : current.highestBid();
+            long amount = Math.max(1, base + random.nextInt(-50, 400));
+            int operation = random.nextInt(100);
+            if (operation < 60) {
+                assertThat(embedded.placeBid(auctionId, bidId, bidderId, amount, now, "e-" + step))
+                        .as("place-bid step %d", step)
+                        .isEqualTo(scripts.placeBid(auctionId, bidId, bidderId, amount, now, "e-" + step));
+            } else if (operation < 95) {
+                assertThat(embedded.proxyBid(auctionId, bidId, bidderId, amount, now, "e-" + step))
+                        .as("proxy-bid step %d", step)
+                        .isEqualTo(scripts.proxyBid(auctionId, bidId, bidderId, amount, now, "e-" + step));
+            } else if (operation < 97) {
+                assertThat(embedded.closeAuction(auctionId, now, "e-" + step))
+                        .as("close step %d", step)
+                        .isEqualTo(scripts.closeAuction(auctionId, now, "e-" + step));
+            } else {
+                int shard = embedded.shardOf(auctionId);
+                assertThat(embedded.closeExpiredAuctions(shard, now, 10, () -> "close"))
+                        .as("close-expired step %d", step)
+                        .isEqualTo(scripts.closeExpiredAuctions(shard, now, 10, () -> "close"));
+            }
+            assertThat(embedded.getAuction(auctionId)).as("auction after step %d", step)
+                    .isEqualTo(scripts.getAuction(auctionId));
+        }
+        for (String auctionId : auctionIds) {
+            assertThat(embedded.listTopBids(auctionId, 1000)).isEqualTo(scripts.listTopBids(auctionId, 1000));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bidengine.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuctionMetricsTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuctionMetrics metrics = new AuctionMetrics(registry);
+
+    @Test
+    void timesScriptCallsPerScriptIncludingFailures() {
+        assertThat(metrics.timeScript("place-bid", () -> "OK")).isEqualTo("OK");
+        assertThatThrownBy(() -> metrics.timeScript("place-bid", () -> {
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(metrics.timeScript("close-auction", Mono.just(1)).block()).isEqualTo(1);
+
+        assertThat(registry.get("bidengine.redis.script").tag("script", "place-bid").timer().count()).isEqualTo(2);
+        assertThat(registry.get("bidengine.redis.script").tag("script", "close-auction").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void countsBidOutcomesByResultCode() {
+        metrics.bidOutcome("OK");
+        metrics.bidOutcome("BELOW_HIGHEST");
+        metrics.bidOutcome("BELOW_HIGHEST");
+
+        assertThat(registry.get("bidengine.bid.outcomes").tag("outcome", "OK").counter().count()).isEqualTo(1);
+        assertThat(registry.get("bidengine.bid.outcomes").tag("outcome", "BELOW_HIGHEST").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void closeLagIsCloseTimeMinusEndTimeNeverNegative() {
+        metrics.closeLag(1_000, 1_250);
+        metrics.closeLag(1_000, 900);
+
+        var lag = registry.get("bidengine.auction.close.lag").timer();
+        assertThat(lag.count()).isEqualTo(2);
+        assertThat(lag.max(TimeUnit.MILLISECONDS)).isEqualTo(250);
+        assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(250);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionBidFloorCacheTest {
+    private static final long END = 10_000;
+
+    @Test
+    void rejectsBidsAtOrBelowTheHighestBidSeen() {
+        AuctionBidFloorCache cache = new AuctionBidFloorCache(true, 100);
+        cache.track(auction("a1", "OPEN", null));
+
+        assertThat(cache.rejects("a1", 100, 0)).isFalse();
+        cache.raise("a1", 150L);
+        cache.raise("a1", 120L);
+
+        assertThat(cache.rejects("a1", 150, 0)).isTrue();
+        assertThat(cache.rejects("a1", 151, 0)).isFalse();
+    }
+
+    @Test
+    void updatesRaiseTheFloorAndClosesDropIt() {
+        AuctionBidFloorCache cache = new AuctionBidFloorCache(true, 100);
+        cache.track(auction("a1", "OPEN", null));
+
+        cache.onMessage(message("a1|3|OPEN|150|u1"), null);
+        assertThat(cache.rejects("a1", 140, 0)).isTrue();
+
+        cache.onMessage(message("a1|4|CLOSED|150|u1"), null);
+        assertThat(cache.rejects("a1", 140, 0)).isFalse();
+    }
+
+    @Test
+    void leavesBidsToTheStoreOnceTheAuctionHasEnded() {
+        AuctionBidFloorCache cache = new AuctionBidFloorCache(true, 100);
+        cache.track(auction("a1", "OPEN", 150L));
+
+        assertThat(cache.rejects("a1", 140, END - 1)).isTrue();
+        assertThat(cache.rejects("a1", 140, END)).isFalse();
+    }
+
+    @Test
+    void leavesBidsToTheStoreWhileTheEndTimeIsUnknown() {
+        AuctionBidFloorCache cache = new AuctionBidFloorCache(true, 100);
+
+        cache.raise("a1", 150L);
+        assertThat(cache.rejects("a1", 140, 0)).isFalse();
+
+        cache.track(auction("a2", "CLOSED", 150L));
+        assertThat(cache.rejects("a2", 140, 0)).isFalse();
+    }
+
+    @Test
+    void disabledCacheNeverRejects() {
+        AuctionBidFloorCache cache = new AuctionBidFloorCache(false, 100);
+
+        cache.track(auction("a1", "OPEN", 150L));
+
+        assertThat(cache.rejects("a1", 100, 0)).isFalse();
+    }
+
+    private static AuctionResponse auction(String auctionId, String status, Long highestBid) {
+        return new AuctionResponse(auctionId, "s1", "title", null, status, 100, null, 0, END, highestBid,
+                highestBid == null ? null : "u1", 0, 0, 0);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auction:updates".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
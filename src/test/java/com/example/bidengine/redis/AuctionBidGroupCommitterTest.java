@@ -0,0 +1,89 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.store.AuctionStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class AuctionBidGroupCommitterTest {
+
+    @Test
+    void bidsArrivingDuringACallAreCommittedTogetherInArrivalOrder() throws Exception {
+        AuctionRedisRepository repository = Mockito.mock(AuctionRedisRepository.class);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(repository.placeBid(eq("a1"), eq("b1"), anyString(), anyLong(), anyLong(), anyString()))
+                .thenAnswer(invocation -> {
+                    inFlight.countDown();
+                    release.await();
+                    return ok(150, "u1");
+                });
+        Mockito.when(repository.placeAuctionBids(eq("a1"), Mockito.anyList()))
+                .thenReturn(List.of(ok(160, "u2"), AuctionStore.PlaceBidResult.error("BELOW_HIGHEST")));
+        AuctionBidGroupCommitter committer = new AuctionBidGroupCommitter(repository, true, 16, 0);
+
+        var first = CompletableFuture.supplyAsync(() -> committer.placeBid(bid("b1", "u1", 150), 10));
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+        var second = CompletableFuture.supplyAsync(() -> committer.placeBid(bid("b2", "u2", 160), 11));
+        awaitQueued(committer, 2);
+        var third = CompletableFuture.supplyAsync(() -> committer.placeBid(bid("b3", "u3", 155), 12));
+        awaitQueued(committer, 3);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).highestBidderId()).isEqualTo("u1");
+        assertThat(second.get(5, TimeUnit.SECONDS).highestBidderId()).isEqualTo("u2");
+        assertThat(third.get(5, TimeUnit.SECONDS).errorCode()).isEqualTo("BELOW_HIGHEST");
+        Mockito.verify(repository).placeAuctionBids("a1", List.of(
+                new AuctionStore.TimedBid(bid("b2", "u2", 160), 11),
+                new AuctionStore.TimedBid(bid("b3", "u3", 155), 12)));
+        assertThat(committer.queued("a1")).isZero();
+    }
+
+    @Test
+    void failuresReachEveryBidInTheCall() {
+        AuctionRedisRepository repository = Mockito.mock(AuctionRedisRepository.class);
+        Mockito.when(repository.placeBid(anyString(), anyString(), anyString(), anyLong(), anyLong(), anyString()))
+                .thenThrow(new IllegalStateException("connection lost"));
+        AuctionBidGroupCommitter committer = new AuctionBidGroupCommitter(repository, true, 16, 0);
+
+        assertThatThrownBy(() -> committer.placeBid(bid("b1", "u1", 150), 10))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(committer.queued("a1")).isZero();
+    }
+
+    @Test
+    void disabledCommitterPlacesEachBidOnItsOwn() {
+        AuctionRedisRepository repository = Mockito.mock(AuctionRedisRepository.class);
+        Mockito.when(repository.placeBid("a1", "b1", "u1", 150, 10, "e-b1")).thenReturn(ok(150, "u1"));
+        AuctionBidGroupCommitter committer = new AuctionBidGroupCommitter(repository, false, 16, 0);
+
+        assertThat(committer.placeBid(bid("b1", "u1", 150), 10).ok()).isTrue();
+        Mockito.verify(repository, Mockito.never()).placeAuctionBids(anyString(), Mockito.anyList());
+    }
+
+    private static void awaitQueued(AuctionBidGroupCommitter committer, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (committer.queued("a1") < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(committer.queued("a1")).isEqualTo(count);
+    }
+
+    private static AuctionStore.BidCommand bid(String bidId, String bidderId, long amount) {
+        return new AuctionStore.BidCommand("a1", bidId, bidderId, amount, "e-" + bidId);
+    }
+
+    private static AuctionStore.PlaceBidResult ok(long highestBid, String bidderId) {
+        return AuctionStore.PlaceBidResult.success("OK", highestBid, bidderId, 1L, List.of());
+    }
+}
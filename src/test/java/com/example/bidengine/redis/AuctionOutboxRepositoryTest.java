@@ -0,0 +1,43 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.events.AuctionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionOutboxRepositoryTest {
+
+    @Test
+    void toEventMapsBidEntry() {
+        AuctionEvent event = AuctionOutboxRepository.toEvent(Map.of(
+                "eventId", "e1", "eventType", "BID_PLACED", "auctionId", "a1", "occurredAtEpochMs", "10",
+                "bidId", "b1", "bidderId", "u1", "amount", "150", "status", "OPEN", "seq", "3"));
+
+        assertThat(event).isEqualTo(new AuctionEvent("e1", "BID_PLACED", "a1", 10L, null, null, null, null, null,
+                null, null, "b1", "u1", 150L, "OPEN", 3L));
+    }
+
+    @Test
+    void toEventMapsCreatedEntryFromAuctionHash() {
+        Map<String, String> fields = new HashMap<>(AuctionRedisRepository.auctionFields(
+                new AuctionResponse("a1", "s1", "Lot", null, "OPEN",
+                        100, null, 10, 20, null, null, 5, 5, 0)));
+        fields.put("eventId", "e1");
+        fields.put("eventType", "AUCTION_CREATED");
+        fields.put("occurredAtEpochMs", "5");
+
+        AuctionEvent event = AuctionOutboxRepository.toEvent(fields);
+
+        assertThat(event).isEqualTo(new AuctionEvent("e1", "AUCTION_CREATED", "a1", 5L, "s1", "Lot", null, 100L,
+                null, 10L, 20L, null, null, null, "OPEN", 0L));
+    }
+
+    @Test
+    void toEventSkipsEmptyEntry() {
+        assertThat(AuctionOutboxRepository.toEvent(Map.of())).isNull();
+    }
+}
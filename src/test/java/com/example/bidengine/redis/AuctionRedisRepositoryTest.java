@@ -2,16 +2,26 @@ package com.example.bidengine.redis;
 
 import com.example.bidengine.api.AuctionResponse;
 import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.store.AuctionStore;
+import com.example.bidengine.store.BidRateLimits;
+import io.lettuce.core.cluster.SlotHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,7 +46,7 @@ class AuctionRedisRepositoryTest {
         AuctionRedisRepository localRepository = new AuctionRedisRepository(
                 new StubRedisTemplate(List.of("NOT_FOUND"))
         );
-        var result = localRepository.placeBid("a1", "b1", "u1", 100, 10);
+        var result = localRepository.placeBid("a1", "b1", "u1", 100, 10, "e1");
 
         assertThat(result.ok()).isFalse();
         assertThat(result.errorCode()).isEqualTo("NOT_FOUND");
@@ -45,26 +55,140 @@ class AuctionRedisRepositoryTest {
     @Test
     void placeBidMapsSuccess() {
         AuctionRedisRepository localRepository = new AuctionRedisRepository(
-                new StubRedisTemplate(List.of("OK", "150", "u1"))
+                new StubRedisTemplate(List.of("OK", "150", "u1", 7L))
         );
-        var result = localRepository.placeBid("a1", "b1", "u1", 150, 10);
+        var result = localRepository.placeBid("a1", "b1", "u1", 150, 10, "e1");
 
         assertThat(result.ok()).isTrue();
         assertThat(result.highestBid()).isEqualTo(150L);
         assertThat(result.highestBidderId()).isEqualTo("u1");
+        assertThat(result.seq()).isEqualTo(7L);
+    }
+
+    @Test
+    void placeBidPassesRateLimitsAndMapsRetryAfter() {
+        AuctionRedisRepository limited = new AuctionRedisRepository(
+                new StubRedisTemplate(List.of("RATE_LIMITED", 150L)),
+                BidStorageMode.HASH, 0L, 1, false, new BidRateLimits(10, 5, 1000, 500));
+
+        assertThat(Arrays.copyOfRange(limited.placeBidArgs("a1", "b1", "u1", 150, 10, "e1"), 9, 13))
+                .containsExactly("10", "5.0", "1000", "500.0");
+        var result = limited.placeBid("a1", "b1", "u1", 150, 10, "e1");
+
+        assertThat(result.ok()).isFalse();
+        assertThat(result.errorCode()).isEqualTo("RATE_LIMITED");
+        assertThat(result.retryAfterMs()).isEqualTo(150L);
+    }
+
+    @Test
+    void placeBidTimesTheScriptAndCountsTheOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuctionRedisRepository measured = new AuctionRedisRepository(new StubRedisTemplate(List.of("ENDED")),
+                BidStorageMode.HASH, 0L, 1, false, BidRateLimits.NONE, new AuctionMetrics(registry));
+
+        measured.placeBid("a1", "b1", "u1", 150, 10, "e1");
+
+        assertThat(registry.get("bidengine.redis.script").tag("script", "place-bid").timer().count()).isEqualTo(1);
+        assertThat(registry.get("bidengine.bid.outcomes").tag("outcome", "ENDED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void proxyBidMapsOutbidWithEveryPlacedBid() {
+        AuctionRedisRepository localRepository = new AuctionRedisRepository(new StubRedisTemplate(List.of(
+                "OUTBID", "1550", "u1", "4",
+                "b2", "u2", "1500", 3L,
+                "b2-proxy", "u1", "1550", 4L)));
+
+        var result = localRepository.proxyBid("a1", "b2", "u2", 1500, 10, "e2");
+
+        assertThat(result.ok()).isTrue();
+        assertThat(result.status()).isEqualTo("OUTBID");
+        assertThat(result.highestBid()).isEqualTo(1550L);
+        assertThat(result.highestBidderId()).isEqualTo("u1");
+        assertThat(result.seq()).isEqualTo(4L);
+        assertThat(result.placed()).containsExactly(
+                new AuctionStore.PlacedBid("b2", "u2", 1500, 3),
+                new AuctionStore.PlacedBid("b2-proxy", "u1", 1550, 4));
+    }
+
+    @Test
+    void placeAuctionBidsLaysOutEveryBidAndMapsRepliesInOrder() {
+        AuctionRedisRepository localRepository = new AuctionRedisRepository(new StubRedisTemplate(List.of(
+                List.of("OK", "150", "u1", 1L, "b1", "u1", "150", 1L),
+                List.of("BELOW_HIGHEST"),
+                List.of("RATE_LIMITED", 40L))));
+        List<AuctionStore.TimedBid> bids = List.of(
+                timedBid("b1", "u1", 150, "e1", 10),
+                timedBid("b2", "u2", 140, "e2", 11),
+                timedBid("b3", "u3", 160, "e3", 12));
+
+        assertThat(localRepository.placeAuctionBidsKeys("a1", bids)).containsExactly(
+                "auction:{a1}", "auction:{a1}:bids", localRepository.outboxKey("a1"), "rate:{a1}",
+                "bid:{a1}:b1", "bid:{a1}:b1-proxy", "rate:{a1}:bidder:u1",
+                "bid:{a1}:b2", "bid:{a1}:b2-proxy", "rate:{a1}:bidder:u2",
+                "bid:{a1}:b3", "bid:{a1}:b3-proxy", "rate:{a1}:bidder:u3");
+        assertThat(Arrays.copyOfRange(localRepository.placeAuctionBidsArgs("a1", bids), 6, 13))
+                .containsExactly("10", "b1", "u1", "150", "", "b1-proxy", "");
+        var results = localRepository.placeAuctionBids("a1", bids);
+
+        assertThat(results).extracting(AuctionStore.PlaceBidResult::ok).containsExactly(true, false, false);
+        assertThat(results.get(0).placed()).containsExactly(new AuctionStore.PlacedBid("b1", "u1", 150, 1));
+        assertThat(results.get(1).errorCode()).isEqualTo("BELOW_HIGHEST");
+        assertThat(results.get(2).retryAfterMs()).isEqualTo(40L);
     }
 
     @Test
     void closeAuctionMapsSuccess() {
         AuctionRedisRepository localRepository = new AuctionRedisRepository(
-                new StubRedisTemplate(List.of("CLOSED", "200", "u9"))
+                new StubRedisTemplate(List.of("CLOSED", 8L, "200", "u9"))
         );
-        var result = localRepository.closeAuction("a1", 10);
+        var result = localRepository.closeAuction("a1", 10, "e1");
 
         assertThat(result.ok()).isTrue();
         assertThat(result.status()).isEqualTo("CLOSED");
         assertThat(result.highestBid()).isEqualTo(200L);
         assertThat(result.highestBidderId()).isEqualTo("u9");
+        assertThat(result.seq()).isEqualTo(8L);
+    }
+
+    @Test
+    void closeAuctionWithoutBidsKeepsSeq() {
+        AuctionRedisRepository localRepository = new AuctionRedisRepository(
+                new StubRedisTemplate(List.of("CLOSED_NO_SALE", 1L))
+        );
+        var result = localRepository.closeAuction("a1", 10, "e1");
+
+        assertThat(result.ok()).isTrue();
+        assertThat(result.highestBid()).isNull();
+        assertThat(result.seq()).isEqualTo(1L);
+    }
+
+    @Test
+    void claimExpiredArgsAskTheScriptForDueAuctionsOnlyWithALimit() {
+        assertThat(AuctionRedisRepository.claimExpiredArgs(1000, 50, List.of())).containsExactly("1000", "50");
+        assertThat(AuctionRedisRepository.claimExpiredArgs(1000, 0, List.of("a1", "a2")))
+                .containsExactly("1000", "0", "a1", "a2");
+    }
+
+    @Test
+    void placeBidsMapsPipelinedRepliesBackToRequestOrder() {
+        List<AuctionStore.BidCommand> bids = List.of(
+                new AuctionStore.BidCommand("a1", "b1", "u1", 150, "e1"),
+                new AuctionStore.BidCommand("a2", "b2", "u2", 90, "e2"),
+                new AuctionStore.BidCommand("a1", "b3", "u3", 160, "e3"));
+        boolean a1First = SlotHash.getSlot("auction:{a1}") <= SlotHash.getSlot("auction:{a2}");
+        List<Object> a1Replies = List.of(List.of("OK", "150", "u1", 1L), List.of("OK", "160", "u3", 2L));
+        List<Object> a2Replies = List.of(List.of("BELOW_START"));
+        List<Object> replies = new ArrayList<>();
+        replies.addAll(a1First ? a1Replies : a2Replies);
+        replies.addAll(a1First ? a2Replies : a1Replies);
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(replies);
+
+        var results = repository.placeBids(bids, 10);
+
+        assertThat(results).extracting(r -> r.ok() ? r.highestBidderId() : r.errorCode())
+                .containsExactly("u1", "BELOW_START", "u3");
+        assertThat(results.get(2).seq()).isEqualTo(2L);
     }
 
     @Test
@@ -79,41 +203,133 @@ class AuctionRedisRepositoryTest {
     }
 
     @Test
-    void createAuctionStoresHash() {
-        HashOperations<String, Object, Object> hashOps = Mockito.mock(HashOperations.class);
-        ZSetOperations<String, String> zsetOps = Mockito.mock(ZSetOperations.class);
-        Mockito.when(redisTemplate.opsForHash()).thenReturn(hashOps);
-        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zsetOps);
+    void createAuctionPassesHashFieldsToScript() {
+        AuctionResponse auction = new AuctionResponse(
+                "a1", "s1", "title", "desc", "OPEN",
+                100, 200L, 10, 20, 150L, "u1", 10, 10, 0
+        );
+
+        Object[] args = repository.createAuctionArgs(auction, "e1");
+
+        assertThat(Arrays.copyOf(args, 3)).containsExactly("a1", "", "10");
+        assertThat(repository.scheduleAuctionArgs(auction)).containsExactly("a1", "20", "");
+        Map<Object, Object> fields = new HashMap<>();
+        for (int i = 3; i < args.length; i += 2) {
+            fields.put(args[i], args[i + 1]);
+        }
+        assertThat(fields).containsEntry("sellerId", "s1")
+                .containsEntry("reservePrice", "200")
+                .containsEntry("highestBid", "150")
+                .containsEntry("seq", "0");
+    }
 
+    @Test
+    void createAuctionIndexesEndTimeInAuctionShardAndOutboxInAuctionSlot() {
+        AuctionRedisRepository sharded =
+                new AuctionRedisRepository(redisTemplate, BidStorageMode.HASH, 0L, 8, true);
         AuctionResponse auction = new AuctionResponse(
                 "a1", "s1", "title", "desc", "OPEN",
-                100, 200L, 10, 20, 150L, "u1", 10, 10
+                100, null, 10, 20, null, null, 10, 10, 0
         );
-        repository.createAuction(auction);
 
-        Mockito.verify(hashOps).putAll(Mockito.eq("auction:a1"), any(Map.class));
-        Mockito.verify(zsetOps).add(Mockito.eq("auctions:byEndTime"), Mockito.eq("a1"), Mockito.eq(20.0));
+        int shard = Math.floorMod("a1".hashCode(), 8);
+        assertThat(sharded.scheduleAuctionKeys("a1"))
+                .containsExactly("auctions:byEndTime:{" + shard + "}", "outbox:auctions:{" + shard + "}");
+        assertThat(sharded.scheduleAuctionArgs(auction)).containsExactly("a1", "20", "10");
+        assertThat(sharded.createAuctionKeys("a1")).containsExactly("auction:{a1}", "outbox:{a1}");
+        assertThat(sharded.createAuctionArgs(auction, "e1")[1]).isEqualTo("e1");
+    }
+
+    @Test
+    void everyScriptCallStaysWithinOneClusterSlot() {
+        AuctionRedisRepository sharded =
+                new AuctionRedisRepository(redisTemplate, BidStorageMode.HASH, 0L, 8, true);
+
+        for (List<String> keys : List.of(sharded.scheduleAuctionKeys("a1"), sharded.createAuctionKeys("a1"),
+                sharded.placeBidKeys("a1", "b1", "u1"), sharded.closeAuctionKeys("a1"))) {
+            assertThat(keys.stream().map(SlotHash::getSlot).distinct()).as("%s", keys).hasSize(1);
+        }
+    }
+
+    @Test
+    void placeBidAppendsToOutboxOnlyWhenEnabled() {
+        AuctionRedisRepository withOutbox =
+                new AuctionRedisRepository(redisTemplate, BidStorageMode.HASH, 0L, 1, true);
+
+        assertThat(withOutbox.placeBidKeys("a1", "b1", "u1"))
+                .containsExactly("auction:{a1}", "auction:{a1}:bids", "bid:{a1}:b1", "bid:{a1}:b1-proxy",
+                        "outbox:{a1}", "rate:{a1}:bidder:u1", "rate:{a1}");
+        assertThat(Arrays.copyOfRange(withOutbox.placeBidArgs("a1", "b1", "u1", 150, 10, "e1"), 6, 9))
+                .containsExactly("e1", "b1-proxy", "e1-proxy");
+        assertThat(Arrays.copyOfRange(repository.placeBidArgs("a1", "b1", "u1", 150, 10, "e1"), 6, 9))
+                .containsExactly("", "b1-proxy", "");
     }
 
     @Test
     void listTopBidsMapsResponses() {
         ZSetOperations<String, String> zset = Mockito.mock(ZSetOperations.class);
-        HashOperations<String, Object, Object> hashOps = Mockito.mock(HashOperations.class);
         Mockito.when(redisTemplate.opsForZSet()).thenReturn(zset);
-        Mockito.when(redisTemplate.opsForHash()).thenReturn(hashOps);
 
-        Set<String> ids = Set.of("b1");
+        Set<String> ids = new LinkedHashSet<>(List.of("b2", "b1"));
         Mockito.when(zset.reverseRange(any(), any(Long.class), any(Long.class))).thenReturn(ids);
-        Mockito.when(hashOps.entries("bid:b1")).thenReturn(Map.of(
-                "bidderId", "u1",
-                "amount", "120",
-                "placedAtEpochMs", "10"
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.<Object>of(
+                List.of("u2", "130", "11"),
+                List.of("u1", "120", "10")
         ));
 
         List<BidResponse> bids = repository.listTopBids("a1", 5);
 
-        assertThat(bids).hasSize(1);
-        assertThat(bids.get(0).bidderId()).isEqualTo("u1");
+        assertThat(bids).hasSize(2);
+        assertThat(bids.get(0).bidId()).isEqualTo("b2");
+        assertThat(bids.get(0).bidderId()).isEqualTo("u2");
+        assertThat(bids.get(0).amount()).isEqualTo(130L);
+        assertThat(bids.get(1).bidderId()).isEqualTo("u1");
+        Mockito.verify(redisTemplate, Mockito.never()).opsForHash();
+    }
+
+    @Test
+    void listTopBidsSkipsMissingBidHashes() {
+        ZSetOperations<String, String> zset = Mockito.mock(ZSetOperations.class);
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zset);
+
+        Set<String> ids = new LinkedHashSet<>(List.of("b2", "b1"));
+        Mockito.when(zset.reverseRange(any(), any(Long.class), any(Long.class))).thenReturn(ids);
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.<Object>of(
+                Arrays.asList(null, null, null),
+                List.of("u1", "120", "10")
+        ));
+
+        List<BidResponse> bids = repository.listTopBids("a1", 5);
+
+        assertThat(bids).extracting(BidResponse::bidId).containsExactly("b1");
+    }
+
+    @Test
+    void listTopBidsDecodesCompactMembers() {
+        AuctionRedisRepository compactRepository =
+                new AuctionRedisRepository(redisTemplate, BidStorageMode.COMPACT, 60_000L);
+        ZSetOperations<String, String> zset = Mockito.mock(ZSetOperations.class);
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zset);
+
+        Set<ZSetOperations.TypedTuple<String>> members = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("b2|11|u2", 130.0),
+                new DefaultTypedTuple<>("b1|10|bidder|with|pipes", 120.0)
+        ));
+        Mockito.when(zset.reverseRangeWithScores("auction:{a1}:bids", 0, 4)).thenReturn(members);
+
+        List<BidResponse> bids = compactRepository.listTopBids("a1", 5);
+
+        assertThat(bids).containsExactly(
+                new BidResponse("b2", "a1", "u2", 130, 11),
+                new BidResponse("b1", "a1", "bidder|with|pipes", 120, 10)
+        );
+        Mockito.verify(redisTemplate, Mockito.never()).executePipelined(any(RedisCallback.class));
+    }
+
+    private static AuctionStore.TimedBid timedBid(String bidId, String bidderId, long amount,
+                                                            String eventId, long nowEpochMs) {
+        return new AuctionStore.TimedBid(
+                new AuctionStore.BidCommand("a1", bidId, bidderId, amount, eventId), nowEpochMs);
     }
 
     static class StubRedisTemplate extends RedisTemplate<String, String> {
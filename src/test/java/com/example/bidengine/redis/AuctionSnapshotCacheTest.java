@@ -0,0 +1,71 @@
+package com.example.bidengine.redis;
+
+import com.example.bidengine.api.AuctionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionSnapshotCacheTest {
+    private static final AuctionResponse AUCTION = new AuctionResponse(
+            "a1", "s1", "title", null, "OPEN", 100, null, 10, 20, null, null, 10, 10, 0);
+
+    @Test
+    void servesCachedSnapshotUntilInvalidated() {
+        AuctionSnapshotCache cache = new AuctionSnapshotCache(true, 100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a1", id -> load(loads));
+        cache.get("a1", id -> load(loads));
+        assertThat(loads).hasValue(1);
+
+        cache.onMessage(new DefaultMessage("auction:updates".getBytes(StandardCharsets.UTF_8),
+                "a1|3|OPEN|150|u1".getBytes(StandardCharsets.UTF_8)), null);
+        cache.get("a1", id -> load(loads));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidationDuringLoadDropsTheLoadedSnapshot() {
+        AuctionSnapshotCache cache = new AuctionSnapshotCache(true, 100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a1", id -> {
+            cache.invalidate("a1");
+            return load(loads);
+        });
+        cache.get("a1", id -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void missingAuctionsAreNotCached() {
+        AuctionSnapshotCache cache = new AuctionSnapshotCache(true, 100, 60_000);
+
+        assertThat(cache.get("missing", id -> null)).isNull();
+        assertThat(cache.getAsync("missing", id -> CompletableFuture.completedFuture(null)).join()).isNull();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        AuctionSnapshotCache cache = new AuctionSnapshotCache(false, 100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a1", id -> load(loads));
+        cache.get("a1", id -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private static AuctionResponse load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return AUCTION;
+    }
+}
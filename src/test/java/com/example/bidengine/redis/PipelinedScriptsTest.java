@@ -0,0 +1,67 @@
+package com.example.bidengine.redis;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+class PipelinedScriptsTest {
+    private static final DefaultRedisScript<List> SCRIPT = new DefaultRedisScript<>("return ARGV[1]", List.class);
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = Mockito.mock(RedisTemplate.class);
+
+    @Test
+    void sendsOnlyEvalShaWhenTheServerKnowsTheScript() {
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of("r1", "r2"));
+
+        assertThat(PipelinedScripts.evalSha(redisTemplate, SCRIPT, ReturnType.VALUE, 0, calls(2)))
+                .containsExactly("r1", "r2");
+        Mockito.verify(redisTemplate, Mockito.times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void loadsTheScriptAndResendsOnlyTheCallsAnsweredWithNoScript() {
+        List<Object> firstAttempt = new ArrayList<>();
+        firstAttempt.add("r1".getBytes(StandardCharsets.UTF_8));
+        firstAttempt.add(new RedisSystemException("NOSCRIPT No matching script", null));
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisPipelineException(new RuntimeException("NOSCRIPT"), firstAttempt))
+                .thenReturn(List.of("sha", "r2"));
+
+        assertThat(PipelinedScripts.evalSha(redisTemplate, SCRIPT, ReturnType.VALUE, 0, calls(2)))
+                .containsExactly("r1", "r2");
+        Mockito.verify(redisTemplate, Mockito.times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void answersNullForACallThatFailedOtherwise() {
+        List<Object> results = new ArrayList<>();
+        results.add(new RedisSystemException("ERR wrong number of arguments", null));
+        results.add("r2".getBytes(StandardCharsets.UTF_8));
+        Mockito.when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisPipelineException(new RuntimeException("ERR"), results));
+
+        assertThat(PipelinedScripts.evalSha(redisTemplate, SCRIPT, ReturnType.VALUE, 0, calls(2)))
+                .containsExactly(null, "r2");
+    }
+
+    private static List<byte[][]> calls(int count) {
+        List<byte[][]> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(new byte[][]{("arg" + i).getBytes(StandardCharsets.UTF_8)});
+        }
+        return calls;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bidengine.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+class ReactiveAuctionRedisRepositoryTest {
+    private ReactiveRedisTemplate<String, String> reactiveTemplate;
+    private ReactiveAuctionRedisRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        reactiveTemplate = Mockito.mock(ReactiveRedisTemplate.class);
+        repository = new ReactiveAuctionRedisRepository(reactiveTemplate,
+                new AuctionRedisRepository(Mockito.mock(RedisTemplate.class)));
+    }
+
+    @Test
+    void placeBidMapsNestedReply() {
+        Mockito.when(reactiveTemplate.execute(any(RedisScript.class), eq(List.of("auction:{a1}",
+                        "auction:{a1}:bids", "bid:{a1}:b1", "bid:{a1}:b1-proxy", "outbox:{a1}",
+                        "rate:{a1}:bidder:u1", "rate:{a1}")), anyList()))
+                .thenReturn(Flux.just(List.of("OK", "150", "u1", 7L)));
+
+        var result = repository.placeBid("a1", "b1", "u1", 150, 10, "e1").block();
+
+        assertThat(result.ok()).isTrue();
+        assertThat(result.highestBid()).isEqualTo(150L);
+        assertThat(result.highestBidderId()).isEqualTo("u1");
+        assertThat(result.seq()).isEqualTo(7L);
+    }
+
+    @Test
+    void placeBidMapsFlattenedError() {
+        Mockito.when(reactiveTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just("BELOW_HIGHEST"));
+
+        var result = repository.placeBid("a1", "b1", "u1", 100, 10, "e1").block();
+
+        assertThat(result.ok()).isFalse();
+        assertThat(result.errorCode()).isEqualTo("BELOW_HIGHEST");
+    }
+
+    @Test
+    void closeAuctionWithoutBidsKeepsSeq() {
+        Mockito.when(reactiveTemplate.execute(any(RedisScript.class), eq(List.of("auction:{a1}",
+                        "auction:{a1}:bids", "outbox:{a1}")), anyList()))
+                .thenReturn(Flux.just("CLOSED", 3L));
+
+        var result = repository.closeAuction("a1", 10, "e1").block();
+
+        assertThat(result.ok()).isTrue();
+        assertThat(result.status()).isEqualTo("CLOSED");
+        assertThat(result.highestBid()).isNull();
+        assertThat(result.seq()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.config.NodeIdentity;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.store.LeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class AuctionAutoCloseSchedulerTest {
+    private AuctionService auctionService;
+    private LeaseRepository leaseRepository;
+    private AuctionAutoCloseScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        auctionService = Mockito.mock(AuctionService.class);
+        leaseRepository = Mockito.mock(LeaseRepository.class);
+        Mockito.when(auctionService.scheduleShards()).thenReturn(3);
+        scheduler = new AuctionAutoCloseScheduler(auctionService, leaseRepository,
+                new AuctionCloseTimer(false, 10, 512, 60000, 10000), new NodeIdentity("node-a"),
+                100, 5000, AuctionMetrics.NONE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void closesOnlyShardsWithAcquiredLease() {
+        Mockito.when(leaseRepository.tryAcquire("auto-close:0", "node-a", 5000)).thenReturn(true);
+        Mockito.when(leaseRepository.tryAcquire("auto-close:1", "node-a", 5000)).thenReturn(false);
+        Mockito.when(leaseRepository.tryAcquire("auto-close:2", "node-a", 5000)).thenReturn(true);
+
+        scheduler.closeExpiredAuctions();
+
+        Mockito.verify(auctionService).autoCloseExpiredAuctions(0, 100);
+        Mockito.verify(auctionService, Mockito.never()).autoCloseExpiredAuctions(eq(1), anyInt());
+        Mockito.verify(auctionService).autoCloseExpiredAuctions(2, 100);
+    }
+
+    @Test
+    void drainsShardWhileBatchesAreFull() {
+        Mockito.when(leaseRepository.tryAcquire(Mockito.anyString(), eq("node-a"), anyLong())).thenReturn(false);
+        Mockito.when(leaseRepository.tryAcquire("auto-close:0", "node-a", 5000)).thenReturn(true);
+        Mockito.when(auctionService.autoCloseExpiredAuctions(0, 100)).thenReturn(100, 100, 7);
+
+        scheduler.closeExpiredAuctions();
+
+        Mockito.verify(auctionService, Mockito.times(3)).autoCloseExpiredAuctions(0, 100);
+    }
+
+    @Test
+    void failedShardDoesNotStopOthers() {
+        Mockito.when(leaseRepository.tryAcquire(Mockito.anyString(), eq("node-a"), anyLong())).thenReturn(true);
+        Mockito.when(auctionService.autoCloseExpiredAuctions(0, 100)).thenThrow(new IllegalStateException("boom"));
+
+        scheduler.closeExpiredAuctions();
+
+        Mockito.verify(auctionService).autoCloseExpiredAuctions(1, 100);
+        Mockito.verify(auctionService).autoCloseExpiredAuctions(2, 100);
+    }
+
+    @Test
+    void destroyReleasesLeases() {
+        scheduler.destroy();
+
+        Mockito.verify(leaseRepository).release("auto-close:0", "node-a");
+        Mockito.verify(leaseRepository).release("auto-close:2", "node-a");
+    }
+
+    @Test
+    void addedSchedulerTakesOverItsShareOfTheShards() {
+        InMemoryLeaseRepository leases = new InMemoryLeaseRepository();
+        AuctionService serviceA = Mockito.mock(AuctionService.class);
+        AuctionService serviceB = Mockito.mock(AuctionService.class);
+        Mockito.when(serviceA.scheduleShards()).thenReturn(4);
+        Mockito.when(serviceB.scheduleShards()).thenReturn(4);
+        AuctionAutoCloseScheduler schedulerA = scheduler(serviceA, leases, "node-a");
+        AuctionAutoCloseScheduler schedulerB = scheduler(serviceB, leases, "node-b");
+        try {
+            schedulerA.closeExpiredAuctions();
+            assertThat(closedShards(serviceA)).containsExactlyInAnyOrder(0, 1, 2, 3);
+
+            // B starts while A holds everything; A gives up its surplus on its next tick and B takes it.
+            schedulerB.closeExpiredAuctions();
+            schedulerA.closeExpiredAuctions();
+            schedulerB.closeExpiredAuctions();
+            Mockito.clearInvocations(serviceA, serviceB);
+            schedulerA.closeExpiredAuctions();
+            schedulerB.closeExpiredAuctions();
+
+            List<Integer> shardsA = closedShards(serviceA);
+            List<Integer> shardsB = closedShards(serviceB);
+            assertThat(shardsA).hasSize(2);
+            assertThat(shardsB).hasSize(2).doesNotContainAnyElementsOf(shardsA);
+        } finally {
+            schedulerA.destroy();
+            schedulerB.destroy();
+        }
+    }
+
+    private static AuctionAutoCloseScheduler scheduler(AuctionService service, LeaseRepository leases,
+                                                       String node) {
+        return new AuctionAutoCloseScheduler(service, leases, new AuctionCloseTimer(false, 10, 512, 60000, 10000),
+                new NodeIdentity(node), 100, 5000, AuctionMetrics.NONE);
+    }
+
+    private static List<Integer> closedShards(AuctionService service) {
+        ArgumentCaptor<Integer> shards = ArgumentCaptor.forClass(Integer.class);
+        Mockito.verify(service, Mockito.atLeast(0)).autoCloseExpiredAuctions(shards.capture(), anyInt());
+        return shards.getAllValues();
+    }
+
+    // Leases that never expire, shared by the schedulers of one test as Dragonfly would be.
+    private static final class InMemoryLeaseRepository implements LeaseRepository {
+        private final Map<String, String> owners = new HashMap<>();
+        private final Set<String> members = new HashSet<>();
+
+        @Override
+        public synchronized boolean tryAcquire(String name, String owner, long ttlMs) {
+            return owners.computeIfAbsent(name, key -> owner).equals(owner);
+        }
+
+        @Override
+        public synchronized void release(String name, String owner) {
+            owners.remove(name, owner);
+        }
+
+        @Override
+        public synchronized int heartbeat(String group, String owner, long ttlMs) {
+            members.add(group + "/" + owner);
+            return (int) members.stream().filter(member -> member.startsWith(group + "/")).count();
+        }
+
+        @Override
+        public synchronized void leave(String group, String owner) {
+            members.remove(group + "/" + owner);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bidengine.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionCloseTimerTest {
+    private AuctionCloseTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        timer.destroy();
+    }
+
+    @Test
+    void firesAtEndTimeAndNotBefore() throws InterruptedException {
+        timer = new AuctionCloseTimer(true, 10, 8, 60000, 10000);
+        Map<String, Long> firedAt = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        timer.start(ids -> ids.forEach(id -> {
+            firedAt.put(id, System.currentTimeMillis());
+            latch.countDown();
+        }));
+        long now = System.currentTimeMillis();
+        long nearEnd = now + 150;
+        // Beyond one wheel rotation (8 x 10 ms), so it goes through the overflow level.
+        long farEnd = now + 400;
+
+        timer.schedule("near", nearEnd);
+        timer.schedule("far", farEnd);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt.get("near")).isGreaterThanOrEqualTo(nearEnd);
+        assertThat(firedAt.get("far")).isGreaterThanOrEqualTo(farEnd);
+        assertThat(timer.pendingCount()).isZero();
+    }
+
+    @Test
+    void firesPastDeadlinesImmediately() throws InterruptedException {
+        timer = new AuctionCloseTimer(true, 10, 8, 60000, 10000);
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.start(ids -> latch.countDown());
+
+        timer.schedule("late", System.currentTimeMillis() - 1000);
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void leavesDeadlinesBeyondHorizonToReconcile() {
+        timer = new AuctionCloseTimer(true, 10, 8, 1000, 10000);
+        timer.start(List::size);
+
+        timer.schedule("later", System.currentTimeMillis() + 5000);
+        timer.schedule("soon", System.currentTimeMillis() + 500);
+        timer.schedule("soon", System.currentTimeMillis() + 500);
+
+        assertThat(timer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledTimerSchedulesNothing() {
+        timer = new AuctionCloseTimer(false, 10, 8, 60000, 10000);
+
+        timer.schedule("a1", System.currentTimeMillis() + 100);
+
+        assertThat(timer.pendingCount()).isZero();
+    }
+}
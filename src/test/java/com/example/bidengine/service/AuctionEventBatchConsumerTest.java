@@ -0,0 +1,105 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.metrics.AuctionMetrics;
+import com.example.bidengine.persistence.AuctionProjectionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionEventBatchConsumerTest {
+    private AuctionProjectionRepository projectionRepository;
+    private SimpleMeterRegistry registry;
+    private AuctionEventBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        projectionRepository = Mockito.mock(AuctionProjectionRepository.class);
+        registry = new SimpleMeterRegistry();
+        consumer = new AuctionEventBatchConsumer(projectionRepository, new AuctionMetrics(registry));
+    }
+
+    @Test
+    void coalescesLatestBidPerAuctionBySeq() {
+        consumer.handle(List.of(
+                created("a1"),
+                bid("a1", "b1", "u1", 110, 1),
+                bid("a2", "b2", "u2", 500, 1),
+                bid("a1", "b4", "u1", 150, 3),
+                bid("a1", "b3", "u3", 130, 2)
+        ));
+
+        ArgumentCaptor<Collection<AuctionEvent>> bids = ArgumentCaptor.captor();
+        ArgumentCaptor<Collection<AuctionEvent>> highest = ArgumentCaptor.captor();
+        Mockito.verify(projectionRepository).insertBids(bids.capture());
+        Mockito.verify(projectionRepository).upsertHighestBids(highest.capture());
+
+        assertThat(bids.getValue()).extracting(AuctionEvent::bidId).containsExactly("b1", "b2", "b4", "b3");
+        assertThat(highest.getValue()).extracting(AuctionEvent::bidId).containsExactly("b4", "b2");
+    }
+
+    @Test
+    void writesCreatedBeforeBidsBeforeClose() {
+        consumer.handle(List.of(
+                created("a1"),
+                bid("a1", "b1", "u1", 110, 1),
+                closed("a1", 110L, "u1", 2)
+        ));
+
+        InOrder order = Mockito.inOrder(projectionRepository);
+        order.verify(projectionRepository).upsertAuctions(Mockito.anyCollection());
+        order.verify(projectionRepository).insertBids(Mockito.anyCollection());
+        order.verify(projectionRepository).upsertHighestBids(Mockito.anyCollection());
+        order.verify(projectionRepository).upsertClosedAuctions(Mockito.anyCollection());
+    }
+
+    @Test
+    void ignoresUnknownAndEmptyEvents() {
+        consumer.handle(List.of(
+                new AuctionEvent("e1", "SOMETHING_ELSE", "a1", 1, null, null, null, null, null,
+                        null, null, null, null, null, null, null)
+        ));
+
+        ArgumentCaptor<Collection<AuctionEvent>> bids = ArgumentCaptor.captor();
+        Mockito.verify(projectionRepository).insertBids(bids.capture());
+        assertThat(bids.getValue()).isEmpty();
+        assertThat(registry.find("bidengine.projection.lag").timers()).isEmpty();
+    }
+
+    @Test
+    void recordsProjectionLagPerEventTypeAndOneTimingPerPoll() {
+        consumer.handle(List.of(
+                created("a1"),
+                bid("a1", "b1", "u1", 110, 1),
+                bid("a1", "b2", "u2", 120, 2)
+        ));
+
+        assertThat(registry.get("bidengine.projection.lag").tag("event", "BID_PLACED").timer().count()).isEqualTo(2);
+        assertThat(registry.get("bidengine.projection.lag").tag("event", "AUCTION_CREATED").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("bidengine.consumer.handle").tag("listener", "batch").timer().count()).isEqualTo(1);
+    }
+
+    private static AuctionEvent created(String auctionId) {
+        return new AuctionEvent("e-" + auctionId, "AUCTION_CREATED", auctionId, 0, "s1", "title", null,
+                100L, null, 0L, 10_000L, null, null, null, "OPEN", 0L);
+    }
+
+    private static AuctionEvent bid(String auctionId, String bidId, String bidderId, long amount, long seq) {
+        return new AuctionEvent("e-" + bidId, "BID_PLACED", auctionId, seq, null, null, null, null, null,
+                null, null, bidId, bidderId, amount, "OPEN", seq);
+    }
+
+    private static AuctionEvent closed(String auctionId, Long amount, String bidderId, long seq) {
+        return new AuctionEvent("e-close-" + auctionId, "AUCTION_CLOSED", auctionId, 10, null, null, null, null,
+                null, null, null, null, bidderId, amount, "CLOSED", seq);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.events.AuctionEvent;
+import com.example.bidengine.metrics.AuctionMetrics;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class AuctionEventPublisherTest {
+    private KafkaTemplate<String, AuctionEvent> kafkaTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+    }
+
+    @Test
+    void keysEventsByAuctionId() {
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 10, 0);
+
+        AuctionEvent event = bidPlaced("a-1");
+        publisher.publish(event);
+
+        Mockito.verify(kafkaTemplate).send("auction-events", "a-1", event);
+        assertThat(publisher.acknowledgedCount()).isEqualTo(1);
+        assertThat(publisher.inFlightCount()).isZero();
+    }
+
+    @Test
+    void countsFailedSends() {
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenThrow(new KafkaException("serialization failed"));
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 10, 0);
+
+        assertThat(publisher.publish(bidPlaced("a-1"))).isCompletedExceptionally();
+        assertThat(publisher.publish(bidPlaced("a-2"))).isCompletedExceptionally();
+
+        assertThat(publisher.failedCount()).isEqualTo(2);
+        assertThat(publisher.acknowledgedCount()).isZero();
+        assertThat(publisher.inFlightCount()).isZero();
+    }
+
+    @Test
+    void retriesACommittedEventUntilAcknowledged() throws Exception {
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenThrow(new KafkaException("buffer full"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 10, 0, 10,
+                AuctionMetrics.NONE);
+
+        publisher.publishUntilAcknowledged(bidPlaced("a-1")).get(5, TimeUnit.SECONDS);
+
+        Mockito.verify(kafkaTemplate, Mockito.times(3)).send(anyString(), anyString(), any());
+        assertThat(publisher.failedCount()).isEqualTo(2);
+        assertThat(publisher.acknowledgedCount()).isEqualTo(1);
+        assertThat(publisher.inFlightCount()).isZero();
+        publisher.destroy();
+    }
+
+    @Test
+    void turnsRequestsAwayAtTheInFlightLimitUntilAcknowledged() {
+        CompletableFuture<SendResult<String, AuctionEvent>> pending = new CompletableFuture<>();
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 2, 0);
+
+        publisher.awaitCapacity();
+        publisher.publishUntilAcknowledged(bidPlaced("a-1"));
+        publisher.awaitCapacity();
+        // A committed change may add several events; none of them is dropped at the limit.
+        publisher.publishUntilAcknowledged(bidPlaced("a-2"));
+        publisher.publishUntilAcknowledged(bidPlaced("a-3"));
+
+        assertThatThrownBy(publisher::awaitCapacity).isInstanceOf(EventBackpressureException.class);
+        assertThat(publisher.inFlightCount()).isEqualTo(3);
+        assertThat(publisher.rejectedCount()).isEqualTo(1);
+        Mockito.verify(kafkaTemplate, Mockito.times(3)).send(anyString(), anyString(), any());
+
+        pending.complete(null);
+        publisher.awaitCapacity();
+
+        assertThat(publisher.acknowledgedCount()).isEqualTo(3);
+        assertThat(publisher.inFlightCount()).isZero();
+    }
+
+    @Test
+    void awaitCapacityWakesUpWhenASlotFrees() throws Exception {
+        CompletableFuture<SendResult<String, AuctionEvent>> pending = new CompletableFuture<>();
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 1, 60_000);
+        publisher.publishUntilAcknowledged(bidPlaced("a-1"));
+
+        CompletableFuture<Void> admitted = CompletableFuture.runAsync(publisher::awaitCapacity);
+        pending.complete(null);
+
+        admitted.get(5, TimeUnit.SECONDS);
+        assertThat(publisher.rejectedCount()).isZero();
+    }
+
+    @Test
+    void checkCapacityTurnsRequestsAwayWithoutWaitingForASlot() {
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        AuctionEventPublisher publisher = new AuctionEventPublisher(kafkaTemplate, "auction-events", 1, 60_000);
+
+        publisher.checkCapacity();
+        publisher.publishUntilAcknowledged(bidPlaced("a-1"));
+        long start = System.nanoTime();
+
+        assertThatThrownBy(publisher::checkCapacity).isInstanceOf(EventBackpressureException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(publisher.rejectedCount()).isEqualTo(1);
+        assertThat(publisher.inFlightCount()).isEqualTo(1);
+    }
+
+    private static AuctionEvent bidPlaced(String auctionId) {
+        return AuctionEvents.bidPlaced("e-" + auctionId, auctionId, "b-" + auctionId, "bidder", 100, 1000L, 1);
+    }
+}
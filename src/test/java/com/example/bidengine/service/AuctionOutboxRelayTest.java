@@ -0,0 +1,153 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.config.NodeIdentity;
+import com.example.bidengine.redis.AuctionOutboxRepository;
+import com.example.bidengine.redis.AuctionOutboxRepository.OutboxEntry;
+import com.example.bidengine.redis.AuctionOutboxRepository.SweepPage;
+import com.example.bidengine.store.LeaseRepository;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class AuctionOutboxRelayTest {
+    private AuctionOutboxRepository outboxRepository;
+    private AuctionEventPublisher eventPublisher;
+    private LeaseRepository leaseRepository;
+    private AuctionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = Mockito.mock(AuctionOutboxRepository.class);
+        eventPublisher = Mockito.mock(AuctionEventPublisher.class);
+        leaseRepository = Mockito.mock(LeaseRepository.class);
+        Mockito.when(outboxRepository.shards()).thenReturn(2);
+        Mockito.when(outboxRepository.shardOf(anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("s0-") ? 0 : 1);
+        Mockito.when(outboxRepository.sweep(anyInt(), anyLong(), anyInt(), anyLong()))
+                .thenReturn(new SweepPage(List.of(), 0, true));
+        relay = new AuctionOutboxRelay(outboxRepository, eventPublisher, leaseRepository, new NodeIdentity("node-a"),
+                100, 10, 3000, 5000, 2, 1000);
+    }
+
+    @Test
+    void sweepsNewlyLeasedShardsForEntriesLeftByThePreviousOwner() {
+        Mockito.when(leaseRepository.tryAcquire("outbox:0", "node-a", 3000)).thenReturn(true);
+        Mockito.when(leaseRepository.tryAcquire("outbox:1", "node-a", 3000)).thenReturn(false);
+        Mockito.when(outboxRepository.sweep(eq(0), eq(0L), eq(2), anyLong()))
+                .thenReturn(new SweepPage(List.of("s0-a1"), 0, true));
+        Mockito.when(outboxRepository.read(List.of("s0-a1"), 100))
+                .thenReturn(Map.of("s0-a1", List.of(entry("s0-a1", "1-0", "e1"))));
+        Mockito.when(eventPublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.renewLeases();
+        relay.relayOnce();
+        relay.renewLeases();
+        relay.relayOnce();
+
+        Mockito.verify(outboxRepository).sweep(eq(0), eq(0L), eq(2), anyLong());
+        Mockito.verify(outboxRepository, Mockito.never()).sweep(eq(1), anyLong(), anyInt(), anyLong());
+        Mockito.verify(outboxRepository).read(List.of("s0-a1"), 100);
+        Mockito.verify(outboxRepository).acknowledge(Map.of("s0-a1", List.of("1-0")));
+    }
+
+    @Test
+    void sweepsTheRegistryOnePageAtATime() {
+        Mockito.when(leaseRepository.tryAcquire("outbox:0", "node-a", 3000)).thenReturn(true);
+        Mockito.when(outboxRepository.sweep(eq(0), eq(0L), eq(2), anyLong()))
+                .thenReturn(new SweepPage(List.of("s0-a1"), 2, false));
+        Mockito.when(outboxRepository.sweep(eq(0), eq(2L), eq(2), anyLong()))
+                .thenReturn(new SweepPage(List.of("s0-a3"), 0, true));
+
+        relay.renewLeases();
+
+        assertThat(relay.sweep(0)).isFalse();
+        Mockito.verify(outboxRepository).sweep(eq(0), eq(2L), eq(2), anyLong());
+        relay.relayOnce();
+        Mockito.verify(outboxRepository).read(List.of("s0-a1", "s0-a3"), 50);
+    }
+
+    @Test
+    void relaysOnlyItsShareOfTheShards() {
+        Mockito.when(leaseRepository.heartbeat("outbox", "node-a", 3000)).thenReturn(2);
+        Mockito.when(leaseRepository.tryAcquire(anyString(), eq("node-a"), anyLong())).thenReturn(true);
+
+        relay.renewLeases();
+
+        Mockito.verify(outboxRepository, Mockito.times(1)).sweep(anyInt(), anyLong(), anyInt(), anyLong());
+        Mockito.verify(leaseRepository, Mockito.times(1)).tryAcquire(anyString(), eq("node-a"), anyLong());
+    }
+
+    @Test
+    void readsHintedAuctionsOfOwnedShardsOnlyInOneCall() {
+        Mockito.when(leaseRepository.tryAcquire("outbox:0", "node-a", 3000)).thenReturn(true);
+        relay.renewLeases();
+
+        relay.onMessage(message("s0-a1|3|OPEN|150|u1"), null);
+        relay.onMessage(message("s1-a2|1|OPEN|150|u1"), null);
+        relay.onMessage(message("s0-a3"), null);
+        relay.relayOnce();
+
+        ArgumentCaptor<List<String>> read = readCaptor();
+        Mockito.verify(outboxRepository).read(read.capture(), eq(50));
+        assertThat(read.getValue()).containsExactlyInAnyOrder("s0-a1", "s0-a3");
+    }
+
+    @Test
+    void keepsEntriesFromTheFirstFailureOfAnAuction() {
+        Mockito.when(leaseRepository.tryAcquire(anyString(), eq("node-a"), anyLong())).thenReturn(true);
+        relay.renewLeases();
+        OutboxEntry sent = entry("s0-a1", "1-0", "e1");
+        OutboxEntry failed = entry("s1-a2", "1-0", "e2");
+        OutboxEntry afterFailure = entry("s1-a2", "2-0", "e3");
+        OutboxEntry otherSent = entry("s1-a3", "1-0", "e4");
+        Mockito.when(outboxRepository.read(any(), anyInt())).thenReturn(Map.of(
+                "s0-a1", List.of(sent), "s1-a2", List.of(failed, afterFailure), "s1-a3", List.of(otherSent)));
+        Mockito.when(eventPublisher.publish(failed.event()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+        Mockito.when(eventPublisher.publish(Mockito.argThat(event -> event != failed.event())))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        for (String auctionId : List.of("s0-a1", "s1-a2", "s1-a3")) {
+            relay.onMessage(message(auctionId), null);
+        }
+
+        assertThat(relay.relayOnce()).isEqualTo(2);
+
+        Mockito.verify(outboxRepository).acknowledge(Map.of("s0-a1", List.of("1-0"), "s1-a3", List.of("1-0")));
+
+        relay.relayOnce();
+
+        ArgumentCaptor<List<String>> read = readCaptor();
+        Mockito.verify(outboxRepository, Mockito.times(2)).read(read.capture(), anyInt());
+        assertThat(read.getAllValues().get(1)).containsExactly("s1-a2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<String>> readCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auction:updates".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static OutboxEntry entry(String auctionId, String id, String eventId) {
+        return new OutboxEntry(auctionId, id, AuctionEvents.bidPlaced(eventId, auctionId, "b-" + eventId,
+                "bidder", 100, 1000L, 1));
+    }
+}
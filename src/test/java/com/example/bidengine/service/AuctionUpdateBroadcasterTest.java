@@ -0,0 +1,130 @@
+package com.example.bidengine.service;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.AuctionUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionUpdateBroadcasterTest {
+    private static final AuctionUpdate INITIAL = new AuctionUpdate("a1", 0L, "OPEN", null, null);
+
+    private AuctionUpdateBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        // Flushed by hand in the tests.
+        broadcaster = new AuctionUpdateBroadcaster(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void deliversInitialStateThenLatestUpdatePerWindow() throws InterruptedException {
+        List<AuctionUpdate> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        broadcaster.subscribe("a1", update -> {
+            received.add(update);
+            latch.countDown();
+        }).offer(INITIAL);
+
+        publish("a1|1|OPEN|150|u1");
+        publish("a1|3|OPEN|170|u3");
+        publish("a1|2|OPEN|160|u2");
+        broadcaster.flush();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(AuctionUpdate::seq).containsExactly(0L, 3L);
+        assertThat(received.get(1).highestBid()).isEqualTo(170L);
+        assertThat(received.get(1).highestBidderId()).isEqualTo("u3");
+    }
+
+    @Test
+    void parsesCloseWithoutBids() throws InterruptedException {
+        List<AuctionUpdate> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        broadcaster.subscribe("a1", update -> {
+            received.add(update);
+            latch.countDown();
+        }).offer(INITIAL);
+
+        publish("a1|1|CLOSED_NO_SALE||");
+        broadcaster.flush();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.get(1).closed()).isTrue();
+        assertThat(received.get(1).highestBid()).isNull();
+        assertThat(received.get(1).highestBidderId()).isNull();
+    }
+
+    @Test
+    void keepsUpdatesPublishedBeforeTheInitialStateIsOffered() throws InterruptedException {
+        List<AuctionUpdate> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        AuctionUpdateBroadcaster.Subscription subscription = broadcaster.subscribe("a1", update -> {
+            received.add(update);
+            latch.countDown();
+        });
+
+        publish("a1|1|CLOSED|150|u1");
+        broadcaster.flush();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        subscription.offer(INITIAL);
+
+        assertThat(received).extracting(AuctionUpdate::seq).containsExactly(1L);
+        assertThat(received.getFirst().closed()).isTrue();
+    }
+
+    @Test
+    void dropsUpdatesOlderThanTheInitialState() throws InterruptedException {
+        List<AuctionUpdate> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        AuctionUpdateBroadcaster.Subscription subscription = broadcaster.subscribe("a1", update -> {
+            received.add(update);
+            latch.countDown();
+        });
+        // Published before the read, but flushed after the initial state was offered.
+        publish("a1|3|OPEN|170|u3");
+        subscription.offer(AuctionUpdate.of(new AuctionResponse("a1", "s1", "title", null, "OPEN", 100, null, 10, 20,
+                180L, "u4", 10, 40, 4)));
+        broadcaster.flush();
+        publish("a1|5|OPEN|190|u5");
+        broadcaster.flush();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(AuctionUpdate::seq).containsExactly(4L, 5L);
+        assertThat(received.getFirst().highestBid()).isEqualTo(180L);
+    }
+
+    @Test
+    void cancelledAndFailingSubscribersAreRemoved() {
+        AuctionUpdateBroadcaster.Subscription subscription = broadcaster.subscribe("a1", update -> {
+        });
+        subscription.offer(INITIAL);
+        broadcaster.subscribe("a2", update -> {
+            throw new IllegalStateException("client gone");
+        }).offer(new AuctionUpdate("a2", 0L, "OPEN", null, null));
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+
+        subscription.cancel();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    private void publish(String body) {
+        broadcaster.onMessage(new DefaultMessage("auction:updates".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+}
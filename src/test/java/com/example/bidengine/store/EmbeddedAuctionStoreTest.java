@@ -0,0 +1,234 @@
+package com.example.bidengine.store;
+
+import com.example.bidengine.api.AuctionResponse;
+import com.example.bidengine.api.AuctionUpdate;
+import com.example.bidengine.api.BidResponse;
+import com.example.bidengine.metrics.AuctionMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedAuctionStoreTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final List<AuctionUpdate> updates = new CopyOnWriteArrayList<>();
+    private final AuctionUpdateListener listener = updates::add;
+
+    @Test
+    void bidsFollowThePlaceBidRules() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 100);
+        store.createAuction(auction("a1", 100, null, NOW + 60_000), "e0");
+
+        assertThat(store.placeBid("a1", "b0", "u1", 90, NOW, "e1").errorCode()).isEqualTo("BELOW_START");
+        var first = store.placeBid("a1", "b1", "u1", 150, NOW, "e1");
+        assertThat(first.status()).isEqualTo("OK");
+        assertThat(first.placed()).containsExactly(new AuctionStore.PlacedBid("b1", "u1", 150, 1));
+        assertThat(store.placeBid("a1", "b2", "u2", 150, NOW, "e2").errorCode()).isEqualTo("BELOW_HIGHEST");
+        assertThat(store.placeBid("a1", "b3", "u2", 200, NOW + 60_001, "e3").errorCode()).isEqualTo("ENDED");
+        assertThat(store.placeBid("missing", "b4", "u2", 200, NOW, "e4").errorCode()).isEqualTo("NOT_FOUND");
+
+        AuctionResponse snapshot = store.getAuction("a1");
+        assertThat(snapshot.highestBid()).isEqualTo(150L);
+        assertThat(snapshot.highestBidderId()).isEqualTo("u1");
+        assertThat(snapshot.description()).isEmpty();
+        assertThat(updates).containsExactly(new AuctionUpdate("a1", 1, "OPEN", 150L, "u1"));
+    }
+
+    @Test
+    void proxyBidsResolveBiddingWarsLikeTheScripts() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 100);
+        store.createAuction(auction("proxy-1", 1000, null, NOW + 60_000), "e0");
+
+        var opening = store.proxyBid("proxy-1", "b1", "u1", 2000, NOW, "e1");
+        assertThat(opening.status()).isEqualTo("OK");
+        assertThat(opening.highestBid()).isEqualTo(1000L);
+
+        var outbid = store.proxyBid("proxy-1", "b2", "u2", 1500, NOW, "e2");
+        assertThat(outbid.status()).isEqualTo("OUTBID");
+        assertThat(outbid.placed()).containsExactly(
+                new AuctionStore.PlacedBid("b2", "u2", 1500, 2),
+                new AuctionStore.PlacedBid("b2-proxy", "u1", 1550, 3));
+
+        var manualOutbid = store.placeBid("proxy-1", "b3", "u3", 1600, NOW, "e3");
+        assertThat(manualOutbid.status()).isEqualTo("OUTBID");
+        assertThat(manualOutbid.highestBid()).isEqualTo(1650L);
+        assertThat(manualOutbid.highestBidderId()).isEqualTo("u1");
+
+        var overMax = store.placeBid("proxy-1", "b4", "u3", 2500, NOW, "e4");
+        assertThat(overMax.status()).isEqualTo("OK");
+        assertThat(overMax.placed()).extracting(AuctionStore.PlacedBid::amount).containsExactly(2000L, 2500L);
+        assertThat(store.proxyBid("proxy-1", "b5", "u1", 2400, NOW, "e5").errorCode()).isEqualTo("BELOW_HIGHEST");
+        assertThat(store.listTopBids("proxy-1", 10)).extracting(BidResponse::amount)
+                .containsExactly(2500L, 2000L, 1650L, 1600L, 1550L, 1500L, 1000L);
+    }
+
+    @Test
+    void proxyBidOpensAtTheReserveItCovers() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 100);
+        store.createAuction(auction("proxy-2", 100, 1000L, NOW + 60_000), "e0");
+
+        assertThat(store.proxyBid("proxy-2", "b1", "u1", 800, NOW, "e1").highestBid()).isEqualTo(100L);
+        var raised = store.proxyBid("proxy-2", "b2", "u1", 5000, NOW, "e2");
+
+        assertThat(raised.status()).isEqualTo("OK");
+        assertThat(raised.highestBid()).isEqualTo(1000L);
+        assertThat(store.proxyBid("proxy-2", "b3", "u1", 4000, NOW, "e3").errorCode()).isEqualTo("BELOW_MAX");
+    }
+
+    @Test
+    void rateLimitsCountRejectedBidsAndRefill() {
+        EmbeddedAuctionStore store = store(new BidRateLimits(2, 10, 0, 0), 100);
+        store.createAuction(auction("limited-1", 100, null, NOW + 60_000), "e0");
+
+        assertThat(store.placeBid("limited-1", "b1", "u1", 150, NOW, "e1").ok()).isTrue();
+        assertThat(store.placeBid("limited-1", "b2", "u1", 140, NOW, "e2").errorCode()).isEqualTo("BELOW_HIGHEST");
+        var limited = store.placeBid("limited-1", "b3", "u1", 200, NOW, "e3");
+        assertThat(limited.errorCode()).isEqualTo("RATE_LIMITED");
+        assertThat(limited.retryAfterMs()).isEqualTo(100L);
+        assertThat(store.placeBid("limited-1", "b4", "u2", 200, NOW, "e4").ok()).isTrue();
+
+        assertThat(store.placeBid("limited-1", "b5", "u1", 250, NOW + 100, "e5").ok()).isTrue();
+    }
+
+    @Test
+    void dropsBidderBucketsOnceTheyHaveRefilled() {
+        EmbeddedAuctionStore store = store(new BidRateLimits(2, 10, 0, 0), 100);
+        store.createAuction(auction("limited-1", 100, null, NOW + 60_000), "e0");
+        for (int i = 0; i < 63; i++) {
+            store.placeBid("limited-1", "b" + i, "u" + i, 150 + i * 1000, NOW, "e" + i);
+        }
+        assertThat(store.bidderBucketCount("limited-1")).isEqualTo(63);
+
+        assertThat(store.placeBid("limited-1", "b-late", "u-late", 100_000, NOW + 200, "e-late").ok()).isTrue();
+
+        assertThat(store.bidderBucketCount("limited-1")).isEqualTo(1);
+    }
+
+    @Test
+    void placeAuctionBidsEvaluatesEachBidAtItsOwnTime() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 100);
+        store.createAuction(auction("a1", 100, null, NOW + 1000), "e0");
+
+        var results = store.placeAuctionBids("a1", List.of(
+                timedBid("b1", "u1", 150, NOW),
+                timedBid("b2", "u2", 140, NOW + 1),
+                timedBid("b3", "u3", 300, NOW + 1001)));
+
+        assertThat(results).extracting(AuctionStore.PlaceBidResult::ok).containsExactly(true, false, false);
+        assertThat(results).extracting(AuctionStore.PlaceBidResult::errorCode)
+                .containsExactly(null, "BELOW_HIGHEST", "ENDED");
+    }
+
+    @Test
+    void closeExpiredAuctionsClaimsEachAuctionOnce() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 100);
+        for (String auctionId : List.of("exp-1", "exp-2", "future-1")) {
+            long endTime = auctionId.startsWith("exp") ? NOW + 100 : NOW + 60_000;
+            store.createAuction(auction(auctionId, 100, 200L, endTime), "created-" + auctionId);
+        }
+        store.placeBid("exp-1", "b1", "u1", 250, NOW, "e1");
+        store.placeBid("exp-2", "b2", "u2", 150, NOW, "e2");
+
+        var closed = store.closeExpiredAuctions(0, NOW + 200, 10, () -> "close");
+
+        assertThat(closed).extracting(AuctionStore.ClosedAuction::auctionId)
+                .containsExactlyInAnyOrder("exp-1", "exp-2");
+        assertThat(closed).extracting(auction -> auction.result().status())
+                .containsExactlyInAnyOrder("CLOSED", "CLOSED_NO_SALE");
+        assertThat(store.closeExpiredAuctions(0, NOW + 200, 10, () -> "close")).isEmpty();
+        assertThat(store.listScheduledCloses(0, NOW + 60_000, 10)).extracting(AuctionStore.ScheduledClose::auctionId)
+                .containsExactly("future-1");
+        assertThat(store.closeAuction("exp-1", NOW + 300, "e3").errorCode()).isEqualTo("NOT_OPEN");
+        assertThat(updates).contains(new AuctionUpdate("exp-1", 2, "CLOSED", 250L, "u1"),
+                new AuctionUpdate("exp-2", 2, "CLOSED_NO_SALE", 150L, "u2"));
+    }
+
+    @Test
+    void bidBookKeepsTheTopBidsWithAProxyAnswerBeforeTheBidItTies() {
+        EmbeddedAuctionStore store = store(BidRateLimits.NONE, 3);
+        store.createAuction(auction("a1", 100, null, NOW + 60_000), "e0");
+        for (int i = 1; i <= 4; i++) {
+            store.placeBid("a1", "b" + i, "u" + i, 100 + i * 10, NOW, "e" + i);
+        }
+        store.proxyBid("a1", "b5", "u5", 500, NOW, "e5");
+        store.placeBid("a1", "b6", "u6", 500, NOW, "e6");
+
+        assertThat(store.listTopBids("a1", 10)).extracting(BidResponse::bidId)
+                .containsExactly("b6-proxy", "b6", "b5");
+        assertThat(store.listTopBids("a1", 10)).extracting(BidResponse::amount).containsExactly(500L, 500L, 165L);
+    }
+
+    @Test
+    void restartReplaysTheJournal(@TempDir Path journal) {
+        EmbeddedAuctionStore store = journaledStore(journal, 1 << 20);
+        store.createAuction(auction("a1", 1000, null, NOW + 60_000), "e0");
+        store.createAuction(auction("a2", 100, 500L, NOW + 100), "e1");
+        store.proxyBid("a1", "b1", "u1", 2000, NOW, "e2");
+        store.proxyBid("a1", "b2", "u2", 1500, NOW, "e3");
+        store.placeBid("a2", "b3", "u3", 150, NOW, "e4");
+        store.closeExpiredAuctions(0, NOW + 200, 10, () -> "close");
+        AuctionResponse a1 = store.getAuction("a1");
+        List<BidResponse> a1Bids = store.listTopBids("a1", 10);
+        AuctionResponse a2 = store.getAuction("a2");
+        store.destroy();
+
+        EmbeddedAuctionStore restarted = journaledStore(journal, 1 << 20);
+
+        assertThat(restarted.getAuction("a1")).isEqualTo(a1);
+        assertThat(restarted.listTopBids("a1", 10)).isEqualTo(a1Bids);
+        assertThat(restarted.getAuction("a2")).isEqualTo(a2);
+        assertThat(restarted.listScheduledCloses(0, NOW + 60_000, 10))
+                .extracting(AuctionStore.ScheduledClose::auctionId).containsExactly("a1");
+        var outbid = restarted.placeBid("a1", "b4", "u3", 1600, NOW + 1, "e5");
+        assertThat(outbid.status()).isEqualTo("OUTBID");
+        assertThat(outbid.placed()).extracting(AuctionStore.PlacedBid::seq).containsExactly(4L, 5L);
+        restarted.destroy();
+
+        assertThat(journaledStore(journal, 1 << 20).getAuction("a1").highestBid()).isEqualTo(1650L);
+    }
+
+    @Test
+    void journalContinuesInANewSegmentWhenOneFills(@TempDir Path journal) throws IOException {
+        EmbeddedAuctionStore store = journaledStore(journal, 1 << 16);
+        store.createAuction(auction("a1", 100, null, NOW + 60_000), "e0");
+        for (int i = 1; i <= 2000; i++) {
+            store.placeBid("a1", "b" + i, "u" + i % 7, 100 + i, NOW, "e" + i);
+        }
+        store.destroy();
+
+        EmbeddedAuctionStore restarted = journaledStore(journal, 1 << 16);
+
+        try (var files = Files.list(journal)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        assertThat(restarted.getAuction("a1").highestBid()).isEqualTo(2100L);
+        assertThat(restarted.listTopBids("a1", 2)).extracting(BidResponse::bidId).containsExactly("b2000", "b1999");
+        assertThat(restarted.listTopBids("a1", 1)).extracting(BidResponse::bidderId).containsExactly("u5");
+    }
+
+    private EmbeddedAuctionStore journaledStore(Path journal, long segmentBytes) {
+        return new EmbeddedAuctionStore(1, 16, 100, BidRateLimits.NONE, AuctionMetrics.NONE, List.of(), journal,
+                segmentBytes);
+    }
+
+    private EmbeddedAuctionStore store(BidRateLimits rateLimits, int bidBookSize) {
+        return new EmbeddedAuctionStore(1, 16, bidBookSize, rateLimits, AuctionMetrics.NONE, List.of(listener));
+    }
+
+    private static AuctionResponse auction(String auctionId, long startingPrice, Long reservePrice, long endTime) {
+        return new AuctionResponse(auctionId, "seller-1", "Lot " + auctionId, null, "OPEN", startingPrice,
+                reservePrice, NOW - 1000, endTime, null, null, NOW, NOW, 0);
+    }
+
+    private static AuctionStore.TimedBid timedBid(String bidId, String bidderId, long amount, long now) {
+        return new AuctionStore.TimedBid(new AuctionStore.BidCommand("a1", bidId, bidderId, amount, "e-" + bidId),
+                now);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bidengine.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedLeaseRepositoryTest {
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final EmbeddedLeaseRepository leases = new EmbeddedLeaseRepository(now::get);
+
+    @Test
+    void leaseIsHeldByOneOwnerUntilItExpiresOrIsReleased() {
+        assertThat(leases.tryAcquire("auto-close:0", "node-a", 100)).isTrue();
+        assertThat(leases.tryAcquire("auto-close:0", "node-b", 100)).isFalse();
+        assertThat(leases.tryAcquire("auto-close:0", "node-a", 100)).isTrue();
+
+        now.addAndGet(100);
+        assertThat(leases.tryAcquire("auto-close:0", "node-b", 100)).isTrue();
+
+        leases.release("auto-close:0", "node-a");
+        assertThat(leases.tryAcquire("auto-close:0", "node-a", 100)).isFalse();
+        leases.release("auto-close:0", "node-b");
+        assertThat(leases.tryAcquire("auto-close:0", "node-a", 100)).isTrue();
+    }
+
+    @Test
+    void heartbeatCountsLiveMembersOfTheGroup() {
+        assertThat(leases.heartbeat("auto-close", "node-a", 100)).isEqualTo(1);
+        assertThat(leases.heartbeat("auto-close", "node-b", 300)).isEqualTo(2);
+        assertThat(leases.heartbeat("outbox", "node-a", 100)).isEqualTo(1);
+
+        now.addAndGet(200);
+        assertThat(leases.heartbeat("auto-close", "node-c", 100)).isEqualTo(2);
+
+        leases.leave("auto-close", "node-b");
+        assertThat(leases.heartbeat("auto-close", "node-c", 100)).isEqualTo(1);
+    }
+}